@@ -11,6 +11,7 @@ import blue.language.merge.MergingProcessor;
 import blue.language.merge.NodeResolver;
 import blue.language.merge.processor.*;
 import blue.language.model.Node;
+import blue.language.processor.DocumentEventPair;
 import blue.language.processor.DocumentProcessingResult;
 import blue.language.processor.ContractProcessor;
 import blue.language.processor.ContractMatchingService;
@@ -23,9 +24,13 @@ import blue.language.snapshot.CanonicalOverlayPatchEngine;
 import blue.language.snapshot.CanonicalPatchResult;
 import blue.language.snapshot.FrozenNode;
 import blue.language.snapshot.ResolvedReferenceCache;
+import blue.language.snapshot.ResolvedSubtreeCache;
 import blue.language.snapshot.ResolvedSnapshot;
 import blue.language.utils.*;
 import blue.language.utils.limits.CompositeLimits;
+import blue.language.utils.cache.BoundedCache;
+import blue.language.utils.cache.CacheSettings;
+import blue.language.utils.cache.CacheStats;
 import blue.language.utils.limits.Limits;
 
 import java.util.ArrayList;
@@ -34,12 +39,16 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import static blue.language.utils.UncheckedObjectMapper.JSON_MAPPER;
 import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
@@ -66,9 +75,15 @@ public class Blue implements NodeResolver {
     private TypeClassResolver typeClassResolver;
     private Map<String, String> preprocessingAliases = new HashMap<>();
     private Limits globalLimits = NO_LIMITS;
-    private DocumentProcessor documentProcessor;
-    private final ConcurrentMap<String, ResolvedSnapshot> resolvedSnapshotsByBlueId = new ConcurrentHashMap<>();
+    private volatile DocumentProcessor documentProcessor;
+    private Executor processingExecutor = ForkJoinPool.commonPool();
+    private volatile BoundedCache<CompactBlueId, ResolvedSnapshot> resolvedSnapshotsByBlueId =
+            new BoundedCache<>(CacheSettings.defaults(), Blue::snapshotWeight);
+    private final Map<CompactBlueId, ResolvedSnapshot> pinnedSnapshotsByBlueId = new ConcurrentHashMap<>();
     private final ResolvedReferenceCache resolvedReferenceCache = new ResolvedReferenceCache();
+    private final ResolvedSubtreeCache resolvedSubtrees = new ResolvedSubtreeCache();
+    private final ResolvedSubtreeCache processorResolvedSubtrees = new ResolvedSubtreeCache();
+    private boolean defaultMergingProcessor;
     private final DictionaryRegistry dictionaryRegistry = new DictionaryRegistry();
 
 
@@ -80,6 +95,7 @@ public class Blue implements NodeResolver {
     public Blue(NodeProvider nodeProvider) {
         this.nodeProvider = NodeProviderWrapper.wrap(nodeProvider);
         this.mergingProcessor = createDefaultNodeProcessor();
+        this.defaultMergingProcessor = true;
         this.documentProcessor = createDefaultDocumentProcessor();
     }
 
@@ -94,6 +110,7 @@ public class Blue implements NodeResolver {
     public Blue(NodeProvider nodeProvider, MergingProcessor mergingProcessor, TypeClassResolver typeClassResolver) {
         this.nodeProvider = NodeProviderWrapper.wrap(nodeProvider);
         this.mergingProcessor = mergingProcessor != null ? mergingProcessor : createDefaultNodeProcessor();
+        this.defaultMergingProcessor = mergingProcessor == null;
         this.typeClassResolver = typeClassResolver;
         this.documentProcessor = createDefaultDocumentProcessor();
     }
@@ -141,7 +158,10 @@ public class Blue implements NodeResolver {
 
     public ResolvedSnapshot loadSnapshot(Node canonical) {
         FrozenNode canonicalRoot = FrozenNode.fromNode(canonical);
-        ResolvedSnapshot cached = resolvedSnapshotsByBlueId.get(canonicalRoot.blueId());
+        if (globalLimits == NO_LIMITS) {
+            return snapshotFromCanonical(canonicalRoot, nodeProvider, resolvedSubtrees);
+        }
+        ResolvedSnapshot cached = cachedSnapshot(canonicalRoot.blueIdValue());
         if (cached != null) {
             return cached;
         }
@@ -150,7 +170,7 @@ public class Blue implements NodeResolver {
     }
 
     public ResolvedSnapshot loadSnapshot(String blueId) {
-        ResolvedSnapshot cached = resolvedSnapshotsByBlueId.get(blueId);
+        ResolvedSnapshot cached = cachedSnapshot(CompactBlueId.of(blueId));
         if (cached != null) {
             return cached;
         }
@@ -187,11 +207,20 @@ public class Blue implements NodeResolver {
     }
 
     public ResolvedSnapshot applyCanonicalPatch(ResolvedSnapshot snapshot, JsonPatch patch) {
-        return applyCanonicalPatch(snapshot, patch, nodeProvider);
+        return applyCanonicalPatch(snapshot, patch, nodeProvider, resolvedSubtrees);
     }
 
+    /**
+     * Pins {@code snapshot} so later loads of its BlueId return it without resolving. Pinned
+     * snapshots are kept apart from the bounded snapshot cache and are never evicted; only
+     * {@link #clearResolvedSnapshotCache()} drops them.
+     */
     public Blue cacheResolvedSnapshot(ResolvedSnapshot snapshot) {
-        cacheSnapshot(snapshot);
+        CompactBlueId blueId = snapshot.blueIdValue();
+        resolvedReferenceCache.intern(blueId, snapshot.frozenResolvedRoot());
+        resolvedReferenceCache.indexResolved(snapshot.frozenResolvedRoot());
+        pinnedSnapshotsByBlueId.put(blueId, snapshot);
+        resolvedSnapshotsByBlueId.invalidate(blueId);
         return this;
     }
 
@@ -201,20 +230,52 @@ public class Blue implements NodeResolver {
     }
 
     public Optional<ResolvedSnapshot> cachedResolvedSnapshot(String blueId) {
-        return Optional.ofNullable(resolvedSnapshotsByBlueId.get(blueId));
+        return Optional.ofNullable(cachedSnapshot(CompactBlueId.of(blueId)));
     }
 
     public int resolvedSnapshotCacheSize() {
-        return resolvedSnapshotsByBlueId.size();
+        return pinnedSnapshotsByBlueId.size() + resolvedSnapshotsByBlueId.size();
     }
 
     public int resolvedReferenceCacheSize() {
         return resolvedReferenceCache.size();
     }
 
+    public CacheStats resolvedSnapshotCacheStats() {
+        return resolvedSnapshotsByBlueId.stats();
+    }
+
+    public CacheStats resolvedReferenceCacheStats() {
+        return resolvedReferenceCache.stats();
+    }
+
+    /**
+     * Bounds the resolved snapshot cache by the total node count of cached snapshots. The same
+     * settings apply to the subtree caches used to resolve patched snapshots incrementally.
+     * Cached snapshots are dropped, except those pinned with {@link #cacheResolvedSnapshot(ResolvedSnapshot)}.
+     */
+    public Blue resolvedSnapshotCache(CacheSettings settings) {
+        resolvedSnapshotsByBlueId = new BoundedCache<>(settings, Blue::snapshotWeight);
+        resolvedSubtrees.settings(settings);
+        processorResolvedSubtrees.settings(settings);
+        return this;
+    }
+
+    /**
+     * Bounds the resolved type reference cache by the total node count of cached types.
+     * Cached references are dropped.
+     */
+    public Blue resolvedReferenceCache(CacheSettings settings) {
+        resolvedReferenceCache.settings(settings);
+        return this;
+    }
+
     public void clearResolvedSnapshotCache() {
+        pinnedSnapshotsByBlueId.clear();
         resolvedSnapshotsByBlueId.clear();
         resolvedReferenceCache.clear();
+        resolvedSubtrees.clear();
+        processorResolvedSubtrees.clear();
     }
 
     public ConformanceEngine conformanceEngine() {
@@ -390,6 +451,76 @@ public class Blue implements NodeResolver {
         return ensureDocumentProcessor().processDocument(snapshot, event);
     }
 
+    public List<DocumentProcessingResult> processDocument(ResolvedSnapshot snapshot, List<Node> events) {
+        return ensureDocumentProcessor().processDocument(snapshot, events);
+    }
+
+    public Iterator<DocumentProcessingResult> processDocument(ResolvedSnapshot snapshot, Iterator<Node> events) {
+        return ensureDocumentProcessor().processDocument(snapshot, events);
+    }
+
+    /**
+     * Processes independent document/event pairs in parallel on the processing executor and
+     * returns the results in input order. If any pair fails, the first failure in input order is
+     * rethrown after the whole batch has finished.
+     */
+    public List<DocumentProcessingResult> processDocuments(List<DocumentEventPair> batch) {
+        return processDocuments(batch, processingExecutor);
+    }
+
+    public List<DocumentProcessingResult> processDocuments(List<DocumentEventPair> batch, Executor executor) {
+        List<CompletableFuture<DocumentProcessingResult>> futures = processDocumentsAsync(batch, executor);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(ex -> null)
+                .join();
+        List<DocumentProcessingResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<DocumentProcessingResult> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                if (ex.getCause() instanceof Error) {
+                    throw (Error) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Submits each pair to {@code executor} and returns one future per pair in input order; each
+     * future completes as soon as its own pair is processed.
+     */
+    public List<CompletableFuture<DocumentProcessingResult>> processDocumentsAsync(List<DocumentEventPair> batch,
+                                                                                 Executor executor) {
+        if (batch == null) {
+            throw new IllegalArgumentException("batch must not be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+        List<CompletableFuture<DocumentProcessingResult>> futures = new ArrayList<>(batch.size());
+        for (DocumentEventPair pair : batch) {
+            futures.add(CompletableFuture.supplyAsync(() -> processDocument(pair.document(), pair.event()), executor));
+        }
+        return futures;
+    }
+
+    /**
+     * Sets the executor used by {@link #processDocuments(List)}; defaults to the common
+     * {@link ForkJoinPool}.
+     */
+    public Blue processingExecutor(Executor processingExecutor) {
+        if (processingExecutor == null) {
+            throw new IllegalArgumentException("processingExecutor must not be null");
+        }
+        this.processingExecutor = processingExecutor;
+        return this;
+    }
+
     public DocumentProcessor getDocumentProcessor() {
         return ensureDocumentProcessor();
     }
@@ -480,6 +611,7 @@ public class Blue implements NodeResolver {
 
     public Blue mergingProcessor(MergingProcessor mergingProcessor) {
         this.mergingProcessor = mergingProcessor;
+        this.defaultMergingProcessor = false;
         clearResolvedSnapshotCache();
         refreshDocumentProcessorConformanceEngine();
         return this;
@@ -496,10 +628,16 @@ public class Blue implements NodeResolver {
     }
 
     private DocumentProcessor ensureDocumentProcessor() {
-        if (documentProcessor == null) {
-            documentProcessor = createDefaultDocumentProcessor();
+        DocumentProcessor processor = documentProcessor;
+        if (processor == null) {
+            synchronized (this) {
+                if (documentProcessor == null) {
+                    documentProcessor = createDefaultDocumentProcessor();
+                }
+                processor = documentProcessor;
+            }
         }
-        return documentProcessor;
+        return processor;
     }
 
     private DocumentProcessor createDefaultDocumentProcessor() {
@@ -523,7 +661,8 @@ public class Blue implements NodeResolver {
                     documentProcessor.getContractTypeResolver(),
                     conformanceEngine(),
                     processingSnapshotManager(),
-                    new ContractMatchingService(this));
+                    new ContractMatchingService(this))
+                    .deferredSnapshotCommit(documentProcessor.isDeferredSnapshotCommit());
         }
     }
 
@@ -539,6 +678,11 @@ public class Blue implements NodeResolver {
                 return applyProcessingCanonicalPatch(snapshot, patch);
             }
 
+            @Override
+            public ResolvedSnapshot applyPatches(ResolvedSnapshot snapshot, List<JsonPatch> patches) {
+                return applyCanonicalPatches(snapshot, patches, processorSnapshotNodeProvider(), processorResolvedSubtrees);
+            }
+
             @Override
             public ResolvedSnapshot cacheSnapshot(ResolvedSnapshot snapshot) {
                 return Blue.this.cacheSnapshot(snapshot);
@@ -556,43 +700,102 @@ public class Blue implements NodeResolver {
     }
 
     private ResolvedSnapshot applyProcessingCanonicalPatch(ResolvedSnapshot snapshot, JsonPatch patch) {
-        return applyCanonicalPatch(snapshot, patch, processorSnapshotNodeProvider());
-    }
-
-    private ResolvedSnapshot applyCanonicalPatch(ResolvedSnapshot snapshot, JsonPatch patch, NodeProvider snapshotNodeProvider) {
-        CanonicalPatchResult patched = snapshot.applyCanonicalPatch(patch);
-        ResolvedSnapshot patchedSnapshot = snapshotFromCanonical(patched.root(), snapshotNodeProvider);
-        if (!canMinimizePatchedOverride(patch)) {
-            return patchedSnapshot;
+        return applyCanonicalPatch(snapshot, patch, processorSnapshotNodeProvider(), processorResolvedSubtrees);
+    }
+
+    private ResolvedSnapshot applyCanonicalPatch(ResolvedSnapshot snapshot,
+                                                 JsonPatch patch,
+                                                 NodeProvider snapshotNodeProvider,
+                                                 ResolvedSubtreeCache subtrees) {
+        return applyCanonicalPatches(snapshot, Collections.singletonList(patch), snapshotNodeProvider, subtrees);
+    }
+
+    /**
+     * Applies the patches to the canonical tree, resolves the result once and then drops every
+     * patched override that only restates what its type already provides.
+     */
+    private ResolvedSnapshot applyCanonicalPatches(ResolvedSnapshot snapshot,
+                                                   List<JsonPatch> patches,
+                                                   NodeProvider snapshotNodeProvider,
+                                                   ResolvedSubtreeCache subtrees) {
+        FrozenNode patchedRoot = snapshot.frozenCanonicalRoot();
+        List<String> overridePaths = new ArrayList<>();
+        for (JsonPatch patch : patches) {
+            CanonicalPatchResult patched = new CanonicalOverlayPatchEngine(patchedRoot).apply(patch);
+            patchedRoot = patched.root();
+            if (canMinimizePatchedOverride(patch)) {
+                overridePaths.add(patched.path());
+            }
         }
-
-        CanonicalPatchResult withoutOverride;
-        try {
-            withoutOverride = new CanonicalOverlayPatchEngine(patched.root()).apply(JsonPatch.remove(patched.path()));
-        } catch (RuntimeException ignored) {
+        ResolvedSnapshot patchedSnapshot = snapshotFromCanonical(patchedRoot, snapshotNodeProvider, subtrees);
+
+        FrozenNode minimizedRoot = patchedSnapshot.frozenCanonicalRoot();
+        for (String path : overridePaths) {
+            FrozenNode patchedEffective = patchedSnapshot.resolvedAt(path);
+            FrozenNode inheritedEffective = inheritedValueAt(patchedSnapshot, JsonPointer.split(path));
+            if (patchedEffective == null
+                    || inheritedEffective == null
+                    || !patchedEffective.blueId().equals(inheritedEffective.blueId())) {
+                continue;
+            }
+            try {
+                minimizedRoot = new CanonicalOverlayPatchEngine(minimizedRoot).apply(JsonPatch.remove(path)).root();
+            } catch (RuntimeException ignored) {
+                // already removed together with an earlier override
+            }
+        }
+        if (minimizedRoot == patchedSnapshot.frozenCanonicalRoot()) {
             return patchedSnapshot;
         }
+        // the removed overrides only restated what the types already provide, so the resolved tree is unchanged
+        ResolvedSnapshot cached = cachedSnapshot(minimizedRoot.blueIdValue());
+        if (cached != null) {
+            return cached;
+        }
+        return cacheSnapshot(new ResolvedSnapshot(minimizedRoot, patchedSnapshot.frozenResolvedRoot(), minimizedRoot.blueId()));
+    }
+
+    /**
+     * Value the nearest typed ancestor of {@code segments} defines for it, read from the ancestor's
+     * resolved type rather than by resolving the document again without the override.
+     */
+    private FrozenNode inheritedValueAt(ResolvedSnapshot snapshot, List<String> segments) {
+        for (int depth = segments.size() - 1; depth >= 0; depth--) {
+            FrozenNode ancestor = snapshot.resolvedAt(JsonPointer.toPointer(segments.subList(0, depth)));
+            FrozenNode type = ancestor != null ? resolvedTypeDefinition(ancestor.getType()) : null;
+            if (type == null) {
+                continue;
+            }
+            FrozenNode inherited = type;
+            for (int i = depth; i < segments.size() && inherited != null; i++) {
+                inherited = inherited.property(segments.get(i));
+            }
+            if (inherited != null) {
+                return inherited;
+            }
+        }
+        return null;
+    }
 
-        ResolvedSnapshot inheritedSnapshot = snapshotFromCanonical(withoutOverride.root(), snapshotNodeProvider);
-        FrozenNode patchedEffective = patchedSnapshot.resolvedAt(patched.path());
-        FrozenNode inheritedEffective = inheritedSnapshot.resolvedAt(patched.path());
-        if (patchedEffective != null
-                && inheritedEffective != null
-                && patchedEffective.blueId().equals(inheritedEffective.blueId())) {
-            return inheritedSnapshot;
+    private FrozenNode resolvedTypeDefinition(FrozenNode type) {
+        if (type == null || !type.isReferenceOnly()) {
+            return type;
         }
-        return patchedSnapshot;
+        return resolvedReferenceCache.lookup(type.referenceBlueIdValue());
     }
 
-    private ResolvedSnapshot snapshotFromCanonical(FrozenNode canonicalRoot, NodeProvider snapshotNodeProvider) {
-        ResolvedSnapshot cached = resolvedSnapshotsByBlueId.get(canonicalRoot.blueId());
+    private ResolvedSnapshot snapshotFromCanonical(FrozenNode canonicalRoot,
+                                                   NodeProvider snapshotNodeProvider,
+                                                   ResolvedSubtreeCache subtrees) {
+        ResolvedSnapshot cached = cachedSnapshot(canonicalRoot.blueIdValue());
         if (cached != null) {
             return cached;
         }
-        Node canonical = canonicalRoot.toNode();
-        Node resolved = new Merger(mergingProcessor, snapshotNodeProvider, resolvedReferenceCache)
-                .resolve(canonical.clone(), NO_LIMITS);
-        return cacheSnapshot(new ResolvedSnapshot(canonicalRoot, resolvedReferenceCache.freezeResolved(resolved), canonicalRoot.blueId()));
+        Merger merger = new Merger(mergingProcessor, snapshotNodeProvider, resolvedReferenceCache);
+        FrozenNode resolvedRoot = defaultMergingProcessor
+                ? merger.resolveCanonical(canonicalRoot, subtrees)
+                : resolvedReferenceCache.freezeResolved(merger.resolve(canonicalRoot.toNode(), NO_LIMITS));
+        return cacheSnapshot(new ResolvedSnapshot(canonicalRoot, resolvedRoot, canonicalRoot.blueId()));
     }
 
     private boolean canMinimizePatchedOverride(JsonPatch patch) {
@@ -625,11 +828,23 @@ public class Blue implements NodeResolver {
         };
     }
 
+    private static long snapshotWeight(ResolvedSnapshot snapshot) {
+        return snapshot.frozenCanonicalRoot().nodeCount() + snapshot.frozenResolvedRoot().nodeCount();
+    }
+
+    private ResolvedSnapshot cachedSnapshot(CompactBlueId blueId) {
+        ResolvedSnapshot pinned = pinnedSnapshotsByBlueId.get(blueId);
+        return pinned != null ? pinned : resolvedSnapshotsByBlueId.get(blueId);
+    }
+
     private ResolvedSnapshot cacheSnapshot(ResolvedSnapshot snapshot) {
-        resolvedReferenceCache.putIfAbsent(snapshot.blueId(), snapshot.frozenResolvedRoot());
+        ResolvedSnapshot pinned = pinnedSnapshotsByBlueId.get(snapshot.blueIdValue());
+        if (pinned != null) {
+            return pinned;
+        }
+        resolvedReferenceCache.intern(snapshot.blueIdValue(), snapshot.frozenResolvedRoot());
         resolvedReferenceCache.indexResolved(snapshot.frozenResolvedRoot());
-        ResolvedSnapshot existing = resolvedSnapshotsByBlueId.putIfAbsent(snapshot.blueId(), snapshot);
-        return existing != null ? existing : snapshot;
+        return resolvedSnapshotsByBlueId.putIfAbsent(snapshot.blueIdValue(), snapshot);
     }
 
     private Limits combineWithGlobalLimits(Limits methodLimits) {
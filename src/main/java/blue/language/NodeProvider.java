@@ -3,7 +3,11 @@ package blue.language;
 
 import blue.language.model.Node;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface NodeProvider {
     List<Node> fetchByBlueId(String blueId);
@@ -15,4 +19,32 @@ public interface NodeProvider {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches several BlueIds at once, keyed in iteration order; BlueIds without content map to
+     * {@code null}. Providers backed by a remote store should override this to use one round trip.
+     */
+    default Map<String, List<Node>> fetchByBlueIds(Collection<String> blueIds) {
+        Map<String, List<Node>> result = new LinkedHashMap<>();
+        for (String blueId : blueIds) {
+            if (!result.containsKey(blueId)) {
+                result.put(blueId, fetchByBlueId(blueId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fetches a BlueId without blocking the caller. The default implementation fetches
+     * synchronously and returns a completed future.
+     */
+    default CompletableFuture<List<Node>> fetchAsync(String blueId) {
+        CompletableFuture<List<Node>> future = new CompletableFuture<>();
+        try {
+            future.complete(fetchByBlueId(blueId));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
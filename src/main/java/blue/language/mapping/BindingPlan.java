@@ -0,0 +1,188 @@
+package blue.language.mapping;
+
+import blue.language.model.BlueDescription;
+import blue.language.model.BlueId;
+import blue.language.model.BlueName;
+import blue.language.utils.JacksonPropertyNames;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reflective metadata needed to bind a node onto instances of one class, computed once per class.
+ *
+ * <p>Slots are ordered superclass fields first, matching the order in which fields used to be
+ * visited. Reference-typed instance fields are written through {@link MethodHandle}s; primitive,
+ * static and final fields keep {@link Field#set} so its widening and access rules still apply.</p>
+ */
+final class BindingPlan {
+
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<BindingPlan>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> type) {
+            return new BindingPlan(type);
+        }
+    };
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    enum Kind {
+        BLUE_ID,
+        BLUE_NAME,
+        BLUE_DESCRIPTION,
+        PROPERTY
+    }
+
+    private final Constructor<?> constructor;
+    private final MethodHandle constructorHandle;
+    private final NoSuchMethodException constructorFailure;
+    private final List<Slot> slots;
+
+    private BindingPlan(Class<?> type) {
+        Constructor<?> declared = null;
+        MethodHandle handle = null;
+        NoSuchMethodException failure = null;
+        try {
+            declared = type.getDeclaredConstructor();
+            handle = MethodHandles.lookup().unreflectConstructor(declared).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException e) {
+            failure = e;
+        } catch (IllegalAccessException e) {
+            // Not accessible as a method handle; newInstance() falls back to reflection.
+        }
+        this.constructor = declared;
+        this.constructorHandle = handle;
+        this.constructorFailure = failure;
+
+        List<Slot> collected = new ArrayList<>();
+        collectSlots(type, collected);
+        this.slots = Collections.unmodifiableList(collected);
+    }
+
+    static BindingPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    Object newInstance() throws Exception {
+        if (constructor == null) {
+            throw constructorFailure;
+        }
+        if (constructorHandle == null) {
+            return constructor.newInstance();
+        }
+        try {
+            return constructorHandle.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    List<Slot> slots() {
+        return slots;
+    }
+
+    private static void collectSlots(Class<?> type, List<Slot> slots) {
+        if (type.getSuperclass() != null && type.getSuperclass() != Object.class) {
+            collectSlots(type.getSuperclass(), slots);
+        }
+        for (Field field : type.getDeclaredFields()) {
+            field.setAccessible(true);
+            slots.add(new Slot(type, field));
+        }
+    }
+
+    static final class Slot {
+        private final Field field;
+        private final Kind kind;
+        private final String propertyName;
+        private final Type genericType;
+        private final Class<?> rawType;
+        private final boolean mapType;
+        private final MethodHandle setter;
+
+        private Slot(Class<?> declaringClass, Field field) {
+            this.field = field;
+            this.genericType = field.getGenericType();
+            this.rawType = field.getType();
+            this.mapType = Map.class.isAssignableFrom(rawType);
+            if (field.isAnnotationPresent(BlueId.class)) {
+                this.kind = Kind.BLUE_ID;
+                this.propertyName = JacksonPropertyNames.propertyName(field);
+            } else if (field.isAnnotationPresent(BlueName.class)) {
+                this.kind = Kind.BLUE_NAME;
+                this.propertyName = JacksonPropertyNames.resolveTargetPropertyName(declaringClass,
+                        field.getAnnotation(BlueName.class).value());
+            } else if (field.isAnnotationPresent(BlueDescription.class)) {
+                this.kind = Kind.BLUE_DESCRIPTION;
+                this.propertyName = JacksonPropertyNames.resolveTargetPropertyName(declaringClass,
+                        field.getAnnotation(BlueDescription.class).value());
+            } else {
+                this.kind = Kind.PROPERTY;
+                this.propertyName = JacksonPropertyNames.propertyName(field);
+            }
+            this.setter = setterFor(field);
+        }
+
+        private static MethodHandle setterFor(Field field) {
+            int modifiers = field.getModifiers();
+            if (field.getType().isPrimitive() || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                return null;
+            }
+            try {
+                return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        Field field() {
+            return field;
+        }
+
+        Kind kind() {
+            return kind;
+        }
+
+        String propertyName() {
+            return propertyName;
+        }
+
+        Type genericType() {
+            return genericType;
+        }
+
+        Class<?> rawType() {
+            return rawType;
+        }
+
+        boolean isMapType() {
+            return mapType;
+        }
+
+        void set(Object instance, Object value) throws Exception {
+            if (setter == null) {
+                field.set(instance, value);
+                return;
+            }
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+}
@@ -1,11 +1,7 @@
 package blue.language.mapping;
 
-import blue.language.model.BlueDescription;
-import blue.language.model.BlueId;
-import blue.language.model.BlueName;
 import blue.language.model.Node;
 import blue.language.utils.BlueIdCalculator;
-import blue.language.utils.JacksonPropertyNames;
 import blue.language.utils.Nodes;
 import blue.language.utils.TypeClassResolver;
 
@@ -50,91 +46,73 @@ public class ComplexObjectConverter implements Converter<Object> {
         }
 
         try {
-            Object instance = classToInstantiate.getDeclaredConstructor().newInstance();
-            convertFields(node, classToInstantiate, instance);
+            BindingPlan plan = BindingPlan.of(classToInstantiate);
+            Object instance = plan.newInstance();
+            convertFields(node, plan, instance);
             return instance;
         } catch (Exception e) {
             throw new RuntimeException("Error creating instance of " + classToInstantiate.getName(), e);
         }
     }
 
-    private void convertFields(Node node, Class<?> clazz, Object instance) throws IllegalAccessException {
-        if (clazz.getSuperclass() != null && clazz.getSuperclass() != Object.class) {
-            convertFields(node, clazz.getSuperclass(), instance);
-        }
-
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-            String fieldName = field.getName();
-            String propertyName = JacksonPropertyNames.propertyName(field);
+    private void convertFields(Node node, BindingPlan plan, Object instance) {
+        Map<String, Node> properties = node.getProperties();
+        for (BindingPlan.Slot slot : plan.slots()) {
+            String propertyName = slot.propertyName();
+            Node targetNode = properties != null ? properties.get(propertyName) : null;
             Object fieldValue = null;
 
             try {
-                if (field.isAnnotationPresent(BlueId.class)) {
-                    fieldValue = handleBlueIdAnnotation(node, propertyName);
-                } else if (field.isAnnotationPresent(BlueName.class)) {
-                    fieldValue = handleBlueNameAnnotation(node, clazz, field);
-                } else if (field.isAnnotationPresent(BlueDescription.class)) {
-                    fieldValue = handleBlueDescriptionAnnotation(node, clazz, field);
-                } else {
-                    Node fieldNode = node.getProperties() != null ? node.getProperties().get(propertyName) : null;
-
-                    if (fieldNode != null) {
-                        if (Nodes.isEmptyNode(fieldNode)) {
-                            // Set to null for explicitly defined null fields
-                            fieldValue = null;
-                        } else {
-                            Type fieldType = field.getGenericType();
-                            Class<?> resolvedFieldClass = typeClassResolver.resolveClass(fieldNode);
-
-                            if (resolvedFieldClass != null && field.getType().isAssignableFrom(resolvedFieldClass)) {
-                                Converter<?> fieldConverter = converterFactory.getConverter(fieldNode, resolvedFieldClass);
-                                fieldValue = fieldConverter.convert(fieldNode, resolvedFieldClass);
-                            } else if (Map.class.isAssignableFrom(field.getType())) {
-                                fieldValue = converterFactory.convertMap(fieldNode, fieldType);
-                            } else {
-                                Converter<?> fieldConverter = converterFactory.getConverter(fieldNode, field.getType());
-                                fieldValue = fieldConverter.convert(fieldNode, fieldType);
-                            }
-                        }
-                    } else if ("name".equals(propertyName)) {
-                        fieldValue = node.getName();
-                    } else if ("description".equals(propertyName)) {
-                        fieldValue = node.getDescription();
-                    }
+                switch (slot.kind()) {
+                    case BLUE_ID:
+                        fieldValue = targetNode != null ? BlueIdCalculator.calculateBlueId(targetNode) : null;
+                        break;
+                    case BLUE_NAME:
+                        fieldValue = targetNode != null ? targetNode.getName() : null;
+                        break;
+                    case BLUE_DESCRIPTION:
+                        fieldValue = targetNode != null ? targetNode.getDescription() : null;
+                        break;
+                    default:
+                        fieldValue = convertProperty(node, targetNode, slot);
+                        break;
                 }
 
-                if (fieldValue == null && field.getType().isPrimitive()) {
-                    fieldValue = ValueConverter.getDefaultPrimitiveValue(field.getType());
+                if (fieldValue == null && slot.rawType().isPrimitive()) {
+                    fieldValue = ValueConverter.getDefaultPrimitiveValue(slot.rawType());
                 }
 
-                field.set(instance, fieldValue);
+                slot.set(instance, fieldValue);
             } catch (Exception e) {
-                throw new RuntimeException("Error converting field: " + fieldName + " of type: " + field.getGenericType(), e);
+                throw new RuntimeException("Error converting field: " + slot.field().getName() + " of type: " + slot.genericType(), e);
             }
         }
     }
 
-    private String handleBlueIdAnnotation(Node node, String propertyName) {
-        Node targetNode = node.getProperties() != null ? node.getProperties().get(propertyName) : null;
-        if (targetNode == null) {
+    private Object convertProperty(Node node, Node fieldNode, BindingPlan.Slot slot) {
+        if (fieldNode == null) {
+            if ("name".equals(slot.propertyName())) {
+                return node.getName();
+            }
+            if ("description".equals(slot.propertyName())) {
+                return node.getDescription();
+            }
             return null;
         }
-        return BlueIdCalculator.calculateBlueId(targetNode);
-    }
-
-    private String handleBlueNameAnnotation(Node node, Class<?> clazz, Field field) {
-        BlueName annotation = field.getAnnotation(BlueName.class);
-        String propertyName = JacksonPropertyNames.resolveTargetPropertyName(clazz, annotation.value());
-        Node targetNode = node.getProperties() != null ? node.getProperties().get(propertyName) : null;
-        return targetNode != null ? targetNode.getName() : null;
-    }
-
-    private String handleBlueDescriptionAnnotation(Node node, Class<?> clazz, Field field) {
-        BlueDescription annotation = field.getAnnotation(BlueDescription.class);
-        String propertyName = JacksonPropertyNames.resolveTargetPropertyName(clazz, annotation.value());
-        Node targetNode = node.getProperties() != null ? node.getProperties().get(propertyName) : null;
-        return targetNode != null ? targetNode.getDescription() : null;
+        if (Nodes.isEmptyNode(fieldNode)) {
+            // Set to null for explicitly defined null fields
+            return null;
+        }
+        Class<?> resolvedFieldClass = typeClassResolver.resolveClass(fieldNode);
+        if (resolvedFieldClass != null && slot.rawType().isAssignableFrom(resolvedFieldClass)) {
+            Converter<?> fieldConverter = converterFactory.getConverter(fieldNode, resolvedFieldClass);
+            return fieldConverter.convert(fieldNode, resolvedFieldClass);
+        }
+        if (slot.isMapType()) {
+            return converterFactory.convertMap(fieldNode, slot.genericType());
+        }
+        Converter<?> fieldConverter = converterFactory.getConverter(fieldNode, slot.rawType());
+        return fieldConverter.convert(fieldNode, slot.genericType());
     }
 
     private Class<?> getRawType(Type type) {
@@ -7,10 +7,12 @@ import java.lang.reflect.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ConverterFactory {
     private final TypeClassResolver typeClassResolver;
     private final Map<Class<?>, Converter<?>> converters = new HashMap<>();
+    private final Map<Class<?>, Converter<?>> convertersByRawType = new ConcurrentHashMap<>();
 
     public ConverterFactory(TypeClassResolver typeClassResolver) {
         this.typeClassResolver = typeClassResolver;
@@ -54,8 +56,10 @@ public class ConverterFactory {
             return new NullConverter();
         }
 
-        Class<?> rawType = getRawType(targetType);
+        return convertersByRawType.computeIfAbsent(getRawType(targetType), this::selectConverter);
+    }
 
+    private Converter<?> selectConverter(Class<?> rawType) {
         if (rawType.isEnum()) {
             return converters.get(Enum.class);
         }
@@ -70,7 +74,7 @@ public class ConverterFactory {
         }
         Converter<?> converter = converters.get(rawType);
         if (converter == null) {
-            return new ComplexObjectConverter(this, typeClassResolver);
+            return converters.get(Object.class);
         }
         return converter;
     }
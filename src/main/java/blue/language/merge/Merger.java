@@ -4,6 +4,7 @@ import blue.language.NodeProvider;
 import blue.language.model.Node;
 import blue.language.snapshot.FrozenNode;
 import blue.language.snapshot.ResolvedReferenceCache;
+import blue.language.snapshot.ResolvedSubtreeCache;
 import blue.language.utils.NodeProviderWrapper;
 import blue.language.utils.Types;
 import blue.language.utils.limits.Limits;
@@ -12,9 +13,11 @@ import blue.language.utils.BlueIdCalculator;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static blue.language.utils.Properties.LIST_MERGE_POLICY_APPEND_ONLY;
 import static blue.language.utils.Properties.LIST_MERGE_POLICY_POSITIONAL;
@@ -24,9 +27,13 @@ import static blue.language.utils.Properties.CORE_TYPE_BLUE_IDS;
 
 public class Merger implements NodeResolver {
 
+    private static final int MAX_PREFETCHED_REFERENCES = 1024;
+
     private MergingProcessor mergingProcessor;
     private NodeProvider nodeProvider;
     private ResolvedReferenceCache resolvedReferenceCache;
+    // references fetched ahead for the merge running on this thread, dropped when its outermost call returns
+    private final ThreadLocal<Map<String, Prefetched>> prefetchedReferences = new ThreadLocal<>();
 
     public Merger(MergingProcessor mergingProcessor, NodeProvider nodeProvider) {
         this(mergingProcessor, nodeProvider, null);
@@ -39,6 +46,20 @@ public class Merger implements NodeResolver {
     }
 
     public void merge(Node target, Node source, Limits limits) {
+        Map<String, Prefetched> enclosing = prefetchedReferences.get();
+        if (enclosing == null) {
+            prefetchedReferences.set(new HashMap<>());
+        }
+        try {
+            mergeNode(target, source, limits);
+        } finally {
+            if (enclosing == null) {
+                prefetchedReferences.remove();
+            }
+        }
+    }
+
+    private void mergeNode(Node target, Node source, Limits limits) {
         if (source.getBlue() != null) {
             throw new IllegalArgumentException("Document contains \"blue\" attribute. Preprocess document before merging.");
         }
@@ -62,7 +83,7 @@ public class Merger implements NodeResolver {
                 Node resolvedType = resolve(typeNode, limits);
                 cacheResolvedReference(typeBlueId, resolvedType, limits);
                 source.type(resolvedType);
-                merge(target, typeNode, limits);
+                mergeNode(target, typeNode, limits);
             }
         }
         mergeObject(target, source, limits);
@@ -72,7 +93,10 @@ public class Merger implements NodeResolver {
         if (CORE_TYPE_BLUE_IDS.contains(blueId)) {
             return;
         }
-        List<Node> typeNodes = nodeProvider.fetchByBlueId(blueId);
+        List<Node> typeNodes = takePrefetched(blueId);
+        if (typeNodes == null) {
+            typeNodes = nodeProvider.fetchByBlueId(blueId);
+        }
         if (typeNodes == null || typeNodes.isEmpty()) {
             throw new IllegalArgumentException("No content found for blueId: " + blueId);
         }
@@ -100,8 +124,80 @@ public class Merger implements NodeResolver {
         resolvedReferenceCache.putIfAbsent(blueId, resolvedReferenceCache.freezeResolved(resolvedType));
     }
 
+    /**
+     * Fetches, in one provider call, the type references that merging {@code source} is about to
+     * resolve one by one: its own metadata types and the types of its direct children. Each fetched
+     * node is handed out by {@link #extendTypeReference} once per collected use, as a clone for all
+     * but the last, and lives at most until the outermost {@link #merge} returns.
+     */
+    private void prefetchReferences(Node source, Limits limits) {
+        if (limits != Limits.NO_LIMITS) {
+            return;
+        }
+        Map<String, Prefetched> prefetched = prefetchedReferences.get();
+        Map<String, Integer> uses = new LinkedHashMap<>();
+        collectReference(uses, source.getItemType(), prefetched);
+        collectReference(uses, source.getKeyType(), prefetched);
+        collectReference(uses, source.getValueType(), prefetched);
+        if (source.getItems() != null) {
+            source.getItems().forEach(item -> collectChildReferences(uses, item, prefetched));
+        }
+        if (source.getProperties() != null) {
+            source.getProperties().values().forEach(value -> collectChildReferences(uses, value, prefetched));
+        }
+        if (uses.values().stream().mapToInt(Integer::intValue).sum() < 2) {
+            return;
+        }
+        if (prefetched.size() + uses.size() > MAX_PREFETCHED_REFERENCES) {
+            prefetched.clear();
+        }
+        nodeProvider.fetchByBlueIds(uses.keySet()).forEach((blueId, nodes) -> {
+            if (nodes != null && !nodes.isEmpty()) {
+                prefetched.put(blueId, new Prefetched(nodes, uses.getOrDefault(blueId, 1)));
+            }
+        });
+    }
+
+    private void collectChildReferences(Map<String, Integer> uses, Node child, Map<String, Prefetched> prefetched) {
+        if (child == null) {
+            return;
+        }
+        collectReference(uses, child.getType(), prefetched);
+        collectReference(uses, child.getItemType(), prefetched);
+        collectReference(uses, child.getKeyType(), prefetched);
+        collectReference(uses, child.getValueType(), prefetched);
+    }
+
+    private void collectReference(Map<String, Integer> uses, Node reference, Map<String, Prefetched> prefetched) {
+        String blueId = reference != null ? reference.getBlueId() : null;
+        if (blueId == null || CORE_TYPE_BLUE_IDS.contains(blueId)
+                || cachedResolvedReference(blueId, Limits.NO_LIMITS) != null) {
+            return;
+        }
+        Prefetched pending = prefetched.get(blueId);
+        if (pending != null) {
+            pending.remaining++;
+        } else {
+            uses.merge(blueId, 1, Integer::sum);
+        }
+    }
+
+    private List<Node> takePrefetched(String blueId) {
+        Map<String, Prefetched> prefetched = prefetchedReferences.get();
+        Prefetched pending = prefetched.get(blueId);
+        if (pending == null) {
+            return null;
+        }
+        List<Node> nodes = pending.take();
+        if (pending.remaining <= 0) {
+            prefetched.remove(blueId);
+        }
+        return nodes;
+    }
+
     private void mergeObject(Node target, Node source, Limits limits) {
 
+        prefetchReferences(source, limits);
         resolveTypeMetadata(source, limits);
         mergingProcessor.process(target, source, nodeProvider, this);
 
@@ -137,8 +233,7 @@ public class Merger implements NodeResolver {
 
         if (targetChildren == null) {
             if (startsWithPrevious(sourceChildren)) {
-                targetChildren = resolvePreviousAnchor(sourceChildren.get(0), limits);
-                target.items(targetChildren);
+                targetChildren = target.items(resolvePreviousAnchor(sourceChildren.get(0), limits)).getItems();
                 validatePreviousAnchor(targetChildren, sourceChildren.get(0));
                 if (LIST_MERGE_POLICY_APPEND_ONLY.equals(mergePolicy)) {
                     mergeAppendOnlyChildren(targetChildren, sourceChildren, limits);
@@ -461,6 +556,87 @@ public class Merger implements NodeResolver {
         return resolved;
     }
 
+    /**
+     * Resolves a canonical tree, reusing resolved subtrees from {@code subtrees} by canonical BlueId.
+     * Plain containers (objects or lists with no type, value, metadata or list controls) are
+     * assembled from their resolved children, so after a patch only the changed spine is merged
+     * again. This relies on the merging processor leaving such containers untouched, which holds
+     * for the default processor.
+     */
+    public FrozenNode resolveCanonical(FrozenNode canonical, ResolvedSubtreeCache subtrees) {
+        // a pure reference shares its BlueId with the content it points to but resolves differently
+        if (canonical.isReferenceOnly()) {
+            return freezeResolved(resolve(canonical.toNode(), Limits.NO_LIMITS));
+        }
+        FrozenNode cached = subtrees.get(canonical.blueIdValue()).orElse(null);
+        if (cached != null) {
+            return cached;
+        }
+        FrozenNode resolved;
+        if (isPlainContainer(canonical)) {
+            resolved = FrozenNode.fromResolvedChildren(
+                    canonical.getName(),
+                    canonical.getDescription(),
+                    resolveCanonicalItems(canonical.getItems(), subtrees),
+                    resolveCanonicalProperties(canonical.getProperties(), subtrees));
+        } else {
+            resolved = freezeResolved(resolve(canonical.toNode(), Limits.NO_LIMITS));
+        }
+        return subtrees.putIfAbsent(canonical.blueIdValue(), resolved);
+    }
+
+    private FrozenNode freezeResolved(Node resolved) {
+        return resolvedReferenceCache != null
+                ? resolvedReferenceCache.freezeResolved(resolved)
+                : FrozenNode.fromResolvedNode(resolved);
+    }
+
+    private List<FrozenNode> resolveCanonicalItems(List<FrozenNode> items, ResolvedSubtreeCache subtrees) {
+        if (items == null) {
+            return null;
+        }
+        List<FrozenNode> resolved = new ArrayList<>(items.size());
+        for (FrozenNode item : items) {
+            resolved.add(resolveCanonical(item, subtrees));
+        }
+        return resolved;
+    }
+
+    private Map<String, FrozenNode> resolveCanonicalProperties(Map<String, FrozenNode> properties, ResolvedSubtreeCache subtrees) {
+        if (properties == null) {
+            return null;
+        }
+        // same iteration order as the HashMap mergeProperty builds
+        Map<String, FrozenNode> resolved = new HashMap<>();
+        properties.forEach((key, child) -> resolved.put(key, resolveCanonical(child, subtrees)));
+        return resolved;
+    }
+
+    private boolean isPlainContainer(FrozenNode node) {
+        if ((node.getItems() == null) == (node.getProperties() == null)
+                || node.getValue() != null
+                || node.getType() != null
+                || node.getItemType() != null
+                || node.getKeyType() != null
+                || node.getValueType() != null
+                || node.getSchema() != null
+                || node.getMergePolicy() != null
+                || node.getReferenceBlueId() != null
+                || node.getPreviousBlueId() != null
+                || node.getPosition() != null
+                || node.getBlue() != null) {
+            return false;
+        }
+        if (node.getItems() != null) {
+            for (FrozenNode item : node.getItems()) {
+                if (item.getPreviousBlueId() != null || item.getPosition() != null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     @Override
     public Node resolve(Node node, Limits limits) {
         Node resultNode = new Node();
@@ -470,4 +646,19 @@ public class Merger implements NodeResolver {
         resultNode.blueId(node.getBlueId());
         return resultNode;
     }
+
+    private static final class Prefetched {
+        private final List<Node> nodes;
+        private int remaining;
+
+        private Prefetched(List<Node> nodes, int remaining) {
+            this.nodes = nodes;
+            this.remaining = remaining;
+        }
+
+        private List<Node> take() {
+            remaining--;
+            return remaining > 0 ? nodes.stream().map(Node::clone).collect(Collectors.toList()) : nodes;
+        }
+    }
 }
@@ -1,10 +1,12 @@
 package blue.language.model;
 
+import blue.language.utils.BlueIdCalculator;
 import blue.language.utils.NodePathAccessor;
 import blue.language.utils.BlueNumbers;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
@@ -33,32 +35,60 @@ public class Node implements Cloneable {
     private Integer position;
     private Node blue;
     private boolean inlineValue;
+    private transient BlueIdCalculator.Memo blueIdMemo;
+    private transient Object blueIdParents;
+
+    static {
+        BlueIdCalculator.installMemoAccess(new BlueIdCalculator.MemoAccess() {
+            @Override
+            protected BlueIdCalculator.Memo memo(Node node) {
+                return node.blueIdMemo;
+            }
+
+            @Override
+            protected void memo(Node node, BlueIdCalculator.Memo memo) {
+                node.blueIdMemo = memo;
+            }
+
+            @Override
+            protected void addParent(Node child, Node parent) {
+                child.addBlueIdParent(parent);
+            }
+        });
+    }
 
     public String getName() {
+        materialize();
         return name;
     }
 
     public String getDescription() {
+        materialize();
         return description;
     }
 
     public Node getType() {
+        materialize();
         return type;
     }
 
     public Node getItemType() {
+        materialize();
         return itemType;
     }
     
     public Node getKeyType() {
+        materialize();
         return keyType;
     }
 
     public Node getValueType() {
+        materialize();
         return valueType;
     }
 
     public Object getValue() {
+        materialize();
         if (this.type != null && this.type.getBlueId() != null && this.value != null) {
             String typeBlueId = this.type.getBlueId();
             if (INTEGER_TYPE_BLUE_ID.equals(typeBlueId) && this.value instanceof String) {
@@ -73,18 +103,22 @@ public class Node implements Cloneable {
     }
 
     public List<Node> getItems() {
+        materialize();
         return items;
     }
 
     public Map<String, Node> getProperties() {
+        materialize();
         return properties;
     }
 
     public String getBlueId() {
+        materialize();
         return blueId;
     }
 
     public boolean isReferenceOnly() {
+        materialize();
         return blueId != null
                 && name == null
                 && description == null
@@ -103,80 +137,107 @@ public class Node implements Cloneable {
     }
 
     public Schema getSchema() {
+        materialize();
         return schema;
     }
 
     public String getMergePolicy() {
+        materialize();
         return mergePolicy;
     }
 
     public String getPreviousBlueId() {
+        materialize();
         return previousBlueId;
     }
 
     public Integer getPosition() {
+        materialize();
         return position;
     }
 
     public Node getBlue() {
+        materialize();
         return blue;
     }
     
     public boolean isInlineValue() {
+        materialize();
         return inlineValue;
     }
 
     public Node name(String name) {
+        materialize();
         this.name = name;
+        invalidateBlueId();
         return this;
     }
 
     public Node description(String description) {
+        materialize();
         this.description = description;
+        invalidateBlueId();
         return this;
     }
 
     public Node type(Node type) {
+        materialize();
         this.type = type;
+        invalidateBlueId();
         return this;
     }
 
     public Node type(String type) {
+        materialize();
         this.type = new Node().value(type).inlineValue(true);
+        invalidateBlueId();
         return this;
     }
 
     public Node itemType(Node itemType) {
+        materialize();
         this.itemType = itemType;
+        invalidateBlueId();
         return this;
     }
 
     public Node itemType(String itemType) {
+        materialize();
         this.itemType = new Node().value(itemType).inlineValue(true);
+        invalidateBlueId();
         return this;
     }
 
     public Node keyType(Node keyType) {
+        materialize();
         this.keyType = keyType;
+        invalidateBlueId();
         return this;
     }
 
     public Node keyType(String keyType) {
+        materialize();
         this.keyType = new Node().value(keyType).inlineValue(true);
+        invalidateBlueId();
         return this;
     }
 
     public Node valueType(Node valueType) {
+        materialize();
         this.valueType = valueType;
+        invalidateBlueId();
         return this;
     }
 
     public Node valueType(String valueType) {
+        materialize();
         this.valueType = new Node().value(valueType).inlineValue(true);
+        invalidateBlueId();
         return this;
     }
 
     public Node value(Object value) {
+        materialize();
         if (value instanceof Integer || value instanceof Long) {
             this.value = BigInteger.valueOf(((Number) value).longValue());
         } else if (value instanceof Float || value instanceof Double) {
@@ -184,103 +245,134 @@ public class Node implements Cloneable {
         } else {
             this.value = value;
         }
+        invalidateBlueId();
         return this;
     }
 
     public Node value(long value) {
+        materialize();
         this.value = BigInteger.valueOf(value);
+        invalidateBlueId();
         return this;
     }
 
     public Node value(double value) {
+        materialize();
         this.value = BigDecimal.valueOf(value);
+        invalidateBlueId();
         return this;
     }
 
     public Node items(List<Node> items) {
-        this.items = items;
+        materialize();
+        this.items = items != null ? new NodeItems(this, new ArrayList<>(items)) : null;
+        invalidateBlueId();
         return this;
     }
 
     public Node items(Node... items) {
-        this.items = Arrays.asList(items);
+        materialize();
+        this.items = new NodeItems(this, new ArrayList<>(Arrays.asList(items)));
+        invalidateBlueId();
         return this;
     }
 
     public Node properties(Map<String, Node> properties) {
+        materialize();
         if (properties != null) {
-            this.properties = new HashMap<>(properties);
+            this.properties = new NodeProperties(this, new HashMap<>(properties));
         } else {
             this.properties = null;
         }
+        invalidateBlueId();
         return this;
     }
 
     public Node properties(String key1, Node value1) {
+        materialize();
         if (this.properties == null) {
-            this.properties = new HashMap<>();
+            this.properties = new NodeProperties(this, new HashMap<>());
         }
         this.properties.put(key1, value1);
+        invalidateBlueId();
         return this;
     }
 
     public Node properties(String key1, Node value1, String key2, Node value2) {
+        materialize();
         properties(key1, value1);
         properties(key2, value2);
         return this;
     }
 
     public Node properties(String key1, Node value1, String key2, Node value2, String key3, Node value3) {
+        materialize();
         properties(key1, value1, key2, value2);
         properties(key3, value3);
         return this;
     }
 
     public Node properties(String key1, Node value1, String key2, Node value2, String key3, Node value3, String key4, Node value4) {
+        materialize();
         properties(key1, value1, key2, value2, key3, value3);
         properties(key4, value4);
         return this;
     }
 
     public Node blueId(String blueId) {
+        materialize();
         this.blueId = blueId;
+        invalidateBlueId();
         return this;
     }
 
     public Node schema(Schema schema) {
+        materialize();
         this.schema = schema;
+        invalidateBlueId();
         return this;
     }
 
     public Node mergePolicy(String mergePolicy) {
+        materialize();
         this.mergePolicy = mergePolicy;
+        invalidateBlueId();
         return this;
     }
 
     public Node previousBlueId(String previousBlueId) {
+        materialize();
         this.previousBlueId = previousBlueId;
+        invalidateBlueId();
         return this;
     }
 
     public Node position(Integer position) {
+        materialize();
         this.position = position;
+        invalidateBlueId();
         return this;
     }
 
     public Node blue(Node blue) {
+        materialize();
         this.blue = blue;
+        invalidateBlueId();
         return this;
     }
     
     public Node inlineValue(boolean inlineValue) {
+        materialize();
         this.inlineValue = inlineValue;
         return this;
     }
 
     public Node replaceWith(Node source) {
+        materialize();
         if (source == null) {
             throw new IllegalArgumentException("source must not be null");
         }
+        source.materialize();
 
         this.name = source.name;
         this.description = source.description;
@@ -296,22 +388,85 @@ public class Node implements Cloneable {
         this.keyType = source.keyType != null ? source.keyType.clone() : null;
         this.valueType = source.valueType != null ? source.valueType.clone() : null;
         this.items = source.items != null
-                ? source.items.stream().map(Node::clone).collect(Collectors.toCollection(ArrayList::new))
+                ? new NodeItems(this, source.items.stream().map(Node::clone).collect(Collectors.toCollection(ArrayList::new)))
                 : null;
         this.properties = source.properties != null
-                ? source.properties.entrySet().stream()
+                ? new NodeProperties(this, source.properties.entrySet().stream()
                     .collect(Collectors.toMap(
                             Map.Entry::getKey,
                             entry -> entry.getValue().clone(),
                             (e1, e2) -> e1,
                             HashMap::new
-                    ))
+                    )))
                 : null;
         this.schema = source.schema != null ? source.schema.clone() : null;
         this.blue = source.blue != null ? source.blue.clone() : null;
+        invalidateBlueId();
         return this;
     }
 
+    /**
+     * Called before any field is read or written. Subclasses that build their state on first
+     * access, like views over immutable snapshots, fill it in here.
+     */
+    protected void materialize() {
+    }
+
+    /**
+     * Called by the owned item list and property map after they change.
+     */
+    void contentChanged() {
+        invalidateBlueId();
+    }
+
+    /**
+     * Drops the BlueId memoized by {@link BlueIdCalculator} for this node and for every node whose
+     * memo was computed from it, so the next calculation rehashes exactly the edited path.
+     */
+    @SuppressWarnings("unchecked")
+    private void invalidateBlueId() {
+        if (blueIdMemo == null && blueIdParents == null) {
+            return;
+        }
+        blueIdMemo = null;
+        Object parents;
+        synchronized (this) {
+            parents = blueIdParents;
+            blueIdParents = null;
+        }
+        if (parents instanceof WeakReference) {
+            Node parent = ((WeakReference<Node>) parents).get();
+            if (parent != null) {
+                parent.invalidateBlueId();
+            }
+        } else if (parents != null) {
+            for (Node parent : (Set<Node>) parents) {
+                parent.invalidateBlueId();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void addBlueIdParent(Node parent) {
+        Object parents = blueIdParents;
+        if (parents instanceof Set) {
+            ((Set<Node>) parents).add(parent);
+            return;
+        }
+        Node existing = parents != null ? ((WeakReference<Node>) parents).get() : null;
+        if (existing == parent) {
+            return;
+        }
+        if (existing == null) {
+            blueIdParents = new WeakReference<>(parent);
+            return;
+        }
+        Set<Node> shared = Collections.newSetFromMap(new WeakHashMap<>());
+        shared.add(existing);
+        shared.add(parent);
+        blueIdParents = shared;
+    }
+
     public Object get(String path) {
         return NodePathAccessor.get(this, path);
     }
@@ -348,6 +503,8 @@ public class Node implements Cloneable {
     public Node clone() {
         try {
             Node cloned = (Node) super.clone();
+            cloned.blueIdMemo = null;
+            cloned.blueIdParents = null;
 
             return cloned.replaceWith(this);
         } catch (CloneNotSupportedException e) {
@@ -357,6 +514,7 @@ public class Node implements Cloneable {
 
     @Override
     public String toString() {
+        materialize();
         return "Node{" +
                "name='" + name + '\'' +
                ", description='" + description + '\'' +
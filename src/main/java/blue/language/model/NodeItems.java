@@ -0,0 +1,72 @@
+package blue.language.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Item list owned by a {@link Node}. It behaves like the {@link ArrayList} it wraps, and every
+ * change tells the owner to drop its memoized BlueId.
+ */
+final class NodeItems extends AbstractList<Node> implements RandomAccess {
+
+    private final Node owner;
+    private final ArrayList<Node> items;
+
+    NodeItems(Node owner, ArrayList<Node> items) {
+        this.owner = owner;
+        this.items = items;
+    }
+
+    @Override
+    public Node get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public Node set(int index, Node element) {
+        Node previous = items.set(index, element);
+        owner.contentChanged();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Node element) {
+        items.add(index, element);
+        modCount++;
+        owner.contentChanged();
+    }
+
+    @Override
+    public Node remove(int index) {
+        Node previous = items.remove(index);
+        modCount++;
+        owner.contentChanged();
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (!items.isEmpty()) {
+            items.clear();
+            modCount++;
+            owner.contentChanged();
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super Node> action) {
+        items.forEach(action);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return items.toArray();
+    }
+}
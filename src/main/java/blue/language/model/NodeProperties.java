@@ -0,0 +1,227 @@
+package blue.language.model;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Property map owned by a {@link Node}. Reads go straight to the backing {@link HashMap}, so
+ * iteration order is the same as before; every structural change or value replacement tells the
+ * owner to drop its memoized BlueId.
+ */
+final class NodeProperties extends AbstractMap<String, Node> {
+
+    private final Node owner;
+    private final HashMap<String, Node> properties;
+
+    NodeProperties(Node owner, HashMap<String, Node> properties) {
+        this.owner = owner;
+        this.properties = properties;
+    }
+
+    @Override
+    public int size() {
+        return properties.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return properties.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return properties.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return properties.containsValue(value);
+    }
+
+    @Override
+    public Node get(Object key) {
+        return properties.get(key);
+    }
+
+    @Override
+    public Node getOrDefault(Object key, Node defaultValue) {
+        return properties.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public Node put(String key, Node value) {
+        Node previous = properties.put(key, value);
+        owner.contentChanged();
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Node> map) {
+        if (!map.isEmpty()) {
+            properties.putAll(map);
+            owner.contentChanged();
+        }
+    }
+
+    @Override
+    public Node remove(Object key) {
+        if (!properties.containsKey(key)) {
+            return null;
+        }
+        Node previous = properties.remove(key);
+        owner.contentChanged();
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (!properties.isEmpty()) {
+            properties.clear();
+            owner.contentChanged();
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Node> action) {
+        properties.forEach(action);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new Tracking<String>(properties.keySet().iterator());
+            }
+
+            @Override
+            public int size() {
+                return properties.size();
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return properties.containsKey(key);
+            }
+
+            @Override
+            public boolean remove(Object key) {
+                boolean present = properties.containsKey(key);
+                NodeProperties.this.remove(key);
+                return present;
+            }
+        };
+    }
+
+    @Override
+    public Collection<Node> values() {
+        return new AbstractCollection<Node>() {
+            @Override
+            public Iterator<Node> iterator() {
+                return new Tracking<Node>(properties.values().iterator());
+            }
+
+            @Override
+            public int size() {
+                return properties.size();
+            }
+
+            @Override
+            public boolean contains(Object value) {
+                return properties.containsValue(value);
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, Node>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Node>>() {
+            @Override
+            public Iterator<Map.Entry<String, Node>> iterator() {
+                Iterator<Map.Entry<String, Node>> entries = properties.entrySet().iterator();
+                return new Tracking<Map.Entry<String, Node>>(entries) {
+                    @Override
+                    public Map.Entry<String, Node> next() {
+                        return new TrackingEntry(entries.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return properties.size();
+            }
+        };
+    }
+
+    private class Tracking<T> implements Iterator<T> {
+        private final Iterator<T> delegate;
+
+        Tracking(Iterator<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return delegate.next();
+        }
+
+        @Override
+        public void remove() {
+            delegate.remove();
+            owner.contentChanged();
+        }
+    }
+
+    private final class TrackingEntry implements Map.Entry<String, Node> {
+        private final Map.Entry<String, Node> entry;
+
+        TrackingEntry(Map.Entry<String, Node> entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public String getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public Node getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public Node setValue(Node value) {
+            Node previous = entry.setValue(value);
+            owner.contentChanged();
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return entry.equals(other);
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package blue.language.processor;
 
 import blue.language.model.Node;
 import blue.language.processor.model.MarkerContract;
+import blue.language.snapshot.FrozenNode;
 
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -15,7 +16,7 @@ public final class ChannelCheckpointContext {
 
     private final String scopePath;
     private final String channelKey;
-    private final Node event;
+    private final FrozenNode event;
     private final String eventSignature;
     private final Node lastEvent;
     private final String lastEventSignature;
@@ -30,25 +31,28 @@ public final class ChannelCheckpointContext {
                                               Map<String, MarkerContract> markers) {
         return new ChannelCheckpointContext(scopePath,
                 channelKey,
-                event,
+                event != null ? FrozenNode.fromResolvedNode(event) : null,
                 eventSignature,
-                lastEvent,
+                lastEvent != null ? lastEvent.clone() : null,
                 lastEventSignature,
                 markers);
     }
 
+    /**
+     * {@code lastEvent} is kept as given; callers pass a copy that nothing else mutates.
+     */
     ChannelCheckpointContext(String scopePath,
                              String channelKey,
-                             Node event,
+                             FrozenNode event,
                              String eventSignature,
                              Node lastEvent,
                              String lastEventSignature,
                              Map<String, MarkerContract> markers) {
         this.scopePath = Objects.requireNonNull(scopePath, "scopePath");
         this.channelKey = Objects.requireNonNull(channelKey, "channelKey");
-        this.event = event != null ? event.clone() : null;
+        this.event = event;
         this.eventSignature = eventSignature;
-        this.lastEvent = lastEvent != null ? lastEvent.clone() : null;
+        this.lastEvent = lastEvent;
         this.lastEventSignature = lastEventSignature;
         this.markers = markers == null
                 ? Collections.emptyMap()
@@ -64,7 +68,11 @@ public final class ChannelCheckpointContext {
     }
 
     public Node event() {
-        return event != null ? event.clone() : null;
+        return event != null ? event.toNode() : null;
+    }
+
+    public FrozenNode frozenEvent() {
+        return event;
     }
 
     public String eventSignature() {
@@ -1,6 +1,7 @@
 package blue.language.processor;
 
 import blue.language.model.Node;
+import blue.language.snapshot.FrozenNode;
 
 import java.util.Objects;
 
@@ -9,13 +10,13 @@ import java.util.Objects;
  */
 public final class ChannelDelivery {
 
-    private final Node event;
+    private final FrozenNode event;
     private final String eventId;
     private final String checkpointKey;
     private final Boolean shouldProcess;
 
     private ChannelDelivery(Node event, String eventId, String checkpointKey, Boolean shouldProcess) {
-        this.event = Objects.requireNonNull(event, "event").clone();
+        this.event = FrozenNode.fromResolvedNode(Objects.requireNonNull(event, "event"));
         this.eventId = eventId;
         this.checkpointKey = checkpointKey;
         this.shouldProcess = shouldProcess;
@@ -30,11 +31,11 @@ public final class ChannelDelivery {
     }
 
     public Node event() {
-        return event != null ? event.clone() : null;
+        return event.toNode();
     }
 
-    Node eventForDelivery() {
-        return event != null ? event.clone() : null;
+    FrozenNode eventForDelivery() {
+        return event;
     }
 
     public String eventId() {
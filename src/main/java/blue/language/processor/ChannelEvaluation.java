@@ -1,6 +1,7 @@
 package blue.language.processor;
 
 import blue.language.model.Node;
+import blue.language.snapshot.FrozenNode;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -14,13 +15,13 @@ public final class ChannelEvaluation {
     private static final ChannelEvaluation NO_MATCH = new ChannelEvaluation(false, null, null, Collections.emptyList());
 
     private final boolean matches;
-    private final Node event;
+    private final FrozenNode event;
     private final String eventId;
     private final List<ChannelDelivery> deliveries;
 
-    private ChannelEvaluation(boolean matches, Node event, String eventId, List<ChannelDelivery> deliveries) {
+    private ChannelEvaluation(boolean matches, FrozenNode event, String eventId, List<ChannelDelivery> deliveries) {
         this.matches = matches;
-        this.event = event != null ? event.clone() : null;
+        this.event = event;
         this.eventId = eventId;
         this.deliveries = copyDeliveries(deliveries);
     }
@@ -34,6 +35,10 @@ public final class ChannelEvaluation {
     }
 
     public static ChannelEvaluation match(Node event, String eventId) {
+        return matchFrozen(event != null ? FrozenNode.fromResolvedNode(event) : null, eventId);
+    }
+
+    static ChannelEvaluation matchFrozen(FrozenNode event, String eventId) {
         return new ChannelEvaluation(true, event, eventId, Collections.emptyList());
     }
 
@@ -50,11 +55,11 @@ public final class ChannelEvaluation {
     }
 
     public Node event() {
-        return event != null ? event.clone() : null;
+        return event != null ? event.toNode() : null;
     }
 
-    Node eventForDelivery() {
-        return event != null ? event.clone() : null;
+    FrozenNode eventForDelivery() {
+        return event;
     }
 
     public String eventId() {
@@ -69,13 +74,11 @@ public final class ChannelEvaluation {
         if (deliveries == null || deliveries.isEmpty()) {
             return Collections.emptyList();
         }
+        // deliveries are immutable, so only the list needs copying
         List<ChannelDelivery> copy = new ArrayList<>();
         for (ChannelDelivery delivery : deliveries) {
             if (delivery != null) {
-                copy.add(ChannelDelivery.of(delivery.event(),
-                        delivery.eventId(),
-                        delivery.checkpointKey(),
-                        delivery.shouldProcess()));
+                copy.add(delivery);
             }
         }
         return Collections.unmodifiableList(copy);
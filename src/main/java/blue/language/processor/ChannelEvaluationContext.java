@@ -3,27 +3,30 @@ package blue.language.processor;
 import blue.language.model.Node;
 import blue.language.processor.model.ChannelContract;
 import blue.language.processor.model.MarkerContract;
+import blue.language.snapshot.FrozenNode;
 
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Snapshot of the data passed to a channel processor during matching.
  *
  * <p>The event node supplied here is read-only from the processor model's
- * perspective. {@link #event()} returns a fresh mutable copy for convenience,
- * but mutations to that copy are ignored. Channel processors that normalize or
+ * perspective. {@link #frozenEvent()} exposes it without copying;
+ * {@link #event()} returns a fresh mutable copy for convenience, but
+ * mutations to that copy are ignored. Channel processors that normalize or
  * enrich an event must return the adapted event in {@link ChannelEvaluation}.</p>
  */
 public final class ChannelEvaluationContext {
 
     private final String scopePath;
     private final String bindingKey;
-    private final Node event;
-    private final Object eventObject;
+    private final FrozenNode event;
+    private final Supplier<Object> eventObject;
     private final Map<String, ChannelContract> channels;
     private final Map<String, MarkerContract> markers;
     private final ContractProcessorRegistry registry;
@@ -34,20 +37,21 @@ public final class ChannelEvaluationContext {
                              Object eventObject,
                              Map<String, ChannelContract> channels,
                              Map<String, MarkerContract> markers) {
-        this(scopePath, bindingKey, event, eventObject, channels, markers, null);
+        this(scopePath, bindingKey, event != null ? FrozenNode.fromResolvedNode(event) : null,
+                () -> eventObject, channels, markers, null);
     }
 
     ChannelEvaluationContext(String scopePath,
                              String bindingKey,
-                             Node event,
-                             Object eventObject,
+                             FrozenNode event,
+                             Supplier<Object> eventObject,
                              Map<String, ChannelContract> channels,
                              Map<String, MarkerContract> markers,
                              ContractProcessorRegistry registry) {
         this.scopePath = Objects.requireNonNull(scopePath, "scopePath");
         this.bindingKey = bindingKey;
-        this.event = event != null ? event.clone() : null;
-        this.eventObject = eventObject;
+        this.event = event;
+        this.eventObject = Objects.requireNonNull(eventObject, "eventObject");
         this.channels = channels == null
                 ? Collections.emptyMap()
                 : Collections.unmodifiableMap(new LinkedHashMap<>(channels));
@@ -66,11 +70,20 @@ public final class ChannelEvaluationContext {
     }
 
     public Node event() {
-        return event != null ? event.clone() : null;
+        return event != null ? event.toNode() : null;
+    }
+
+    public FrozenNode frozenEvent() {
+        return event;
     }
 
+    /**
+     * The event converted to its registered Java type, or {@code null} if it has none. The
+     * conversion runs on first use and is shared by every channel evaluated for the same event,
+     * so treat the returned object as read-only.
+     */
     public Object eventObject() {
-        return eventObject;
+        return eventObject.get();
     }
 
     public Map<String, ChannelContract> channels() {
@@ -12,7 +12,7 @@ public interface ChannelProcessor<T extends ChannelContract> extends ContractPro
         if (!matches) {
             return ChannelEvaluation.noMatch();
         }
-        return ChannelEvaluation.match(context.event(), eventId(contract, context));
+        return ChannelEvaluation.matchFrozen(context.frozenEvent(), eventId(contract, context));
     }
 
     default boolean matches(T contract, ChannelEvaluationContext context) {
@@ -1,7 +1,7 @@
 package blue.language.processor;
 
-import blue.language.model.Node;
 import blue.language.processor.model.ChannelContract;
+import blue.language.snapshot.FrozenNode;
 
 import java.util.List;
 import java.util.Objects;
@@ -10,7 +10,10 @@ import java.util.Objects;
  * Executes channel matching and handler invocation for a scope.
  *
  * <p>Applies checkpoint gating for external channels and feeds successful
- * matches into the registered handler processors.</p>
+ * matches into the registered handler processors. Events are passed as
+ * {@link FrozenNode}s and shared by every channel and handler that sees them;
+ * handlers that need a mutable node get one from
+ * {@link ProcessorExecutionContext#event()}.</p>
  */
 final class ChannelRunner {
 
@@ -32,13 +35,14 @@ final class ChannelRunner {
     void runExternalChannel(String scopePath,
                             ContractBundle bundle,
                             ContractBundle.ChannelBinding channel,
-                            Node event) {
+                            FrozenNode event) {
         if (execution.isScopeInactive(scopePath)) {
             return;
         }
         runtime.chargeChannelMatchAttempt();
         ChannelContract contract = channel.contract();
-        ProcessorEngine.ChannelMatch match = ProcessorEngine.evaluateChannel(owner, channel, bundle, scopePath, event);
+        ProcessorEngine.ChannelMatch match = ProcessorEngine.evaluateChannel(owner, channel, bundle, scopePath, event,
+                () -> execution.eventObject(event));
         if (!match.matches) {
             return;
         }
@@ -46,19 +50,18 @@ final class ChannelRunner {
             runDeliveries(scopePath, bundle, channel, event, match);
             return;
         }
-        Node eventForHandlers = match.eventNode() != null ? match.eventNode() : event;
-        Node checkpointEvent = event != null ? event.clone() : null;
+        FrozenNode eventForHandlers = match.event != null ? match.event : event;
         checkpointManager.ensureCheckpointMarker(scopePath, bundle);
         CheckpointManager.CheckpointRecord checkpoint = checkpointManager.findCheckpoint(bundle, channel.key());
         String eventSignature = match.eventId != null
                 ? match.eventId
-                : ProcessorEngine.canonicalSignature(checkpointEvent);
+                : ProcessorEngine.canonicalSignature(event);
         if (checkpointManager.isDuplicate(checkpoint, eventSignature)) {
             return;
         }
         ChannelCheckpointContext checkpointContext = new ChannelCheckpointContext(scopePath,
                 channel.key(),
-                checkpointEvent,
+                event,
                 eventSignature,
                 checkpoint != null ? checkpoint.lastEventNode : null,
                 checkpoint != null ? checkpoint.lastEventSignature : null,
@@ -70,13 +73,13 @@ final class ChannelRunner {
         if (execution.isScopeInactive(scopePath)) {
             return;
         }
-        checkpointManager.persist(scopePath, bundle, checkpoint, eventSignature, checkpointEvent);
+        checkpointManager.persist(scopePath, bundle, checkpoint, eventSignature, event);
     }
 
     private void runDeliveries(String scopePath,
                                ContractBundle bundle,
                                ContractBundle.ChannelBinding channel,
-                               Node checkpointEvent,
+                               FrozenNode checkpointEvent,
                                ProcessorEngine.ChannelMatch match) {
         checkpointManager.ensureCheckpointMarker(scopePath, bundle);
         String fallbackSignature = ProcessorEngine.canonicalSignature(checkpointEvent);
@@ -108,7 +111,7 @@ final class ChannelRunner {
                     continue;
                 }
             }
-            Node eventForHandlers = delivery.eventForDelivery();
+            FrozenNode eventForHandlers = delivery.eventForDelivery();
             if (eventForHandlers == null) {
                 continue;
             }
@@ -123,7 +126,7 @@ final class ChannelRunner {
     void runHandlers(String scopePath,
                      ContractBundle bundle,
                      String channelKey,
-                     Node event,
+                     FrozenNode event,
                      boolean allowTerminatedWork) {
         List<ContractBundle.HandlerBinding> handlers = bundle.handlersFor(channelKey);
         if (handlers.isEmpty()) {
@@ -148,10 +151,40 @@ final class ChannelRunner {
                     handler.node(),
                     allowTerminatedWork,
                     false);
-            ProcessorEngine.executeHandler(owner, handler.contract(), context);
+            executeHandler(scopePath, bundle, handler, context);
             if (execution.isScopeInactive(scopePath) && !allowTerminatedWork) {
                 break;
             }
         }
     }
+
+    private void executeHandler(String scopePath,
+                                ContractBundle bundle,
+                                ContractBundle.HandlerBinding handler,
+                                ProcessorExecutionContext context) {
+        if (!owner.isDeferredSnapshotCommit()) {
+            ProcessorEngine.executeHandler(owner, handler.contract(), context);
+            return;
+        }
+        runtime.beginDeferredCommit();
+        try {
+            ProcessorEngine.executeHandler(owner, handler.contract(), context);
+        } catch (RunTerminationException ex) {
+            // the handler ended the run; what it staged, including the termination marker, still stands
+            try {
+                runtime.endDeferredCommit();
+            } catch (RuntimeException commitFailure) {
+                ex.addSuppressed(commitFailure);
+            }
+            throw ex;
+        } catch (RuntimeException | Error ex) {
+            runtime.discardDeferredCommit();
+            throw ex;
+        }
+        try {
+            runtime.endDeferredCommit();
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            execution.enterFatalTermination(scopePath, bundle, execution.fatalReason(ex, "Runtime fatal"));
+        }
+    }
 }
@@ -6,6 +6,7 @@ import blue.language.processor.model.MarkerContract;
 import blue.language.processor.util.PointerUtils;
 import blue.language.processor.util.ProcessorContractConstants;
 import blue.language.processor.util.ProcessorPointerConstants;
+import blue.language.snapshot.FrozenNode;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -66,16 +67,25 @@ final class CheckpointManager {
                  CheckpointRecord record,
                  String eventSignature,
                  Node eventNode) {
+        persist(scopePath, bundle, record, eventSignature,
+                eventNode != null ? FrozenNode.fromResolvedNode(eventNode) : null);
+    }
+
+    void persist(String scopePath,
+                 ContractBundle bundle,
+                 CheckpointRecord record,
+                 String eventSignature,
+                 FrozenNode eventNode) {
         if (record == null) {
             return;
         }
         String pointer = PointerUtils.resolvePointer(scopePath,
                 ProcessorPointerConstants.relativeCheckpointLastEvent(record.markerKey, record.channelKey));
-        Node stored = eventNode != null ? eventNode.clone() : null;
+        Node stored = eventNode != null ? eventNode.toNode() : null;
         runtime.chargeCheckpointUpdate();
         runtime.directWrite(pointer, stored);
         record.checkpoint.updateEvent(record.channelKey, stored);
-        record.lastEventNode = stored != null ? stored.clone() : null;
+        record.lastEventNode = eventNode != null ? eventNode.toNode() : null;
         String signaturePointer = PointerUtils.resolvePointer(scopePath,
                 ProcessorPointerConstants.relativeCheckpointLastSignature(record.markerKey, record.channelKey));
         Node signatureNode = eventSignature != null ? new Node().value(eventSignature) : null;
@@ -91,6 +101,7 @@ final class CheckpointManager {
         Node lastEventNode;
         String lastEventSignature;
 
+        // lastEventNode is a copy owned by this record; ChannelEventCheckpoint.lastEvent already returns one
         CheckpointRecord(String markerKey,
                          ChannelEventCheckpoint checkpoint,
                          String channelKey,
@@ -98,7 +109,7 @@ final class CheckpointManager {
             this.markerKey = markerKey;
             this.checkpoint = checkpoint;
             this.channelKey = channelKey;
-            this.lastEventNode = lastEventNode != null ? lastEventNode.clone() : null;
+            this.lastEventNode = lastEventNode;
         }
 
         boolean matches(String signature) {
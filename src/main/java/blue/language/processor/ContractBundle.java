@@ -64,6 +64,34 @@ public final class ContractBundle {
         return builder().build();
     }
 
+    /**
+     * Returns a bundle sharing this bundle's contracts but with its own mutable state: the
+     * containers and the checkpoint marker, which processing updates in place.
+     *
+     * <p>Every other contract object is the same instance in all copies and is treated as
+     * immutable once {@link ContractLoader} has set its key, type and channel. Processors must
+     * not change them; a checkpoint is the only contract processing writes to.</p>
+     */
+    ContractBundle copy() {
+        Map<String, List<HandlerBinding>> handlersCopy = new LinkedHashMap<>();
+        for (Map.Entry<String, List<HandlerBinding>> entry : handlersByChannel.entrySet()) {
+            handlersCopy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        Map<String, MarkerContract> markersCopy = new LinkedHashMap<>(markers);
+        for (Map.Entry<String, MarkerContract> entry : markersCopy.entrySet()) {
+            if (entry.getValue() instanceof ChannelEventCheckpoint) {
+                entry.setValue(((ChannelEventCheckpoint) entry.getValue()).copy());
+            }
+        }
+        return new ContractBundle(new LinkedHashMap<>(channels),
+                new LinkedHashMap<>(channelNodes),
+                handlersCopy,
+                markersCopy,
+                new LinkedHashMap<>(contractNodes),
+                new ArrayList<>(embeddedPaths),
+                checkpointDeclared);
+    }
+
     public Map<String, MarkerContract> markers() {
         return markersView;
     }
@@ -113,6 +141,11 @@ public final class ContractBundle {
         checkpointDeclared = true;
     }
 
+    void registerCheckpointMarker(ChannelEventCheckpoint checkpoint, FrozenNode node) {
+        registerCheckpointMarker(checkpoint);
+        contractNodes.put(ProcessorContractConstants.KEY_CHECKPOINT, node);
+    }
+
     public List<HandlerBinding> handlersFor(String channelKey) {
         List<HandlerBinding> handlers = handlersByChannel.get(channelKey);
         if (handlers == null || handlers.isEmpty()) {
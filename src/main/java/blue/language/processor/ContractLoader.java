@@ -2,6 +2,7 @@ package blue.language.processor;
 
 import blue.language.mapping.NodeToObjectConverter;
 import blue.language.processor.model.ChannelContract;
+import blue.language.processor.model.ChannelEventCheckpoint;
 import blue.language.processor.model.Contract;
 import blue.language.processor.model.HandlerContract;
 import blue.language.processor.model.MarkerContract;
@@ -9,7 +10,10 @@ import blue.language.processor.model.ProcessEmbedded;
 import blue.language.processor.util.ProcessorContractConstants;
 import blue.language.snapshot.FrozenNode;
 import blue.language.snapshot.ResolvedSnapshot;
+import blue.language.utils.CompactBlueId;
 import blue.language.utils.TypeClassResolver;
+import blue.language.utils.cache.BoundedCache;
+import blue.language.utils.cache.CacheSettings;
 
 import java.util.Map;
 import java.util.LinkedHashMap;
@@ -18,12 +22,25 @@ import java.util.Optional;
 
 /**
  * Parses contracts under a scope and produces a {@link ContractBundle}.
+ *
+ * <p>Compiled bundles are cached by the BlueId of the resolved {@code contracts} node, the scope
+ * path and the registry version, so unchanged contracts are converted only once. Callers always
+ * receive a {@link ContractBundle#copy() copy} of the cached bundle. Key, type and channel are set
+ * on each contract here, during compilation; from then on the contract objects are shared between
+ * copies and never written again.</p>
+ *
+ * <p>The checkpoint marker is rewritten by every processed event, so it is left out of the cache
+ * key and converted on each load; the other contracts of a scope stay compiled across events.</p>
  */
 final class ContractLoader {
 
+    private static final long MAX_CACHED_CONTRACTS = 100_000L;
+
     private final ContractProcessorRegistry registry;
     private final NodeToObjectConverter converter;
     private final TypeClassResolver typeResolver;
+    private final BoundedCache<BundleKey, ContractBundle> compiledBundles =
+            new BoundedCache<>(CacheSettings.maximumWeight(MAX_CACHED_CONTRACTS), bundle -> 1 + bundle.contractNodes().size());
 
     ContractLoader(ContractProcessorRegistry registry,
                    NodeToObjectConverter converter,
@@ -58,6 +75,41 @@ final class ContractLoader {
             throw new MustUnderstandFailureException("Contracts must be an object map");
         }
 
+        FrozenNode checkpointNode = contractsNode.property(ProcessorContractConstants.KEY_CHECKPOINT);
+        if (checkpointNode == null
+                || contractsNode.getProperties().size() == 1
+                || !isCheckpointType(typeBlueId(checkpointNode))) {
+            return compiled(contractsNode, scopePath).copy();
+        }
+        ContractBundle bundle = compiled(contractsNode.withProperty(ProcessorContractConstants.KEY_CHECKPOINT, null), scopePath).copy();
+        ChannelEventCheckpoint checkpoint = converter.convertWithType(checkpointNode.toNode(), ChannelEventCheckpoint.class, false);
+        if (checkpoint != null) {
+            checkpoint.setKey(ProcessorContractConstants.KEY_CHECKPOINT);
+            checkpoint.setTypeBlueId(typeBlueId(checkpointNode));
+            bundle.registerCheckpointMarker(checkpoint, checkpointNode);
+        }
+        return bundle;
+    }
+
+    private ContractBundle compiled(FrozenNode contractsNode, String scopePath) {
+        BundleKey key = new BundleKey(contractsNode.blueIdValue(), scopePath, registry.version());
+        ContractBundle compiled = compiledBundles.get(key);
+        if (compiled == null) {
+            compiled = compiledBundles.putIfAbsent(key, compile(contractsNode, scopePath));
+        }
+        return compiled;
+    }
+
+    private boolean isCheckpointType(String typeBlueId) {
+        if (typeBlueId == null) {
+            return false;
+        }
+        Class<?> contractClass = typeResolver.resolveClass(typeBlueId);
+        return contractClass != null && ChannelEventCheckpoint.class.isAssignableFrom(contractClass);
+    }
+
+    private ContractBundle compile(FrozenNode contractsNode, String scopePath) {
+        ContractBundle.Builder builder = ContractBundle.builder();
         Map<String, FrozenNode> contractNodes = new LinkedHashMap<>(contractsNode.getProperties());
         Map<String, String> contractTypeBlueIds = new LinkedHashMap<>();
         for (Map.Entry<String, FrozenNode> entry : contractNodes.entrySet()) {
@@ -189,6 +241,40 @@ final class ContractLoader {
             return null;
         }
         FrozenNode type = node.getType();
-        return type.getReferenceBlueId() != null ? type.getReferenceBlueId() : type.blueId();
+        String referenceBlueId = type.getReferenceBlueId();
+        return referenceBlueId != null ? referenceBlueId : type.blueId();
+    }
+
+    private static final class BundleKey {
+        private final CompactBlueId contractsBlueId;
+        private final String scopePath;
+        private final int registryVersion;
+        private final int hash;
+
+        private BundleKey(CompactBlueId contractsBlueId, String scopePath, int registryVersion) {
+            this.contractsBlueId = contractsBlueId;
+            this.scopePath = scopePath;
+            this.registryVersion = registryVersion;
+            this.hash = Objects.hash(contractsBlueId, scopePath, registryVersion);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof BundleKey)) {
+                return false;
+            }
+            BundleKey key = (BundleKey) other;
+            return registryVersion == key.registryVersion
+                    && contractsBlueId.equals(key.contractsBlueId)
+                    && Objects.equals(scopePath, key.scopePath);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
 }
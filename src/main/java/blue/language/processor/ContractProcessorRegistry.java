@@ -14,6 +14,9 @@ import java.util.Optional;
 
 /**
  * Maintains the mapping between contract BlueIds and their processors.
+ *
+ * <p>Registration is not synchronized: register every processor before processing starts. Once
+ * registration is finished the registry is only read, so concurrent processing runs may share it.</p>
  */
 public class ContractProcessorRegistry {
 
@@ -24,23 +27,27 @@ public class ContractProcessorRegistry {
     private final Map<String, HandlerProcessor<? extends HandlerContract>> handlerProcessorsByBlueId = new LinkedHashMap<>();
     private final Map<String, ChannelProcessor<? extends ChannelContract>> channelProcessorsByBlueId = new LinkedHashMap<>();
     private final Map<String, ContractProcessor<? extends MarkerContract>> markerProcessorsByBlueId = new LinkedHashMap<>();
+    private int version;
 
     public <T extends HandlerContract> void registerHandler(HandlerProcessor<T> processor) {
         Objects.requireNonNull(processor, "processor");
         registerBlueIds(processor.contractType(), processor);
         handlerProcessors.put(processor.contractType(), processor);
+        version++;
     }
 
     public <T extends ChannelContract> void registerChannel(ChannelProcessor<T> processor) {
         Objects.requireNonNull(processor, "processor");
         registerBlueIds(processor.contractType(), processor);
         channelProcessors.put(processor.contractType(), processor);
+        version++;
     }
 
     public <T extends MarkerContract> void registerMarker(ContractProcessor<T> processor) {
         Objects.requireNonNull(processor, "processor");
         registerBlueIds(processor.contractType(), processor);
         markerProcessors.put(processor.contractType(), processor);
+        version++;
     }
 
     public void register(ContractProcessor<? extends Contract> processor) {
@@ -69,6 +76,15 @@ public class ContractProcessorRegistry {
         }
         registerBlueId(blueId, processor);
         registerClassLookup(processor);
+        version++;
+    }
+
+    /**
+     * Incremented on every registration, so callers caching registry-dependent results can tell
+     * when they are stale.
+     */
+    int version() {
+        return version;
     }
 
     public Optional<HandlerProcessor<? extends HandlerContract>> lookupHandler(Class<? extends HandlerContract> type) {
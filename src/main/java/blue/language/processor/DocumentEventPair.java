@@ -0,0 +1,33 @@
+package blue.language.processor;
+
+import blue.language.model.Node;
+
+import java.util.Objects;
+
+/**
+ * A document together with the event to process against it, used as one unit of batch processing.
+ */
+public final class DocumentEventPair {
+
+    private final Node document;
+    private final Node event;
+
+    private DocumentEventPair(Node document, Node event) {
+        this.document = document;
+        this.event = event;
+    }
+
+    public static DocumentEventPair of(Node document, Node event) {
+        Objects.requireNonNull(document, "document");
+        Objects.requireNonNull(event, "event");
+        return new DocumentEventPair(document, event);
+    }
+
+    public Node document() {
+        return document;
+    }
+
+    public Node event() {
+        return event;
+    }
+}
@@ -1,6 +1,7 @@
 package blue.language.processor;
 
 import blue.language.model.Node;
+import blue.language.snapshot.FrozenNodeView;
 import blue.language.snapshot.ResolvedSnapshot;
 
 import java.util.ArrayList;
@@ -10,6 +11,9 @@ import java.util.Objects;
 
 /**
  * Immutable value object representing the outcome of a single PROCESS run.
+ *
+ * <p>Documents taken from a snapshot are {@link FrozenNodeView}s, copied from the
+ * snapshot only as far as callers read them.</p>
  */
 public final class DocumentProcessingResult {
 
@@ -43,7 +47,7 @@ public final class DocumentProcessingResult {
     public static DocumentProcessingResult of(ResolvedSnapshot snapshot, List<Node> triggeredEvents, long totalGas) {
         Objects.requireNonNull(snapshot, "snapshot");
         Objects.requireNonNull(triggeredEvents, "triggeredEvents");
-        return new DocumentProcessingResult(snapshot.canonicalRoot(),
+        return new DocumentProcessingResult(FrozenNodeView.of(snapshot.frozenCanonicalRoot()),
                 new ArrayList<>(triggeredEvents),
                 totalGas,
                 false,
@@ -58,7 +62,7 @@ public final class DocumentProcessingResult {
 
     public DocumentProcessingResult withSnapshot(ResolvedSnapshot snapshot) {
         Objects.requireNonNull(snapshot, "snapshot");
-        return new DocumentProcessingResult(snapshot.canonicalRoot(),
+        return new DocumentProcessingResult(FrozenNodeView.of(snapshot.frozenCanonicalRoot()),
                 triggeredEvents,
                 totalGas,
                 capabilityFailure,
@@ -95,10 +99,10 @@ public final class DocumentProcessingResult {
     }
 
     public Node canonicalDocument() {
-        return snapshot != null ? snapshot.canonicalRoot() : null;
+        return snapshot != null ? FrozenNodeView.of(snapshot.frozenCanonicalRoot()) : null;
     }
 
     public Node resolvedDocument() {
-        return snapshot != null ? snapshot.resolvedRoot() : null;
+        return snapshot != null ? FrozenNodeView.of(snapshot.frozenResolvedRoot()) : null;
     }
 }
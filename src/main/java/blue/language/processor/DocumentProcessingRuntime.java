@@ -8,6 +8,9 @@ import blue.language.processor.util.PointerUtils;
 import blue.language.processor.util.ProcessorPointerConstants;
 import blue.language.snapshot.FrozenNode;
 import blue.language.snapshot.ResolvedSnapshot;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -24,6 +27,8 @@ public final class DocumentProcessingRuntime {
     private final ProcessingSnapshotManager snapshotManager;
     private ResolvedSnapshot snapshot;
     private boolean runTerminated;
+    private final Deque<Savepoint> deferredCommits = new ArrayDeque<>();
+    private Overlay overlay;
 
     public DocumentProcessingRuntime(Node document) {
         this(document, null, null);
@@ -47,7 +52,7 @@ public final class DocumentProcessingRuntime {
                                      ConformanceEngine conformanceEngine,
                                      ProcessingSnapshotManager snapshotManager) {
         Objects.requireNonNull(snapshot, "snapshot");
-        this.materializedView = new MaterializedDocumentView(snapshot.canonicalRoot());
+        this.materializedView = new MaterializedDocumentView(snapshot.frozenCanonicalRoot());
         this.emissionRegistry = new EmissionRegistry();
         this.gasMeter = new GasMeter();
         this.conformanceEngine = conformanceEngine;
@@ -123,6 +128,10 @@ public final class DocumentProcessingRuntime {
         gasMeter.chargeEmitEvent(event);
     }
 
+    public void chargeEmitEvent(FrozenNode event) {
+        gasMeter.chargeEmitEvent(event);
+    }
+
     public void chargeBridge(Node event) {
         gasMeter.chargeBridge(event);
     }
@@ -169,6 +178,9 @@ public final class DocumentProcessingRuntime {
 
     public Node resolvedNodeAt(String path) {
         String normalized = PointerUtils.normalizePointer(path);
+        if (overlay != null) {
+            return toNode(overlay.resolvedAt(normalized));
+        }
         ResolvedSnapshot current = snapshot();
         if (current != null) {
             return current.resolvedNodeAt(normalized);
@@ -178,6 +190,9 @@ public final class DocumentProcessingRuntime {
 
     public FrozenNode resolvedFrozenAt(String path) {
         String normalized = PointerUtils.normalizePointer(path);
+        if (overlay != null) {
+            return overlay.resolvedAt(normalized);
+        }
         ResolvedSnapshot current = snapshot();
         if (current != null) {
             return current.resolvedAt(normalized);
@@ -188,6 +203,9 @@ public final class DocumentProcessingRuntime {
 
     public Node canonicalNodeAt(String path) {
         String normalized = PointerUtils.normalizePointer(path);
+        if (overlay != null) {
+            return toNode(overlay.canonicalAt(normalized));
+        }
         ResolvedSnapshot current = snapshot();
         if (current != null) {
             return current.canonicalNodeAt(normalized);
@@ -197,6 +215,9 @@ public final class DocumentProcessingRuntime {
 
     public FrozenNode canonicalFrozenAt(String path) {
         String normalized = PointerUtils.normalizePointer(path);
+        if (overlay != null) {
+            return overlay.canonicalAt(normalized);
+        }
         ResolvedSnapshot current = snapshot();
         if (current != null) {
             return current.canonicalAt(normalized);
@@ -207,6 +228,10 @@ public final class DocumentProcessingRuntime {
 
     public Node nodeAt(String path) {
         String normalized = PointerUtils.normalizePointer(path);
+        if (overlay != null) {
+            FrozenNode resolved = overlay.resolvedAt(normalized);
+            return resolved != null ? resolved.toNode() : materializedView.nodeAt(normalized);
+        }
         if (snapshot != null) {
             Node resolved = snapshot.resolvedNodeAt(normalized);
             if (resolved != null) {
@@ -231,10 +256,13 @@ public final class DocumentProcessingRuntime {
     }
 
     public void directWrite(String path, Node value) {
-        Node rollback = materializedView.copyRoot();
-        ResolvedSnapshot snapshotRollback = snapshot;
+        if (!deferredCommits.isEmpty()) {
+            stageDirectWrite(path, value);
+            return;
+        }
+        Rollback rollback = new Rollback();
         try {
-            PlanningContext planning = planningContext(rollback);
+            PlanningContext planning = planningContext();
             FrozenNode before = planning.canonicalPlanner.read(path);
             Node beforeNode = before != null ? before.toNode() : null;
             JsonPatch snapshotPatch = directWritePatch(path, beforeNode, value);
@@ -246,19 +274,20 @@ public final class DocumentProcessingRuntime {
             SnapshotPatchPlan snapshotPatchPlan = prepareSnapshotPatch(planning.baseSnapshot, snapshotPatch);
             commitSnapshotPatch(snapshotPatchPlan, resolvedPlan.root());
         } catch (RuntimeException ex) {
-            materializedView.replaceWith(rollback);
-            snapshot = snapshotRollback;
+            rollback.restore();
             throw ex;
         }
     }
 
     public DocumentUpdateData applyPatch(String originScopePath, JsonPatch patch) {
-        Node rollback = materializedView.copyRoot();
-        ResolvedSnapshot snapshotRollback = snapshot;
+        if (!deferredCommits.isEmpty()) {
+            return stagePatch(originScopePath, patch);
+        }
+        Rollback rollback = new Rollback();
         ImmutablePatchPlanner.PatchPlan result;
         Node before;
         try {
-            PlanningContext planning = planningContext(rollback);
+            PlanningContext planning = planningContext();
             result = planning.canonicalPlanner.plan(originScopePath, patch);
             ImmutablePatchPlanner.PatchPlan resolvedPlan = planning.resolvedPlanner.plan(originScopePath, patch);
             before = updateBefore(planning.baseSnapshot, result);
@@ -270,8 +299,7 @@ public final class DocumentProcessingRuntime {
                 commitSnapshotPatch(snapshotPatchPlan, conformancePlan.root());
             }
         } catch (RuntimeException ex) {
-            materializedView.replaceWith(rollback);
-            snapshot = snapshotRollback;
+            rollback.restore();
             throw ex;
         }
         Node after = result.op() == JsonPatch.Op.REMOVE
@@ -285,22 +313,144 @@ public final class DocumentProcessingRuntime {
                 result.cascadeScopes());
     }
 
+    /**
+     * Starts staging patches and direct writes in an overlay instead of committing each one.
+     * Reads see the staged writes, and {@link #applyPatch} still returns the update data for
+     * each patch so cascades run in order. Calls nest; the outermost
+     * {@link #endDeferredCommit()} commits everything staged since the outermost begin.
+     */
+    void beginDeferredCommit() {
+        deferredCommits.push(new Savepoint(overlay));
+    }
+
+    /**
+     * Ends a deferred commit. The outermost call plans conformance for the staged patches and
+     * resolves the document once. If that fails, every staged write is dropped and the exception
+     * is rethrown.
+     */
+    void endDeferredCommit() {
+        if (deferredCommits.isEmpty()) {
+            throw new IllegalStateException("No deferred commit in progress");
+        }
+        deferredCommits.pop();
+        if (!deferredCommits.isEmpty()) {
+            return;
+        }
+        Overlay staged = overlay;
+        overlay = null;
+        if (staged == null || staged.patches.isEmpty()) {
+            return;
+        }
+        try {
+            commitOverlay(staged);
+        } catch (RuntimeException ex) {
+            staged.rollback.restore();
+            throw ex;
+        }
+    }
+
+    /**
+     * Ends a deferred commit without committing it, dropping every write staged since the
+     * matching {@link #beginDeferredCommit()}. Writes staged by an enclosing deferred commit
+     * before that point are kept.
+     */
+    void discardDeferredCommit() {
+        if (deferredCommits.isEmpty()) {
+            throw new IllegalStateException("No deferred commit in progress");
+        }
+        Savepoint savepoint = deferredCommits.pop();
+        if (overlay == null) {
+            return;
+        }
+        if (deferredCommits.isEmpty() || savepoint.canonicalRoot == null) {
+            overlay.rollback.restore();
+            overlay = null;
+            return;
+        }
+        overlay.restore(savepoint);
+    }
+
+    private DocumentUpdateData stagePatch(String originScopePath, JsonPatch patch) {
+        Overlay staged = overlay();
+        ImmutablePatchPlanner.PatchPlan result = ImmutablePatchPlanner.forFrozen(staged.canonicalRoot).plan(originScopePath, patch);
+        ImmutablePatchPlanner.PatchPlan resolvedPlan = ImmutablePatchPlanner.forFrozen(staged.resolvedRoot).plan(originScopePath, patch);
+        staged.stage(patch, result, resolvedPlan);
+        staged.conformanceChecks.add(result);
+        return new DocumentUpdateData(result.path(),
+                resolvedPlan.beforeNode(),
+                result.op() == JsonPatch.Op.REMOVE ? null : resolvedPlan.afterNode(),
+                result.op(),
+                result.originScope(),
+                result.cascadeScopes());
+    }
+
+    private void stageDirectWrite(String path, Node value) {
+        Overlay staged = overlay();
+        FrozenNode before = staged.canonicalAt(path);
+        JsonPatch patch = directWritePatch(path, before != null ? before.toNode() : null, value);
+        if (patch == null) {
+            return;
+        }
+        staged.stage(patch,
+                ImmutablePatchPlanner.forFrozen(staged.canonicalRoot).plan("/", patch),
+                ImmutablePatchPlanner.forFrozen(staged.resolvedRoot).plan("/", patch));
+    }
+
+    private Overlay overlay() {
+        if (overlay == null) {
+            overlay = new Overlay();
+        }
+        return overlay;
+    }
+
+    private void commitOverlay(Overlay staged) {
+        ConformancePlan plan = ConformancePlan.unchanged(staged.canonicalRoot, staged.resolvedRoot);
+        boolean generalized = false;
+        for (ImmutablePatchPlanner.PatchPlan change : staged.conformanceChecks) {
+            plan = planConformance(plan.canonicalRoot(), plan.root(), change.originScope(), change.path());
+            generalized |= plan.generalized();
+        }
+        if (generalized) {
+            commitGeneralization(plan);
+            return;
+        }
+        if (snapshotManager == null) {
+            materializedView.replaceWithFrozen(plan.root());
+            return;
+        }
+        ResolvedSnapshot next;
+        try {
+            next = snapshotManager.applyPatches(staged.base, staged.patches);
+        } catch (RuntimeException ex) {
+            next = snapshotManager.fromDocument(plan.root().toNode());
+        }
+        snapshot = next;
+        materializedView.replaceWithSnapshot(snapshot);
+    }
+
     private ConformancePlan planConformanceFromPatch(ImmutablePatchPlanner.PatchPlan result, FrozenNode resolvedRoot) {
+        return planConformance(result.root(), resolvedRoot, result.originScope(), result.path());
+    }
+
+    private ConformancePlan planConformance(FrozenNode canonicalRoot,
+                                            FrozenNode resolvedRoot,
+                                            String originScopePath,
+                                            String path) {
         if (conformanceEngine == null) {
-            return ConformancePlan.unchanged(result.root(), resolvedRoot);
+            return ConformancePlan.unchanged(canonicalRoot, resolvedRoot);
         }
-        if (isProcessorManagedConformanceBypass(result)) {
-            return ConformancePlan.unchanged(result.root(), resolvedRoot);
+        if (isProcessorManagedConformanceBypass(originScopePath, path)) {
+            return ConformancePlan.unchanged(canonicalRoot, resolvedRoot);
         }
-        FrozenNode originScope = ImmutablePatchPlanner.forFrozen(resolvedRoot).read(result.originScope());
+        FrozenNode originScope = ImmutablePatchPlanner.forFrozen(resolvedRoot).read(originScopePath);
         if (originScope == null || originScope.getType() == null) {
-            return ConformancePlan.unchanged(result.root(), resolvedRoot);
+            return ConformancePlan.unchanged(canonicalRoot, resolvedRoot);
         }
-        return conformanceEngine.planGeneralization(result.root(), resolvedRoot, result.path());
+        return conformanceEngine.planGeneralization(canonicalRoot, resolvedRoot, path);
     }
 
-    private boolean isProcessorManagedConformanceBypass(ImmutablePatchPlanner.PatchPlan result) {
-        String relativePath = PointerUtils.relativizePointer(result.originScope(), result.path());
+    private boolean isProcessorManagedConformanceBypass(String originScopePath, String path) {
+        String relativePath = PointerUtils.relativizePointer(originScopePath, path);
         String initialized = ProcessorPointerConstants.RELATIVE_INITIALIZED;
         return relativePath.equals(initialized) || relativePath.startsWith(initialized + "/");
     }
@@ -314,12 +464,13 @@ public final class DocumentProcessingRuntime {
                 : JsonPatch.replace(path, value.clone());
     }
 
-    private PlanningContext planningContext(Node rollback) {
+    private PlanningContext planningContext() {
         if (snapshotManager == null) {
-            ImmutablePatchPlanner planner = ImmutablePatchPlanner.forMaterialized(rollback);
+            // planning must start from a non-strict tree, which keeps emptied containers like a mutable document does
+            ImmutablePatchPlanner planner = ImmutablePatchPlanner.forMaterialized(materializedView.root());
             return new PlanningContext(null, planner, planner);
         }
-        ResolvedSnapshot base = snapshot != null ? snapshot : snapshotManager.fromDocument(rollback);
+        ResolvedSnapshot base = snapshot != null ? snapshot : snapshotManager.fromDocument(materializedView.root());
         return new PlanningContext(base,
                 ImmutablePatchPlanner.forSnapshot(base),
                 ImmutablePatchPlanner.forFrozen(base.frozenResolvedRoot()));
@@ -358,7 +509,7 @@ public final class DocumentProcessingRuntime {
 
     private void commitSnapshotPatch(SnapshotPatchPlan plan, FrozenNode fallbackRoot) {
         if (snapshotManager == null || plan == null) {
-            materializedView.replaceWith(fallbackRoot.toNode());
+            materializedView.replaceWithFrozen(fallbackRoot);
             return;
         }
         if (plan.next != null) {
@@ -385,13 +536,17 @@ public final class DocumentProcessingRuntime {
 
     private void commitGeneralizedRoot(FrozenNode generalizedRoot) {
         if (snapshotManager == null) {
-            materializedView.replaceWith(generalizedRoot.toNode());
+            materializedView.replaceWithFrozen(generalizedRoot);
             return;
         }
         snapshot = snapshotManager.fromDocument(generalizedRoot.toNode());
         materializedView.replaceWithSnapshot(snapshot);
     }
 
+    private static Node toNode(FrozenNode node) {
+        return node != null ? node.toNode() : null;
+    }
+
     static final class DocumentUpdateData {
         private final String path;
         private final Node before;
@@ -439,6 +594,113 @@ public final class DocumentProcessingRuntime {
         }
     }
 
+    /**
+     * Pre-patch state of a patch transaction. Planning reads only immutable snapshots and commits
+     * replace the view as their last step, so a failed patch normally just restores the snapshot
+     * pointer; the view is re-synchronized only if a commit got as far as replacing it.
+     */
+    private final class Rollback {
+        private final ResolvedSnapshot previousSnapshot = snapshot;
+        private final FrozenNode previousFrozenRoot;
+        private final long previousViewVersion = materializedView.version();
+
+        Rollback() {
+            this(materializedView.frozenRoot());
+        }
+
+        /**
+         * @param previousFrozenRoot the tree to put back if the view changes and there is no
+         *                           previous snapshot, for views that currently hold a mutable root
+         */
+        Rollback(FrozenNode previousFrozenRoot) {
+            this.previousFrozenRoot = previousFrozenRoot;
+        }
+
+        void restore() {
+            snapshot = previousSnapshot;
+            if (materializedView.version() == previousViewVersion) {
+                return;
+            }
+            if (previousSnapshot != null) {
+                materializedView.replaceWithSnapshot(previousSnapshot);
+            } else if (previousFrozenRoot != null) {
+                materializedView.replaceWithFrozen(previousFrozenRoot);
+            }
+        }
+    }
+
+    /**
+     * Writes staged by a deferred commit: the canonical and resolved trees with every staged patch
+     * applied, the patches themselves in order, and the state to return to if the commit fails.
+     */
+    private final class Overlay {
+        private final Rollback rollback;
+        private final ResolvedSnapshot base;
+        private final List<JsonPatch> patches = new ArrayList<>();
+        private final List<ImmutablePatchPlanner.PatchPlan> conformanceChecks = new ArrayList<>();
+        private FrozenNode canonicalRoot;
+        private FrozenNode resolvedRoot;
+
+        private Overlay() {
+            if (snapshotManager == null) {
+                // same non-strict starting point as immediate planning without a snapshot manager
+                base = null;
+                canonicalRoot = FrozenNode.fromResolvedNode(materializedView.root());
+                resolvedRoot = canonicalRoot;
+                rollback = new Rollback(canonicalRoot);
+            } else {
+                // the base may be built here from a mutable root, so capture the rollback after it
+                base = snapshot();
+                canonicalRoot = base.frozenCanonicalRoot();
+                resolvedRoot = base.frozenResolvedRoot();
+                rollback = new Rollback();
+            }
+        }
+
+        private void stage(JsonPatch patch,
+                           ImmutablePatchPlanner.PatchPlan canonicalPlan,
+                           ImmutablePatchPlanner.PatchPlan resolvedPlan) {
+            canonicalRoot = canonicalPlan.root();
+            resolvedRoot = resolvedPlan.root();
+            patches.add(patch);
+            materializedView.replaceWithFrozen(canonicalRoot);
+        }
+
+        private void restore(Savepoint savepoint) {
+            canonicalRoot = savepoint.canonicalRoot;
+            resolvedRoot = savepoint.resolvedRoot;
+            patches.subList(savepoint.patchCount, patches.size()).clear();
+            conformanceChecks.subList(savepoint.conformanceCheckCount, conformanceChecks.size()).clear();
+            materializedView.replaceWithFrozen(canonicalRoot);
+        }
+
+        private FrozenNode canonicalAt(String path) {
+            return ImmutablePatchPlanner.forFrozen(canonicalRoot).read(path);
+        }
+
+        private FrozenNode resolvedAt(String path) {
+            return ImmutablePatchPlanner.forFrozen(resolvedRoot).read(path);
+        }
+    }
+
+    /**
+     * Overlay state when a nested deferred commit began, so discarding it keeps what the
+     * enclosing one staged before. Roots are {@code null} if nothing was staged yet.
+     */
+    private static final class Savepoint {
+        private final FrozenNode canonicalRoot;
+        private final FrozenNode resolvedRoot;
+        private final int patchCount;
+        private final int conformanceCheckCount;
+
+        private Savepoint(Overlay overlay) {
+            this.canonicalRoot = overlay != null ? overlay.canonicalRoot : null;
+            this.resolvedRoot = overlay != null ? overlay.resolvedRoot : null;
+            this.patchCount = overlay != null ? overlay.patches.size() : 0;
+            this.conformanceCheckCount = overlay != null ? overlay.conformanceChecks.size() : 0;
+        }
+    }
+
     private static final class PlanningContext {
         private final ResolvedSnapshot baseSnapshot;
         private final ImmutablePatchPlanner canonicalPlanner;
@@ -9,6 +9,9 @@ import blue.language.processor.model.MarkerContract;
 import blue.language.snapshot.FrozenNode;
 import blue.language.snapshot.ResolvedSnapshot;
 import blue.language.utils.TypeClassResolver;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -24,6 +27,7 @@ public class DocumentProcessor {
     private final ConformanceEngine conformanceEngine;
     private final ProcessingSnapshotManager snapshotManager;
     private final ContractMatchingService matchingService;
+    private volatile boolean deferredSnapshotCommit;
 
     public DocumentProcessor() {
         this(ContractProcessorRegistryBuilder.create().registerDefaults().build());
@@ -78,6 +82,7 @@ public class DocumentProcessor {
                 builder.conformanceEngine,
                 builder.snapshotManager,
                 builder.matchingService);
+        this.deferredSnapshotCommit = builder.deferredSnapshotCommit;
     }
 
     public DocumentProcessingResult initializeDocument(Node document) {
@@ -98,6 +103,27 @@ public class DocumentProcessor {
         return ProcessorEngine.processDocument(this, snapshot, event);
     }
 
+    /**
+     * Processes {@code events} in order, each against the snapshot produced by the previous one,
+     * and returns one result per event. Equivalent to chaining
+     * {@link #processDocument(ResolvedSnapshot, Node)} calls through {@link DocumentProcessingResult#snapshot()}.
+     */
+    public List<DocumentProcessingResult> processDocument(ResolvedSnapshot snapshot, List<Node> events) {
+        Objects.requireNonNull(events, "events");
+        List<DocumentProcessingResult> results = new ArrayList<>(events.size());
+        processDocument(snapshot, events.iterator()).forEachRemaining(results::add);
+        return results;
+    }
+
+    /**
+     * Streaming form of {@link #processDocument(ResolvedSnapshot, List)}: each event is taken from
+     * {@code events} and processed only when the next result is requested.
+     */
+    public Iterator<DocumentProcessingResult> processDocument(ResolvedSnapshot snapshot, Iterator<Node> events) {
+        requireSnapshotManager();
+        return ProcessorEngine.processDocument(this, snapshot, events);
+    }
+
     public boolean isInitialized(Node document) {
         return ProcessorEngine.isInitialized(this, document);
     }
@@ -120,6 +146,23 @@ public class DocumentProcessor {
         return this;
     }
 
+    /**
+     * When enabled, the patches a handler applies are staged and committed together when the
+     * handler returns: the document is resolved once per handler instead of once per patch.
+     * Reads inside the handler see its staged writes, and Document Update cascades still run for
+     * each patch in order. Staged reads are not re-resolved, and if the commit fails none of the
+     * handler's patches are kept and its scope terminates fatally. If the handler itself throws,
+     * its staged patches are dropped and the exception propagates unchanged. Disabled by default.
+     */
+    public DocumentProcessor deferredSnapshotCommit(boolean enabled) {
+        this.deferredSnapshotCommit = enabled;
+        return this;
+    }
+
+    public boolean isDeferredSnapshotCommit() {
+        return deferredSnapshotCommit;
+    }
+
     public ContractProcessorRegistry getContractRegistry() {
         return contractRegistry;
     }
@@ -183,6 +226,7 @@ public class DocumentProcessor {
         private ConformanceEngine conformanceEngine;
         private ProcessingSnapshotManager snapshotManager;
         private ContractMatchingService matchingService = new ContractMatchingService();
+        private boolean deferredSnapshotCommit;
 
         public Builder withRegistry(ContractProcessorRegistry registry) {
             this.contractRegistry = Objects.requireNonNull(registry, "registry");
@@ -236,6 +280,11 @@ public class DocumentProcessor {
             return this;
         }
 
+        public Builder withDeferredSnapshotCommit(boolean deferredSnapshotCommit) {
+            this.deferredSnapshotCommit = deferredSnapshotCommit;
+            return this;
+        }
+
         public DocumentProcessor build() {
             return new DocumentProcessor(this);
         }
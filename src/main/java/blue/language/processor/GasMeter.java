@@ -3,6 +3,7 @@ package blue.language.processor;
 import blue.language.model.Node;
 import blue.language.processor.util.NodeCanonicalizer;
 import blue.language.processor.util.PointerUtils;
+import blue.language.snapshot.FrozenNode;
 
 /**
  * Tracks and charges gas usage for a processing run.
@@ -57,6 +58,10 @@ final class GasMeter {
         add(GasCharges.emitEvent(payloadSizeCharge(event)));
     }
 
+    void chargeEmitEvent(FrozenNode event) {
+        add(GasCharges.emitEvent(payloadSizeCharge(event)));
+    }
+
     void chargeBridge(Node event) {
         add(GasCharges.BRIDGE_NODE);
     }
@@ -82,7 +87,14 @@ final class GasMeter {
     }
 
     private long payloadSizeCharge(Node node) {
-        long bytes = NodeCanonicalizer.canonicalSize(node);
+        return sizeCharge(NodeCanonicalizer.canonicalSize(node));
+    }
+
+    private long payloadSizeCharge(FrozenNode node) {
+        return sizeCharge(NodeCanonicalizer.canonicalSize(node));
+    }
+
+    private static long sizeCharge(long bytes) {
         return (bytes + 99L) / 100L;
     }
 
@@ -15,18 +15,16 @@ import java.util.Objects;
 public final class HandlerMatchContext {
 
     private final String scopePath;
-    private final Node event;
     private final FrozenNode eventFrozen;
     private final Map<String, MarkerContract> markers;
     private final ContractMatchingService matchingService;
 
     HandlerMatchContext(String scopePath,
-                        Node event,
+                        FrozenNode event,
                         Map<String, MarkerContract> markers,
                         ContractMatchingService matchingService) {
         this.scopePath = Objects.requireNonNull(scopePath, "scopePath");
-        this.event = event != null ? event.clone() : null;
-        this.eventFrozen = event != null ? FrozenNode.fromResolvedNode(event) : null;
+        this.eventFrozen = event;
         this.markers = markers == null
                 ? Collections.emptyMap()
                 : Collections.unmodifiableMap(new LinkedHashMap<>(markers));
@@ -38,7 +36,7 @@ public final class HandlerMatchContext {
     }
 
     public Node event() {
-        return event != null ? event.clone() : null;
+        return eventFrozen != null ? eventFrozen.toNode() : null;
     }
 
     public FrozenNode eventFrozen() {
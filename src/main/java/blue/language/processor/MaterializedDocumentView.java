@@ -2,6 +2,8 @@ package blue.language.processor;
 
 import blue.language.model.Node;
 import blue.language.processor.util.PointerUtils;
+import blue.language.snapshot.FrozenNode;
+import blue.language.snapshot.FrozenNodeView;
 import blue.language.snapshot.ResolvedSnapshot;
 
 import java.util.Objects;
@@ -13,33 +15,68 @@ import java.util.Objects;
  * objects, but the authoritative state is the snapshot. This adapter keeps the
  * mutable root synchronized with the latest canonical snapshot materialization,
  * while resolved reads come directly from {@link ResolvedSnapshot} indexes.</p>
+ *
+ * <p>Replacing the root with a frozen tree only copies its top level; everything
+ * below is a {@link FrozenNodeView} that is copied when first touched, so a commit
+ * costs the width of the root rather than the size of the document.</p>
  */
 final class MaterializedDocumentView {
 
     private final Node root;
+    private FrozenNode frozenRoot;
+    private long version;
 
     MaterializedDocumentView(Node root) {
         this.root = Objects.requireNonNull(root, "root");
     }
 
+    MaterializedDocumentView(FrozenNode frozenRoot) {
+        this.root = new Node();
+        replaceWithFrozen(Objects.requireNonNull(frozenRoot, "frozenRoot"));
+    }
+
     Node root() {
         return root;
     }
 
-    Node copyRoot() {
-        return root.clone();
+    /**
+     * The frozen tree the root was last replaced with, or {@code null} if the root was replaced
+     * with a mutable node.
+     */
+    FrozenNode frozenRoot() {
+        return frozenRoot;
+    }
+
+    /**
+     * Incremented whenever the root is replaced, so a caller can tell whether the view changed
+     * since it last looked.
+     */
+    long version() {
+        return version;
     }
 
     Node nodeAt(String path) {
-        return cloneNode(ImmutablePatchPlanner.readNode(root, PointerUtils.normalizePointer(path)));
+        String normalized = PointerUtils.normalizePointer(path);
+        if (frozenRoot != null) {
+            return FrozenNodeView.of(ImmutablePatchPlanner.forFrozen(frozenRoot).read(normalized));
+        }
+        return cloneNode(ImmutablePatchPlanner.readNode(root, normalized));
     }
 
     void replaceWith(Node nextRoot) {
         root.replaceWith(Objects.requireNonNull(nextRoot, "nextRoot"));
+        frozenRoot = null;
+        version++;
+    }
+
+    void replaceWithFrozen(FrozenNode nextRoot) {
+        FrozenNodeView.materializeInto(Objects.requireNonNull(nextRoot, "nextRoot"), root);
+        frozenRoot = nextRoot;
+        version++;
     }
 
     void replaceWithSnapshot(ResolvedSnapshot snapshot) {
-        replaceWith(Objects.requireNonNull(snapshot, "snapshot").canonicalRoot());
+        replaceWithFrozen(Objects.requireNonNull(snapshot, "snapshot").frozenCanonicalRoot());
     }
 
     private Node cloneNode(Node node) {
@@ -4,6 +4,8 @@ import blue.language.model.Node;
 import blue.language.processor.model.JsonPatch;
 import blue.language.snapshot.ResolvedSnapshot;
 
+import java.util.List;
+
 /**
  * Bridges the mutable processor runtime to the canonical immutable snapshot layer.
  */
@@ -13,6 +15,18 @@ public interface ProcessingSnapshotManager {
 
     ResolvedSnapshot applyPatch(ResolvedSnapshot snapshot, JsonPatch patch);
 
+    /**
+     * Applies {@code patches} in order. Implementations that can resolve the patched document once
+     * instead of once per patch should override this; the default applies them one by one.
+     */
+    default ResolvedSnapshot applyPatches(ResolvedSnapshot snapshot, List<JsonPatch> patches) {
+        ResolvedSnapshot current = snapshot;
+        for (JsonPatch patch : patches) {
+            current = applyPatch(current, patch);
+        }
+        return current;
+    }
+
     default ResolvedSnapshot cacheSnapshot(ResolvedSnapshot snapshot) {
         return snapshot;
     }
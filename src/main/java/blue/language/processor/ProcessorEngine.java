@@ -9,6 +9,7 @@ import blue.language.processor.util.PointerUtils;
 import blue.language.processor.util.ProcessorContractConstants;
 import blue.language.processor.util.ProcessorPointerConstants;
 import blue.language.snapshot.FrozenNode;
+import blue.language.snapshot.FrozenNodeView;
 import blue.language.snapshot.ResolvedSnapshot;
 import blue.language.utils.BlueIdCalculator;
 import blue.language.utils.JsonPointer;
@@ -16,12 +17,13 @@ import blue.language.utils.NodeToMapListOrValue;
 import blue.language.utils.UncheckedObjectMapper;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import org.erdtman.jcs.JsonCanonicalizer;
 
 final class ProcessorEngine {
@@ -56,7 +58,7 @@ final class ProcessorEngine {
         } catch (RunTerminationException ignored) {
             // Initialization run terminated early (e.g., graceful root termination).
         } catch (MustUnderstandFailureException ex) {
-            return DocumentProcessingResult.capabilityFailure(snapshot.canonicalRoot(), ex.getMessage());
+            return DocumentProcessingResult.capabilityFailure(FrozenNodeView.of(snapshot.frozenCanonicalRoot()), ex.getMessage());
         }
         return execution.result();
     }
@@ -86,6 +88,47 @@ final class ProcessorEngine {
         if (!isInitialized(owner, snapshot)) {
             throw new IllegalStateException("Document not initialized");
         }
+        return processInitialized(owner, snapshot, event);
+    }
+
+    /**
+     * Processes {@code events} one after another, each against the snapshot the previous one
+     * produced, and yields one result per event as it is consumed. Every event runs in its own
+     * {@link Execution}, so gas, emissions and checkpoints behave exactly as separate
+     * {@link #processDocument(DocumentProcessor, ResolvedSnapshot, Node)} calls would; what is shared
+     * is the initialization check, which the reserved marker keeps valid, and the contract bundles
+     * compiled by the owner's {@link ContractLoader}.
+     */
+    static Iterator<DocumentProcessingResult> processDocument(DocumentProcessor owner,
+                                                              ResolvedSnapshot snapshot,
+                                                              Iterator<Node> events) {
+        Objects.requireNonNull(snapshot, "snapshot");
+        Objects.requireNonNull(events, "events");
+        if (!isInitialized(owner, snapshot)) {
+            throw new IllegalStateException("Document not initialized");
+        }
+        return new Iterator<DocumentProcessingResult>() {
+            private ResolvedSnapshot current = snapshot;
+
+            @Override
+            public boolean hasNext() {
+                return events.hasNext();
+            }
+
+            @Override
+            public DocumentProcessingResult next() {
+                Node event = Objects.requireNonNull(events.next(), "event");
+                DocumentProcessingResult result = processInitialized(owner, current, event);
+                // a capability failure leaves the document as it was, just as it would for a separate call
+                if (result.snapshot() != null) {
+                    current = result.snapshot();
+                }
+                return result;
+            }
+        };
+    }
+
+    private static DocumentProcessingResult processInitialized(DocumentProcessor owner, ResolvedSnapshot snapshot, Node event) {
         Execution execution = new Execution(owner, snapshot);
         try {
             execution.loadBundles("/");
@@ -93,7 +136,7 @@ final class ProcessorEngine {
         } catch (RunTerminationException ignored) {
             // Processing terminated early; result still returned.
         } catch (MustUnderstandFailureException ex) {
-            return DocumentProcessingResult.capabilityFailure(snapshot.canonicalRoot(), ex.getMessage());
+            return DocumentProcessingResult.capabilityFailure(FrozenNodeView.of(snapshot.frozenCanonicalRoot()), ex.getMessage());
         }
         return execution.result();
     }
@@ -153,24 +196,19 @@ final class ProcessorEngine {
                                             ContractBundle.ChannelBinding channel,
                                             ContractBundle bundle,
                                             String scopePath,
-                                            Node event) {
+                                            FrozenNode event,
+                                            Supplier<Object> eventObject) {
         ChannelContract contract = channel.contract();
         ChannelProcessor<? extends ChannelContract> processor =
                 owner.registry().lookupChannel(contract).orElse(null);
         if (processor == null) {
             return ChannelMatch.noMatch();
         }
-        Node clonedEvent = event != null ? event.clone() : null;
-        Object eventObject = null;
-        try {
-            eventObject = owner.contractConverter().convertWithType(clonedEvent, Object.class, false);
-        } catch (Exception ignored) {
-        }
         @SuppressWarnings("unchecked")
         ChannelProcessor<ChannelContract> typed = (ChannelProcessor<ChannelContract>) processor;
         ChannelEvaluationContext context = new ChannelEvaluationContext(scopePath,
                 channel.key(),
-                clonedEvent,
+                event,
                 eventObject,
                 bundle.channels(),
                 bundle.markers(),
@@ -205,6 +243,10 @@ final class ProcessorEngine {
         }
     }
 
+    static String canonicalSignature(FrozenNode node) {
+        return node != null ? canonicalSignature(node.toNode()) : null;
+    }
+
     static Node createDocumentUpdateEvent(DocumentProcessingRuntime.DocumentUpdateData data, String scopePath) {
         String relativePath = relativizePointer(scopePath, data.path());
         Node event = new Node().properties("type", new Node().value("Document Update"));
@@ -289,6 +331,8 @@ final class ProcessorEngine {
         private final TerminationService terminationService;
         private final ChannelRunner channelRunner;
         private final ScopeExecutor scopeExecutor;
+        private FrozenNode convertedEvent;
+        private Object convertedEventObject;
 
         Execution(DocumentProcessor owner, Node document) {
             this.owner = owner;
@@ -317,7 +361,7 @@ final class ProcessorEngine {
         }
 
         void processExternalEvent(String scopePath, Node event) {
-            scopeExecutor.processExternalEvent(scopePath, event);
+            scopeExecutor.processExternalEvent(scopePath, FrozenNode.fromResolvedNode(event));
         }
 
         void handlePatch(String scopePath,
@@ -355,9 +399,20 @@ final class ProcessorEngine {
                                                 FrozenNode contractNode,
                                                 boolean allowTerminatedWork,
                                                 boolean allowReservedMutation) {
+            return createContext(scopePath, bundle, freezeEvent(event),
+                    contractKey, contractNode, allowTerminatedWork, allowReservedMutation);
+        }
+
+        ProcessorExecutionContext createContext(String scopePath,
+                                                ContractBundle bundle,
+                                                FrozenNode event,
+                                                String contractKey,
+                                                FrozenNode contractNode,
+                                                boolean allowTerminatedWork,
+                                                boolean allowReservedMutation) {
             return new ProcessorExecutionContext(this, bundle, scopePath,
                     contractKey, contractNode,
-                    cloneEvent(event), allowTerminatedWork, allowReservedMutation);
+                    event, allowTerminatedWork, allowReservedMutation);
         }
 
         DocumentProcessingResult result() {
@@ -452,19 +507,39 @@ final class ProcessorEngine {
                               ContractBundle bundle,
                               Node event,
                               boolean finalizeAfter) {
-            scopeExecutor.deliverLifecycle(scopePath, bundle, event, finalizeAfter);
+            scopeExecutor.deliverLifecycle(scopePath, bundle, FrozenNode.fromResolvedNode(event), finalizeAfter);
         }
 
-        void recordLifecycleForBridging(String scopePath, Node event) {
+        void recordLifecycleForBridging(String scopePath, FrozenNode event) {
             ScopeRuntimeContext scopeContext = runtime.scope(scopePath);
-            scopeContext.recordBridgeable(event.clone());
+            scopeContext.recordBridgeable(FrozenNodeView.of(event));
             if ("/".equals(scopePath)) {
-                runtime.recordRootEmission(event.clone());
+                runtime.recordRootEmission(FrozenNodeView.of(event));
             }
         }
 
-        private Node cloneEvent(Node event) {
-            return event != null ? event.clone() : null;
+        /**
+         * The event converted for {@link ChannelEvaluationContext#eventObject()}. The last
+         * conversion is kept, so the channels of one event share a single conversion.
+         */
+        Object eventObject(FrozenNode event) {
+            if (event == null) {
+                return null;
+            }
+            if (event != convertedEvent) {
+                Object converted = null;
+                try {
+                    converted = owner.contractConverter().convertWithType(FrozenNodeView.of(event), Object.class, false);
+                } catch (Exception ignored) {
+                }
+                convertedEventObject = converted;
+                convertedEvent = event;
+            }
+            return convertedEventObject;
+        }
+
+        private FrozenNode freezeEvent(Node event) {
+            return event != null ? FrozenNode.fromResolvedNode(event) : null;
         }
     }
 
@@ -504,24 +579,21 @@ final class ProcessorEngine {
     static final class ChannelMatch {
         final boolean matches;
         final String eventId;
-        final Node event;
+        final FrozenNode event;
         final ChannelProcessor<ChannelContract> processor;
         final List<ChannelDelivery> deliveries;
 
         ChannelMatch(boolean matches,
                      String eventId,
-                     Node event,
+                     FrozenNode event,
                      ChannelProcessor<ChannelContract> processor,
                      List<ChannelDelivery> deliveries) {
             this.matches = matches;
             this.eventId = eventId;
-            this.event = event != null ? event.clone() : null;
+            this.event = event;
             this.processor = processor;
-            this.deliveries = copyDeliveries(deliveries);
-        }
-
-        Node eventNode() {
-            return event != null ? event.clone() : null;
+            // ChannelEvaluation already holds an unmodifiable copy of its immutable deliveries
+            this.deliveries = deliveries != null ? deliveries : Collections.<ChannelDelivery>emptyList();
         }
 
         List<ChannelDelivery> deliveries() {
@@ -531,22 +603,6 @@ final class ProcessorEngine {
         static ChannelMatch noMatch() {
             return new ChannelMatch(false, null, null, null, Collections.emptyList());
         }
-
-        private static List<ChannelDelivery> copyDeliveries(List<ChannelDelivery> deliveries) {
-            if (deliveries == null || deliveries.isEmpty()) {
-                return Collections.emptyList();
-            }
-            List<ChannelDelivery> copy = new ArrayList<>();
-            for (ChannelDelivery delivery : deliveries) {
-                if (delivery != null) {
-                    copy.add(ChannelDelivery.of(delivery.event(),
-                            delivery.eventId(),
-                            delivery.checkpointKey(),
-                            delivery.shouldProcess()));
-                }
-            }
-            return Collections.unmodifiableList(copy);
-        }
     }
 
     static final class BoundaryViolationException extends RuntimeException {
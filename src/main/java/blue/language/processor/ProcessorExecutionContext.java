@@ -3,6 +3,7 @@ package blue.language.processor;
 import blue.language.model.Node;
 import blue.language.processor.model.JsonPatch;
 import blue.language.snapshot.FrozenNode;
+import blue.language.snapshot.FrozenNodeView;
 
 import java.util.Objects;
 
@@ -16,16 +17,17 @@ public final class ProcessorExecutionContext {
     private final String scopePath;
     private final String contractKey;
     private final FrozenNode contractNode;
-    private final Node event;
+    private final FrozenNode event;
     private final boolean allowTerminatedWork;
     private final boolean allowReservedMutation;
+    private Node eventView;
 
     ProcessorExecutionContext(ProcessorEngine.Execution execution,
                               ContractBundle bundle,
                               String scopePath,
                               String contractKey,
                               FrozenNode contractNode,
-                              Node event,
+                              FrozenNode event,
                               boolean allowTerminatedWork,
                               boolean allowReservedMutation) {
         this.execution = Objects.requireNonNull(execution, "execution");
@@ -50,7 +52,17 @@ public final class ProcessorExecutionContext {
         return contractNode;
     }
 
+    /**
+     * Mutable copy of the event, materialized on first call and returned by later calls on this context.
+     */
     public Node event() {
+        if (eventView == null) {
+            eventView = event.toNode();
+        }
+        return eventView;
+    }
+
+    public FrozenNode frozenEvent() {
         return event;
     }
 
@@ -68,12 +80,13 @@ public final class ProcessorExecutionContext {
         Objects.requireNonNull(emission, "emission");
         DocumentProcessingRuntime runtime = runtime();
         ScopeRuntimeContext scopeContext = runtime.scope(scopePath);
-        runtime.chargeEmitEvent(emission);
-        Node queued = emission.clone();
-        scopeContext.enqueueTriggered(queued);
-        scopeContext.recordBridgeable(queued.clone());
+        // freezing once replaces the defensive clones and lets gas read the memoized canonical size
+        FrozenNode frozen = FrozenNode.fromResolvedNode(emission);
+        runtime.chargeEmitEvent(frozen);
+        scopeContext.enqueueTriggered(FrozenNodeView.of(frozen));
+        scopeContext.recordBridgeable(FrozenNodeView.of(frozen));
         if ("/".equals(scopeContext.scopePath())) {
-            runtime.recordRootEmission(queued.clone());
+            runtime.recordRootEmission(FrozenNodeView.of(frozen));
         }
     }
 
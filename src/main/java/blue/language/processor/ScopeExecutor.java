@@ -104,8 +104,9 @@ final class ScopeExecutor {
 
         runtime.chargeInitialization();
         String documentId = BlueIdCalculator.calculateBlueId(preInitSnapshot != null ? preInitSnapshot : new Node());
-        Node lifecycleEvent = ProcessorEngine.createLifecycleInitiatedEvent(documentId);
-        ProcessorExecutionContext context = execution.createContext(normalizedScope, bundle, lifecycleEvent, false, true);
+        FrozenNode lifecycleEvent = FrozenNode.fromResolvedNode(ProcessorEngine.createLifecycleInitiatedEvent(documentId));
+        ProcessorExecutionContext context = execution.createContext(normalizedScope, bundle, lifecycleEvent,
+                null, null, false, true);
         deliverLifecycle(normalizedScope, bundle, lifecycleEvent, true);
         addInitializationMarker(context, documentId);
     }
@@ -126,7 +127,7 @@ final class ScopeExecutor {
         }
     }
 
-    void processExternalEvent(String scopePath, Node event) {
+    void processExternalEvent(String scopePath, FrozenNode event) {
         String normalizedScope = ProcessorEngine.normalizeScope(scopePath);
         if (execution.isScopeInactive(normalizedScope)) {
             return;
@@ -194,7 +195,8 @@ final class ScopeExecutor {
                 if (execution.isScopeInactive(cascadeScope)) {
                     continue;
                 }
-                Node updateEvent = ProcessorEngine.createDocumentUpdateEvent(data, cascadeScope);
+                FrozenNode updateEvent = FrozenNode.fromResolvedNode(
+                        ProcessorEngine.createDocumentUpdateEvent(data, cascadeScope));
                 for (ContractBundle.ChannelBinding channel : targetBundle.channelsOfType(DocumentUpdateChannel.class)) {
                     DocumentUpdateChannel duc = (DocumentUpdateChannel) channel.contract();
                     if (!ProcessorEngine.matchesDocumentUpdate(cascadeScope, duc.getPath(), data.path())) {
@@ -215,7 +217,7 @@ final class ScopeExecutor {
 
     void deliverLifecycle(String scopePath,
                           ContractBundle bundle,
-                          Node event,
+                          FrozenNode event,
                           boolean finalizeAfter) {
         runtime.chargeLifecycleDelivery();
         execution.recordLifecycleForBridging(scopePath, event);
@@ -233,7 +235,7 @@ final class ScopeExecutor {
         }
     }
 
-    private ContractBundle processEmbeddedChildren(String scopePath, Node event) {
+    private ContractBundle processEmbeddedChildren(String scopePath, FrozenNode event) {
         String normalizedScope = ProcessorEngine.normalizeScope(scopePath);
         Set<String> processed = new LinkedHashSet<>();
         ContractBundle bundle = refreshBundle(normalizedScope);
@@ -324,6 +326,7 @@ final class ScopeExecutor {
                 continue;
             }
             for (Node emission : emissions) {
+                FrozenNode frozenEmission = null;
                 boolean charged = false;
                 for (ContractBundle.ChannelBinding channel : embeddedChannels) {
                     EmbeddedNodeChannel enc = (EmbeddedNodeChannel) channel.contract();
@@ -336,7 +339,10 @@ final class ScopeExecutor {
                         runtime.chargeBridge(emission);
                         charged = true;
                     }
-                    channelRunner.runHandlers(scopePath, bundle, channel.key(), emission.clone(), false);
+                    if (frozenEmission == null) {
+                        frozenEmission = FrozenNode.fromResolvedNode(emission);
+                    }
+                    channelRunner.runHandlers(scopePath, bundle, channel.key(), frozenEmission, false);
                 }
             }
         }
@@ -356,14 +362,14 @@ final class ScopeExecutor {
             return;
         }
         while (!context.triggeredQueue().isEmpty()) {
-            Node next = context.triggeredQueue().pollFirst();
+            FrozenNode next = FrozenNode.fromResolvedNode(context.triggeredQueue().pollFirst());
             runtime.chargeDrainEvent();
             for (ContractBundle.ChannelBinding channel : triggeredChannels) {
                 if (execution.isScopeInactive(scopePath)) {
                     context.triggeredQueue().clear();
                     return;
                 }
-                channelRunner.runHandlers(scopePath, bundle, channel.key(), next.clone(), false);
+                channelRunner.runHandlers(scopePath, bundle, channel.key(), next, false);
                 if (execution.isScopeInactive(scopePath)) {
                     context.triggeredQueue().clear();
                     return;
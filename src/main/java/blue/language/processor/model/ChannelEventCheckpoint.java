@@ -75,4 +75,23 @@ public class ChannelEventCheckpoint extends MarkerContract {
         }
         return this;
     }
+
+    /**
+     * Returns an independent checkpoint with the same contract metadata and stored events.
+     */
+    public ChannelEventCheckpoint copy() {
+        ChannelEventCheckpoint copy = new ChannelEventCheckpoint();
+        if (lastEvents != null) {
+            for (Map.Entry<String, Node> entry : lastEvents.entrySet()) {
+                copy.putEvent(entry.getKey(), entry.getValue());
+            }
+        }
+        if (lastSignatures != null) {
+            copy.lastSignatures.putAll(lastSignatures);
+        }
+        copy.setKey(getKey());
+        copy.setTypeBlueId(getTypeBlueId());
+        copy.setOrder(getOrder());
+        return copy;
+    }
 }
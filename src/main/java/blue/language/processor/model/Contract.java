@@ -2,6 +2,10 @@ package blue.language.processor.model;
 
 /**
  * Base type for all contract representations extracted from a document tree.
+ *
+ * <p>The document processor caches the contracts it converts and hands the same instances to
+ * every event of a scope, so processors receive them as read-only values. The setters are for
+ * conversion and loading only.</p>
  */
 public abstract class Contract {
 
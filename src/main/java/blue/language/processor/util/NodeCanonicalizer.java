@@ -1,11 +1,8 @@
 package blue.language.processor.util;
 
 import blue.language.model.Node;
-import blue.language.utils.NodeToMapListOrValue;
-import blue.language.utils.UncheckedObjectMapper;
-import org.erdtman.jcs.JsonCanonicalizer;
-
-import java.nio.charset.StandardCharsets;
+import blue.language.snapshot.FrozenNode;
+import blue.language.utils.CanonicalSize;
 
 /**
  * Utility for producing canonical JSON sizes used in gas accounting.
@@ -19,11 +16,19 @@ public final class NodeCanonicalizer {
         if (node == null) {
             return 0L;
         }
-        Object canonical = NodeToMapListOrValue.get(node);
         try {
-            String json = UncheckedObjectMapper.JSON_MAPPER.writeValueAsString(canonical);
-            String canonicalJson = new JsonCanonicalizer(json).getEncodedString();
-            return canonicalJson.getBytes(StandardCharsets.UTF_8).length;
+            return CanonicalSize.of(node);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to canonicalize node", ex);
+        }
+    }
+
+    public static long canonicalSize(FrozenNode node) {
+        if (node == null) {
+            return 0L;
+        }
+        try {
+            return node.canonicalSize();
         } catch (Exception ex) {
             throw new IllegalStateException("Failed to canonicalize node", ex);
         }
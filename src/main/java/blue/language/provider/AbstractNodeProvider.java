@@ -16,10 +16,17 @@ public abstract class AbstractNodeProvider implements NodeProvider {
     @Override
     public List<Node> fetchByBlueId(String blueId) {
         final String baseBlueId = blueId.split("#")[0];
-        final JsonNode content = fetchContentByBlueId(baseBlueId);
+        return nodesFromContent(blueId, fetchContentByBlueId(baseBlueId));
+    }
+
+    /**
+     * Turns the content stored under the base of {@code blueId} into the nodes {@code blueId} refers to.
+     */
+    protected List<Node> nodesFromContent(String blueId, JsonNode content) {
         if (content == null) {
             return null;
         }
+        final String baseBlueId = blueId.split("#")[0];
 
         boolean isMultipleDocuments = content.isArray() && content.size() > 1;
         final JsonNode resolvedContent = NodeContentHandler.resolveThisReferences(content, baseBlueId, isMultipleDocuments);
@@ -4,7 +4,9 @@ import blue.language.NodeProvider;
 import blue.language.model.Node;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import static blue.language.provider.ClasspathBasedNodeProvider.NO_PREPROCESSING;
 
@@ -30,4 +32,9 @@ public class BootstrapProvider implements NodeProvider {
         return nodeProvider.fetchByBlueId(blueId);
     }
 
+    @Override
+    public Map<String, List<Node>> fetchByBlueIds(Collection<String> blueIds) {
+        return nodeProvider.fetchByBlueIds(blueIds);
+    }
+
 }
\ No newline at end of file
@@ -2,89 +2,107 @@ package blue.language.provider;
 
 import blue.language.model.Node;
 import blue.language.NodeProvider;
-import blue.language.utils.NodeToMapListOrValue;
+import blue.language.utils.CanonicalSize;
+import blue.language.utils.cache.BoundedCache;
+import blue.language.utils.cache.CacheSettings;
+import blue.language.utils.cache.CacheStats;
+import blue.language.utils.cache.SingleFlight;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-
-import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Caches delegate lookups by BlueId, bounded by the canonical JSON size of the cached nodes.
+ * <p>
+ * Sizes are counted once per cached entry with {@link CanonicalSize}, the same measure snapshots
+ * use, and eviction is handled by a {@link BoundedCache}, so hits never take a global lock. Concurrent misses for the same BlueId,
+ * whether single, batched or asynchronous, share one delegate fetch.
+ */
 public class CachingNodeProvider implements NodeProvider {
     private final NodeProvider delegate;
-    private final Map<String, List<Node>> cache;
-    private final Queue<String> accessOrder;
-    private final AtomicLong currentSize;
-    private final long maxSizeBytes;
+    private final BoundedCache<String, List<Node>> cache;
+    private final SingleFlight<String, List<Node>> inFlight = new SingleFlight<>();
 
+    /**
+     * @param maxSizeBytes bound on the total UTF-8 size of the canonical JSON of cached nodes. Earlier
+     *                     releases counted the character length of their YAML serialization instead,
+     *                     so a bound tuned against that measure may need to be revisited.
+     */
     public CachingNodeProvider(NodeProvider delegate, long maxSizeBytes) {
         this.delegate = delegate;
-        this.cache = new ConcurrentHashMap<>();
-        this.accessOrder = new LinkedList<>();
-        this.currentSize = new AtomicLong(0);
-        this.maxSizeBytes = maxSizeBytes;
+        this.cache = new BoundedCache<>(CacheSettings.maximumWeight(maxSizeBytes), CachingNodeProvider::canonicalSize);
     }
 
     @Override
     public List<Node> fetchByBlueId(String blueId) {
         List<Node> cachedNodes = cache.get(blueId);
         if (cachedNodes != null) {
-            updateAccessOrder(blueId);
             return cachedNodes;
         }
 
-        List<Node> nodes = delegate.fetchByBlueId(blueId);
-        if (nodes != null) {
-            cacheNodes(blueId, nodes);
-        }
-        return nodes;
+        return inFlight.execute(blueId, () -> cacheFetched(blueId, delegate.fetchByBlueId(blueId)));
     }
 
-    private void updateAccessOrder(String blueId) {
-        synchronized (accessOrder) {
-            accessOrder.remove(blueId);
-            accessOrder.offer(blueId);
+    @Override
+    public Map<String, List<Node>> fetchByBlueIds(Collection<String> blueIds) {
+        Map<String, List<Node>> result = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String blueId : blueIds) {
+            if (result.containsKey(blueId)) {
+                continue;
+            }
+            List<Node> cachedNodes = cache.get(blueId);
+            result.put(blueId, cachedNodes);
+            if (cachedNodes == null) {
+                misses.add(blueId);
+            }
         }
-    }
-
-    private void cacheNodes(String blueId, List<Node> nodes) {
-        long nodeSize = estimateSize(nodes);
-        while (currentSize.get() + nodeSize > maxSizeBytes && !accessOrder.isEmpty()) {
-            removeOldestEntry();
+        if (!misses.isEmpty()) {
+            result.putAll(inFlight.executeAll(misses, batch -> {
+                Map<String, List<Node>> fetched = new LinkedHashMap<>(delegate.fetchByBlueIds(batch));
+                fetched.replaceAll(this::cacheFetched);
+                return fetched;
+            }));
         }
+        return result;
+    }
 
-        if (currentSize.get() + nodeSize <= maxSizeBytes) {
-            cache.put(blueId, nodes);
-            currentSize.addAndGet(nodeSize);
-            synchronized (accessOrder) {
-                accessOrder.offer(blueId);
-            }
+    @Override
+    public CompletableFuture<List<Node>> fetchAsync(String blueId) {
+        List<Node> cachedNodes = cache.get(blueId);
+        if (cachedNodes != null) {
+            return CompletableFuture.completedFuture(cachedNodes);
         }
+        return inFlight.executeAsync(blueId, () -> delegate.fetchAsync(blueId)
+                .thenApply(nodes -> cacheFetched(blueId, nodes)));
     }
 
-    private void removeOldestEntry() {
-        String oldestBlueId;
-        synchronized (accessOrder) {
-            oldestBlueId = accessOrder.poll();
-        }
-        if (oldestBlueId != null) {
-            List<Node> removedNodes = cache.remove(oldestBlueId);
-            if (removedNodes != null) {
-                currentSize.addAndGet(-estimateSize(removedNodes));
-            }
-        }
+    private List<Node> cacheFetched(String blueId, List<Node> nodes) {
+        return nodes != null ? cache.putIfAbsent(blueId, nodes) : null;
     }
 
-    private long estimateSize(List<Node> nodes) {
-        return nodes.stream().mapToLong(node -> YAML_MAPPER.writeValueAsString(NodeToMapListOrValue.get(node)).length()).sum();
+    private static long canonicalSize(List<Node> nodes) {
+        long size = 0;
+        for (Node node : nodes) {
+            size += CanonicalSize.of(node);
+        }
+        return size;
     }
 
     public long getCurrentSize() {
-        return currentSize.get();
+        return cache.weight();
     }
 
     public int getCacheSize() {
         return cache.size();
     }
 
-}
\ No newline at end of file
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+}
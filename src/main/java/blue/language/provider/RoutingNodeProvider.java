@@ -0,0 +1,214 @@
+package blue.language.provider;
+
+import blue.language.NodeProvider;
+import blue.language.model.Node;
+import blue.language.utils.cache.BoundedCache;
+import blue.language.utils.cache.CacheSettings;
+import blue.language.utils.cache.CacheStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asks its delegates in order like {@link SequentialNodeProvider}, but remembers which delegate
+ * answered each BlueId and goes straight to it on later lookups, falling back to the full chain if
+ * that delegate no longer has it.
+ *
+ * <p>Misses can optionally be remembered too. A cached miss hides content a delegate gains later,
+ * so enable the miss cache only for delegates whose content is fixed, or call
+ * {@link #invalidate(String)} after adding content.</p>
+ */
+public class RoutingNodeProvider implements NodeProvider {
+
+    public static final long DEFAULT_MAXIMUM_ROUTES = 100_000L;
+
+    private static final Boolean MISS = Boolean.TRUE;
+
+    private final NodeProvider[] nodeProviders;
+    private final BoundedCache<String, Integer> owners;
+    private final BoundedCache<String, Boolean> misses;
+
+    public RoutingNodeProvider(List<NodeProvider> nodeProviders) {
+        this(nodeProviders, CacheSettings.maximumWeight(DEFAULT_MAXIMUM_ROUTES), null);
+    }
+
+    public RoutingNodeProvider(NodeProvider... nodeProviders) {
+        this(Arrays.asList(nodeProviders));
+    }
+
+    /**
+     * @param routeSettings bounds the number of remembered owners, one weight unit per BlueId
+     * @param missSettings  bounds the number of remembered misses, or {@code null} to not remember misses
+     */
+    public RoutingNodeProvider(List<NodeProvider> nodeProviders, CacheSettings routeSettings, CacheSettings missSettings) {
+        this.nodeProviders = nodeProviders.toArray(new NodeProvider[0]);
+        this.owners = new BoundedCache<>(routeSettings, owner -> 1L);
+        this.misses = missSettings != null ? new BoundedCache<>(missSettings, miss -> 1L) : null;
+    }
+
+    @Override
+    public List<Node> fetchByBlueId(String blueId) {
+        if (isKnownMiss(blueId)) {
+            return null;
+        }
+        int owner = ownerOf(blueId);
+        if (owner >= 0) {
+            List<Node> nodes = nodeProviders[owner].fetchByBlueId(blueId);
+            if (nodes != null) {
+                return nodes;
+            }
+            owners.invalidate(blueId);
+        }
+        for (int i = 0; i < nodeProviders.length; i++) {
+            if (i == owner) {
+                continue;
+            }
+            List<Node> nodes = nodeProviders[i].fetchByBlueId(blueId);
+            if (nodes != null) {
+                owners.putIfAbsent(blueId, i);
+                return nodes;
+            }
+        }
+        recordMiss(blueId);
+        return null;
+    }
+
+    /**
+     * Sends routed BlueIds to their owners in one batch per owner, then asks the delegates in order
+     * for the rest.
+     */
+    @Override
+    public Map<String, List<Node>> fetchByBlueIds(Collection<String> blueIds) {
+        Map<String, List<Node>> result = new LinkedHashMap<>();
+        Map<Integer, List<String>> routed = new LinkedHashMap<>();
+        List<String> remaining = new ArrayList<>();
+        for (String blueId : blueIds) {
+            if (result.containsKey(blueId)) {
+                continue;
+            }
+            result.put(blueId, null);
+            if (isKnownMiss(blueId)) {
+                continue;
+            }
+            int owner = ownerOf(blueId);
+            if (owner >= 0) {
+                routed.computeIfAbsent(owner, key -> new ArrayList<>()).add(blueId);
+            } else {
+                remaining.add(blueId);
+            }
+        }
+
+        routed.forEach((owner, group) -> {
+            Map<String, List<Node>> fetched = nodeProviders[owner].fetchByBlueIds(group);
+            for (String blueId : group) {
+                List<Node> nodes = fetched.get(blueId);
+                if (nodes != null) {
+                    result.put(blueId, nodes);
+                } else {
+                    owners.invalidate(blueId);
+                    remaining.add(blueId);
+                }
+            }
+        });
+
+        for (int i = 0; i < nodeProviders.length && !remaining.isEmpty(); i++) {
+            Map<String, List<Node>> fetched = nodeProviders[i].fetchByBlueIds(remaining);
+            List<String> missing = new ArrayList<>();
+            for (String blueId : remaining) {
+                List<Node> nodes = fetched.get(blueId);
+                if (nodes != null) {
+                    owners.putIfAbsent(blueId, i);
+                    result.put(blueId, nodes);
+                } else {
+                    missing.add(blueId);
+                }
+            }
+            remaining.clear();
+            remaining.addAll(missing);
+        }
+        remaining.forEach(this::recordMiss);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<List<Node>> fetchAsync(String blueId) {
+        if (isKnownMiss(blueId)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int owner = ownerOf(blueId);
+        if (owner < 0) {
+            return fetchAsync(blueId, 0);
+        }
+        return nodeProviders[owner].fetchAsync(blueId).thenCompose(nodes -> {
+            if (nodes != null) {
+                return CompletableFuture.completedFuture(nodes);
+            }
+            owners.invalidate(blueId);
+            return fetchAsync(blueId, 0);
+        });
+    }
+
+    private CompletableFuture<List<Node>> fetchAsync(String blueId, int providerIndex) {
+        if (providerIndex >= nodeProviders.length) {
+            recordMiss(blueId);
+            return CompletableFuture.completedFuture(null);
+        }
+        return nodeProviders[providerIndex].fetchAsync(blueId).thenCompose(nodes -> {
+            if (nodes != null) {
+                owners.putIfAbsent(blueId, providerIndex);
+                return CompletableFuture.completedFuture(nodes);
+            }
+            return fetchAsync(blueId, providerIndex + 1);
+        });
+    }
+
+    /**
+     * Forgets the route and any cached miss for {@code blueId}.
+     */
+    public void invalidate(String blueId) {
+        owners.invalidate(blueId);
+        if (misses != null) {
+            misses.invalidate(blueId);
+        }
+    }
+
+    public void clear() {
+        owners.clear();
+        if (misses != null) {
+            misses.clear();
+        }
+    }
+
+    public List<NodeProvider> getNodeProviders() {
+        return Collections.unmodifiableList(Arrays.asList(nodeProviders));
+    }
+
+    public CacheStats getRouteStats() {
+        return owners.stats();
+    }
+
+    public CacheStats getMissStats() {
+        return misses != null ? misses.stats() : null;
+    }
+
+    private int ownerOf(String blueId) {
+        Integer owner = owners.get(blueId);
+        return owner != null ? owner : -1;
+    }
+
+    private boolean isKnownMiss(String blueId) {
+        return misses != null && misses.get(blueId) != null;
+    }
+
+    private void recordMiss(String blueId) {
+        if (misses != null) {
+            misses.putIfAbsent(blueId, MISS);
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package blue.language.provider;
+
+import blue.language.model.Node;
+import blue.language.preprocess.Preprocessor;
+import blue.language.utils.CompactBlueId;
+import blue.language.utils.Nodes;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static blue.language.utils.UncheckedObjectMapper.JSON_MAPPER;
+import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
+
+/**
+ * Content-addressed provider backed by append-only segment files in a directory, for repositories
+ * too large to parse into memory when the process starts.
+ *
+ * <p>Each ingested document is preprocessed and stored once as JSON in the current segment file
+ * ({@code segment-NNNNN.seg}), prefixed by its length, a flags byte and its 32-byte BlueId digest.
+ * {@code index.idx} maps digests to segment offsets as fixed-width entries sorted by digest. Both
+ * are memory-mapped when read; opening the provider reads neither the segments nor the index, and
+ * a fetch binary-searches the index and decodes only the requested record.</p>
+ *
+ * <p>Documents added through {@link #add(Node)}, {@link #addDocument(String)} and
+ * {@link #addList(List)} are readable right away and are published to the index by {@link #flush()}
+ * or {@link #close()}; records that were appended but never flushed are not visible after
+ * reopening. Reads may run concurrently with each other and with one writer.</p>
+ */
+public class SegmentNodeProvider extends AbstractNodeProvider implements Closeable {
+
+    static final long DEFAULT_MAX_SEGMENT_SIZE = 256L * 1024 * 1024;
+
+    private static final String INDEX_FILE = "index.idx";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{5})\\.seg");
+
+    private static final int INDEX_MAGIC = 0x424C4958;
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_SIZE = 16;
+    private static final int DIGEST_LENGTH = 32;
+    private static final int INDEX_ENTRY_SIZE = DIGEST_LENGTH + 4 + 8;
+    private static final int RECORD_HEADER_SIZE = 4 + 1 + DIGEST_LENGTH;
+    private static final byte FLAG_MULTIPLE_DOCUMENTS = 1;
+
+    private final Path directory;
+    private final Function<Node, Node> preprocessor;
+    private final long maxSegmentSize;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Map<CompactBlueId, Location> pending = new ConcurrentHashMap<>();
+    private volatile Index index;
+    private FileChannel writeChannel;
+
+    public SegmentNodeProvider(Path directory) throws IOException {
+        this(null, directory, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    public SegmentNodeProvider(Function<Node, Node> preprocessor, Path directory) throws IOException {
+        this(preprocessor, directory, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    SegmentNodeProvider(Function<Node, Node> preprocessor, Path directory, long maxSegmentSize) throws IOException {
+        if (preprocessor == null) {
+            Preprocessor defaultPreprocessor = new Preprocessor(this);
+            preprocessor = defaultPreprocessor::preprocessWithDefaultBlue;
+        }
+        this.preprocessor = preprocessor;
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        Files.createDirectories(directory);
+        openSegments();
+        this.index = Index.open(directory.resolve(INDEX_FILE));
+    }
+
+    @Override
+    protected JsonNode fetchContentByBlueId(String baseBlueId) {
+        CompactBlueId blueId = CompactBlueId.of(baseBlueId);
+        if (!blueId.isDigest()) {
+            return null;
+        }
+        Location location = locate(blueId);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer record = segments.get(location.segment).read(location.offset);
+        boolean isMultipleDocuments = (record.get(4) & FLAG_MULTIPLE_DOCUMENTS) != 0;
+        byte[] payload = new byte[record.getInt(0)];
+        record.position(RECORD_HEADER_SIZE);
+        record.get(payload);
+        try {
+            JsonNode content = JSON_MAPPER.readTree(payload);
+            return NodeContentHandler.resolveThisReferences(content, baseBlueId, isMultipleDocuments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt record for " + baseBlueId + " in " + directory, e);
+        }
+    }
+
+    public boolean contains(String blueId) {
+        CompactBlueId compact = CompactBlueId.of(blueId.split("#")[0]);
+        return compact.isDigest() && locate(compact) != null;
+    }
+
+    /**
+     * Number of stored documents, flushed or not.
+     */
+    public long size() {
+        return index.size() + pending.size();
+    }
+
+    /**
+     * Stores a document, or a list of documents if {@code node} only has items, and returns its
+     * BlueId. Content that is already stored is not written again.
+     */
+    public String add(Node node) throws IOException {
+        if (Nodes.hasItemsOnly(node)) {
+            return addList(node.getItems());
+        }
+        return store(NodeContentHandler.parseAndCalculateBlueId(node, preprocessor));
+    }
+
+    public String addList(List<Node> nodes) throws IOException {
+        NodeContentHandler.ParsedContent parsed = NodeContentHandler.parseAndCalculateBlueId(nodes, preprocessor);
+        return store(new NodeContentHandler.ParsedContent(parsed.blueId, parsed.content, true));
+    }
+
+    /**
+     * Stores a YAML or JSON document, parsed as {@link DirectoryBasedNodeProvider} parses
+     * {@code .blue} files.
+     */
+    public String addDocument(String content) throws IOException {
+        return store(NodeContentHandler.parseAndCalculateBlueId(content, preprocessor));
+    }
+
+    public String addDocument(Path file) throws IOException {
+        return addDocument(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    public void addDocuments(String... docs) throws IOException {
+        for (String doc : docs) {
+            add(YAML_MAPPER.readValue(doc, Node.class));
+        }
+    }
+
+    /**
+     * Forces appended records to disk and publishes them to the index.
+     */
+    public synchronized void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (writeChannel != null) {
+            writeChannel.force(false);
+        }
+        List<Map.Entry<CompactBlueId, Location>> added = new ArrayList<>(pending.entrySet());
+        List<Entry> entries = new ArrayList<>(added.size());
+        for (Map.Entry<CompactBlueId, Location> entry : added) {
+            entries.add(new Entry(entry.getKey().digest(), entry.getValue()));
+        }
+        entries.sort(Comparator.comparing(entry -> entry.digest, SegmentNodeProvider::compareDigests));
+
+        Path target = directory.resolve(INDEX_FILE);
+        Path temporary = directory.resolve(INDEX_FILE + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            index.writeMerged(out, entries);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        index = Index.open(target);
+        // readers check the pending map first, so entries leave it only once the new index is visible
+        for (Map.Entry<CompactBlueId, Location> entry : added) {
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        if (writeChannel != null) {
+            writeChannel.close();
+            writeChannel = null;
+        }
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private Location locate(CompactBlueId blueId) {
+        Location location = pending.get(blueId);
+        return location != null ? location : index.find(blueId.digest());
+    }
+
+    private synchronized String store(NodeContentHandler.ParsedContent parsed) throws IOException {
+        CompactBlueId blueId = CompactBlueId.of(parsed.blueId);
+        if (locate(blueId) != null) {
+            return parsed.blueId;
+        }
+        byte[] payload = JSON_MAPPER.writeValueAsString(parsed.content).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        record.putInt(payload.length);
+        record.put(parsed.isMultipleDocuments ? FLAG_MULTIPLE_DOCUMENTS : 0);
+        record.put(blueId.digest());
+        record.put(payload);
+        record.flip();
+
+        FileChannel channel = writableSegment(record.remaining());
+        long offset = channel.size();
+        while (record.hasRemaining()) {
+            channel.write(record, offset + record.position());
+        }
+        pending.put(blueId, new Location(segments.size() - 1, offset));
+        return parsed.blueId;
+    }
+
+    private FileChannel writableSegment(int recordSize) throws IOException {
+        if (segments.isEmpty()) {
+            addSegment(0);
+        }
+        if (writeChannel == null) {
+            writeChannel = FileChannel.open(segments.get(segments.size() - 1).path, StandardOpenOption.WRITE);
+        }
+        long size = writeChannel.size();
+        if (size > 0 && size + recordSize > maxSegmentSize) {
+            writeChannel.force(false);
+            writeChannel.close();
+            addSegment(segments.size());
+            writeChannel = FileChannel.open(segments.get(segments.size() - 1).path, StandardOpenOption.WRITE);
+        }
+        return writeChannel;
+    }
+
+    private void addSegment(int number) throws IOException {
+        Path path = directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        if (!Files.exists(path)) {
+            Files.createFile(path);
+        }
+        segments.add(new Segment(path));
+    }
+
+    private void openSegments() throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    numbers.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        Collections.sort(numbers);
+        for (int i = 0; i < numbers.size(); i++) {
+            if (numbers.get(i) != i) {
+                throw new IOException("Missing segment " + i + " in " + directory);
+            }
+            addSegment(i);
+        }
+    }
+
+    private static int compareDigests(byte[] left, byte[] right) {
+        for (int i = 0; i < DIGEST_LENGTH; i++) {
+            int difference = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    private static final class Location {
+        private final int segment;
+        private final long offset;
+
+        private Location(int segment, long offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] digest;
+        private final Location location;
+
+        private Entry(byte[] digest, Location location) {
+            this.digest = digest;
+            this.location = location;
+        }
+    }
+
+    /**
+     * One segment file, mapped read-only and remapped when a read reaches past the current mapping.
+     */
+    private static final class Segment {
+        private final Path path;
+        private FileChannel channel;
+        private volatile MappedByteBuffer mapped;
+
+        private Segment(Path path) {
+            this.path = path;
+        }
+
+        ByteBuffer read(long offset) {
+            ByteBuffer buffer = mapping(offset + RECORD_HEADER_SIZE);
+            int length = buffer.getInt((int) offset);
+            buffer = mapping(offset + RECORD_HEADER_SIZE + length);
+            ByteBuffer record = buffer.duplicate();
+            record.position((int) offset).limit((int) offset + RECORD_HEADER_SIZE + length);
+            return record.slice();
+        }
+
+        private ByteBuffer mapping(long end) {
+            MappedByteBuffer current = mapped;
+            return current != null && current.capacity() >= end ? current : remap(end);
+        }
+
+        private synchronized MappedByteBuffer remap(long end) {
+            try {
+                if (channel == null) {
+                    channel = FileChannel.open(path, StandardOpenOption.READ);
+                }
+                long size = channel.size();
+                if (size < end) {
+                    throw new IOException("Truncated segment " + path);
+                }
+                if (mapped == null || mapped.capacity() < end) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                return mapped;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            mapped = null;
+        }
+    }
+
+    /**
+     * Sorted, memory-mapped digest-to-location table.
+     */
+    private static final class Index {
+        private static final Index EMPTY = new Index(null, 0);
+
+        private final MappedByteBuffer buffer;
+        private final int size;
+
+        private Index(MappedByteBuffer buffer, int size) {
+            this.buffer = buffer;
+            this.size = size;
+        }
+
+        static Index open(Path path) throws IOException {
+            if (!Files.exists(path)) {
+                return EMPTY;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.capacity() < INDEX_HEADER_SIZE || buffer.getInt(0) != INDEX_MAGIC) {
+                    throw new IOException("Not a segment index: " + path);
+                }
+                if (buffer.getInt(4) != INDEX_VERSION) {
+                    throw new IOException("Unsupported segment index version " + buffer.getInt(4) + ": " + path);
+                }
+                long size = buffer.getLong(8);
+                if (INDEX_HEADER_SIZE + size * INDEX_ENTRY_SIZE != buffer.capacity()) {
+                    throw new IOException("Truncated segment index: " + path);
+                }
+                return new Index(buffer, (int) size);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        Location find(byte[] digest) {
+            int low = 0;
+            int high = size - 1;
+            byte[] candidate = new byte[DIGEST_LENGTH];
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = compareDigests(digestAt(middle, candidate), digest);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return locationAt(middle);
+                }
+            }
+            return null;
+        }
+
+        void writeMerged(DataOutputStream out, List<Entry> added) throws IOException {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeLong((long) size + added.size());
+            int existing = 0;
+            int next = 0;
+            byte[] digest = new byte[DIGEST_LENGTH];
+            while (existing < size || next < added.size()) {
+                boolean takeExisting = next >= added.size()
+                        || existing < size && compareDigests(digestAt(existing, digest), added.get(next).digest) < 0;
+                if (takeExisting) {
+                    write(out, digestAt(existing, digest), locationAt(existing));
+                    existing++;
+                } else {
+                    write(out, added.get(next).digest, added.get(next).location);
+                    next++;
+                }
+            }
+        }
+
+        private static void write(DataOutputStream out, byte[] digest, Location location) throws IOException {
+            out.write(digest);
+            out.writeInt(location.segment);
+            out.writeLong(location.offset);
+        }
+
+        private byte[] digestAt(int position, byte[] target) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(INDEX_HEADER_SIZE + position * INDEX_ENTRY_SIZE);
+            view.get(target);
+            return target;
+        }
+
+        private Location locationAt(int position) {
+            int entry = INDEX_HEADER_SIZE + position * INDEX_ENTRY_SIZE;
+            return new Location(buffer.getInt(entry + DIGEST_LENGTH), buffer.getLong(entry + DIGEST_LENGTH + 4));
+        }
+    }
+}
@@ -3,9 +3,13 @@ package blue.language.provider;
 import blue.language.model.Node;
 import blue.language.NodeProvider;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class SequentialNodeProvider implements NodeProvider {
     private List<NodeProvider> nodeProviders;
@@ -20,14 +24,63 @@ public class SequentialNodeProvider implements NodeProvider {
 
     @Override
     public List<Node> fetchByBlueId(String blueId) {
-        return nodeProviders.stream()
-                .map(provider -> provider.fetchByBlueId(blueId))
-                .filter(Objects::nonNull)
-                .findFirst()
-                .orElse(null);
+        for (NodeProvider provider : nodeProviders) {
+            List<Node> nodes = provider.fetchByBlueId(blueId);
+            if (nodes != null) {
+                return nodes;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Asks each provider in turn for all BlueIds the earlier providers did not have.
+     */
+    @Override
+    public Map<String, List<Node>> fetchByBlueIds(Collection<String> blueIds) {
+        Map<String, List<Node>> result = new LinkedHashMap<>();
+        List<String> remaining = new ArrayList<>();
+        for (String blueId : blueIds) {
+            if (!result.containsKey(blueId)) {
+                result.put(blueId, null);
+                remaining.add(blueId);
+            }
+        }
+        for (NodeProvider provider : nodeProviders) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            Map<String, List<Node>> fetched = provider.fetchByBlueIds(remaining);
+            List<String> missing = new ArrayList<>();
+            for (String blueId : remaining) {
+                List<Node> nodes = fetched.get(blueId);
+                if (nodes != null) {
+                    result.put(blueId, nodes);
+                } else {
+                    missing.add(blueId);
+                }
+            }
+            remaining = missing;
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<List<Node>> fetchAsync(String blueId) {
+        return fetchAsync(blueId, 0);
+    }
+
+    private CompletableFuture<List<Node>> fetchAsync(String blueId, int providerIndex) {
+        if (providerIndex >= nodeProviders.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return nodeProviders.get(providerIndex).fetchAsync(blueId)
+                .thenCompose(nodes -> nodes != null
+                        ? CompletableFuture.completedFuture(nodes)
+                        : fetchAsync(blueId, providerIndex + 1));
     }
 
     public List<NodeProvider> getNodeProviders() {
         return nodeProviders;
     }
-}
\ No newline at end of file
+}
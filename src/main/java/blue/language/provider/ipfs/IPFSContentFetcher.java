@@ -1,41 +1,162 @@
 package blue.language.provider.ipfs;
 
+import blue.language.utils.cache.SingleFlight;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class IPFSContentFetcher {
+/**
+ * Fetches raw content from an IPFS HTTP gateway over a pooled, keep-alive client. Async and batched
+ * fetches run on a bounded pool sized like the connection pool, and concurrent fetches of the same
+ * CID share one request.
+ */
+public class IPFSContentFetcher implements Closeable {
 
-    private static final String BASE_URL = "https://ipfs.io/ipfs/";
-    private static final int TIMEOUT_IN_SECONDS = 2;
+    public static final String DEFAULT_GATEWAY_URL = "https://ipfs.io/ipfs/";
+    public static final int DEFAULT_TIMEOUT_MILLIS = 2000;
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+    private static final int RETRY_COUNT = 2;
 
-    public static String fetchContent(String cid) throws IOException {
-        int timeout = TIMEOUT_IN_SECONDS * 1000;
+    private final String gatewayUrl;
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService executor;
+    private final SingleFlight<String, byte[]> inFlight = new SingleFlight<>();
+
+    public IPFSContentFetcher() {
+        this(DEFAULT_GATEWAY_URL);
+    }
+
+    public IPFSContentFetcher(String gatewayUrl) {
+        this(gatewayUrl, DEFAULT_TIMEOUT_MILLIS, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public IPFSContentFetcher(String gatewayUrl, int timeoutMillis, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.gatewayUrl = gatewayUrl.endsWith("/") ? gatewayUrl : gatewayUrl + "/";
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConcurrency);
+        connectionManager.setDefaultMaxPerRoute(maxConcurrency);
         RequestConfig requestConfig = RequestConfig.custom()
-                .setConnectTimeout(timeout)
-                .setSocketTimeout(timeout)
-                .setConnectionRequestTimeout(timeout)
+                .setConnectTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .setConnectionRequestTimeout(timeoutMillis)
                 .build();
-
-        try (CloseableHttpClient httpClient = HttpClients.custom()
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
                 .setDefaultRequestConfig(requestConfig)
-                .build()) {
-
-            HttpGet request = new HttpGet(BASE_URL + cid);
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                if (response.getStatusLine().getStatusCode() == 200) {
-                    HttpEntity entity = response.getEntity();
-                    return entity != null ? EntityUtils.toString(entity) : null;
-                } else {
-                    throw new IOException("Unexpected response status: " + response.getStatusLine().getStatusCode());
+                .setRetryHandler(new DefaultHttpRequestRetryHandler(RETRY_COUNT, true))
+                .build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "ipfs-fetcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Process-wide fetcher for the default gateway, created on first use.
+     */
+    public static IPFSContentFetcher shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    public static String fetchContent(String cid) throws IOException {
+        byte[] content = shared().fetch(cid);
+        return content != null ? new String(content, StandardCharsets.UTF_8) : null;
+    }
+
+    public String getGatewayUrl() {
+        return gatewayUrl;
+    }
+
+    public byte[] fetch(String cid) throws IOException {
+        try {
+            return inFlight.execute(cid, () -> {
+                try {
+                    return request(cid);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public CompletableFuture<byte[]> fetchAsync(String cid) {
+        return inFlight.executeAsync(cid, () -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return request(cid);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        }, executor));
+    }
+
+    /**
+     * Fetches every CID concurrently, at most as many at a time as the connection pool allows.
+     * CIDs that could not be fetched map to {@code null}.
+     */
+    public Map<String, byte[]> fetchAll(Collection<String> cids) {
+        Map<String, CompletableFuture<byte[]>> futures = new LinkedHashMap<>();
+        for (String cid : cids) {
+            futures.computeIfAbsent(cid, this::fetchAsync);
         }
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        futures.forEach((cid, future) -> {
+            try {
+                result.put(cid, future.join());
+            } catch (CompletionException e) {
+                result.put(cid, null);
+            }
+        });
+        return result;
+    }
+
+    private byte[] request(String cid) throws IOException {
+        HttpGet request = new HttpGet(gatewayUrl + cid);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            if (response.getStatusLine().getStatusCode() == 200) {
+                HttpEntity entity = response.getEntity();
+                return entity != null ? EntityUtils.toByteArray(entity) : null;
+            } else {
+                EntityUtils.consumeQuietly(response.getEntity());
+                throw new IOException("Unexpected response status: " + response.getStatusLine().getStatusCode());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        httpClient.close();
+    }
+
+    private static final class SharedHolder {
+        private static final IPFSContentFetcher INSTANCE = new IPFSContentFetcher();
     }
-}
\ No newline at end of file
+}
@@ -1,20 +1,191 @@
 package blue.language.provider.ipfs;
 
+import blue.language.model.Node;
 import blue.language.provider.AbstractNodeProvider;
+import blue.language.utils.Base58;
 import blue.language.utils.UncheckedObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
+import org.erdtman.jcs.JsonCanonicalizer;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Resolves BlueIds through an IPFS gateway. Fetched bytes are accepted only when their SHA-256,
+ * taken as is or after JSON canonicalization, is the BlueId; when a cache directory is given,
+ * verified content is kept there so each BlueId crosses the network once.
+ */
 public class IPFSNodeProvider extends AbstractNodeProvider {
+
+    private final IPFSContentFetcher fetcher;
+    private final Path cacheDirectory;
+
+    public IPFSNodeProvider() {
+        this(IPFSContentFetcher.shared());
+    }
+
+    public IPFSNodeProvider(IPFSContentFetcher fetcher) {
+        this(fetcher, null);
+    }
+
+    public IPFSNodeProvider(IPFSContentFetcher fetcher, Path cacheDirectory) {
+        this.fetcher = fetcher;
+        this.cacheDirectory = cacheDirectory;
+        if (cacheDirectory != null) {
+            try {
+                Files.createDirectories(cacheDirectory);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot create IPFS cache directory: " + cacheDirectory, e);
+            }
+        }
+    }
+
     @Override
     protected JsonNode fetchContentByBlueId(String baseBlueId) {
-        String cid = BlueIdToCid.convert(baseBlueId);
+        byte[] content = readCached(baseBlueId);
+        if (content == null) {
+            try {
+                content = accept(baseBlueId, fetcher.fetch(BlueIdToCid.convert(baseBlueId)));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return parse(content);
+    }
+
+    @Override
+    public Map<String, List<Node>> fetchByBlueIds(Collection<String> blueIds) {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        Map<String, String> cidsToFetch = new LinkedHashMap<>();
+        for (String baseBlueId : baseBlueIds(blueIds)) {
+            byte[] cached = readCached(baseBlueId);
+            if (cached != null) {
+                contents.put(baseBlueId, cached);
+            } else {
+                cidsToFetch.put(BlueIdToCid.convert(baseBlueId), baseBlueId);
+            }
+        }
+        fetcher.fetchAll(cidsToFetch.keySet()).forEach((cid, content) -> {
+            String baseBlueId = cidsToFetch.get(cid);
+            contents.put(baseBlueId, accept(baseBlueId, content));
+        });
+
+        Map<String, List<Node>> result = new LinkedHashMap<>();
+        for (String blueId : blueIds) {
+            if (!result.containsKey(blueId)) {
+                result.put(blueId, nodesFromContent(blueId, parse(contents.get(baseBlueId(blueId)))));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<List<Node>> fetchAsync(String blueId) {
+        String baseBlueId = baseBlueId(blueId);
+        byte[] cached = readCached(baseBlueId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(nodesFromContent(blueId, parse(cached)));
+        }
+        return fetcher.fetchAsync(BlueIdToCid.convert(baseBlueId))
+                .handle((content, error) -> error != null ? null : accept(baseBlueId, content))
+                .thenApply(content -> nodesFromContent(blueId, parse(content)));
+    }
+
+    private byte[] accept(String baseBlueId, byte[] content) {
+        if (content == null || !matchesBlueId(baseBlueId, content)) {
+            return null;
+        }
+        writeCached(baseBlueId, content);
+        return content;
+    }
+
+    static boolean matchesBlueId(String baseBlueId, byte[] content) {
+        byte[] expected = Base58.decode(baseBlueId);
+        if (MessageDigest.isEqual(expected, sha256(content))) {
+            return true;
+        }
+        try {
+            String canonical = new JsonCanonicalizer(new String(content, StandardCharsets.UTF_8)).getEncodedString();
+            return MessageDigest.isEqual(expected, sha256(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private byte[] readCached(String baseBlueId) {
+        if (cacheDirectory == null) {
+            return null;
+        }
+        Path file = cacheDirectory.resolve(baseBlueId);
+        try {
+            byte[] content = Files.readAllBytes(file);
+            if (matchesBlueId(baseBlueId, content)) {
+                return content;
+            }
+            Files.deleteIfExists(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // unreadable entries are fetched again
+        }
+        return null;
+    }
+
+    private void writeCached(String baseBlueId, byte[] content) {
+        if (cacheDirectory == null) {
+            return;
+        }
+        try {
+            Path temp = Files.createTempFile(cacheDirectory, baseBlueId, ".tmp");
+            Files.write(temp, content);
+            Files.move(temp, cacheDirectory.resolve(baseBlueId), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the cache is an optimization; a failed write only costs a later refetch
+        }
+    }
+
+    private static JsonNode parse(byte[] content) {
+        if (content == null) {
+            return null;
+        }
         try {
-            String content = IPFSContentFetcher.fetchContent(cid);
             return UncheckedObjectMapper.JSON_MAPPER.readTree(content);
         } catch (IOException e) {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    private static Set<String> baseBlueIds(Collection<String> blueIds) {
+        Set<String> baseBlueIds = new LinkedHashSet<>();
+        for (String blueId : blueIds) {
+            baseBlueIds.add(baseBlueId(blueId));
+        }
+        return baseBlueIds;
+    }
+
+    private static String baseBlueId(String blueId) {
+        return blueId.split("#")[0];
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("Error calculating SHA-256 hash", e);
+        }
+    }
+}
@@ -5,7 +5,6 @@ import blue.language.processor.model.JsonPatch;
 import blue.language.processor.util.PointerUtils;
 import blue.language.utils.JsonPointer;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -84,9 +83,7 @@ public final class CanonicalOverlayPatchEngine {
                 throw new IllegalStateException("Array index out of bounds: " + path);
             }
             FrozenNode nextChild = write(child, tail, value, path, mode);
-            List<FrozenNode> nextItems = new ArrayList<>(node.getItems());
-            nextItems.set(index, nextChild);
-            return node.withItems(nextItems);
+            return node.withItem(index, nextChild);
         }
 
         if (node.getValue() != null) {
@@ -110,35 +107,31 @@ public final class CanonicalOverlayPatchEngine {
                                  String path,
                                  WriteMode mode) {
         if (node.hasItems()) {
-            List<FrozenNode> nextItems = new ArrayList<>(node.getItems());
+            int size = node.getItems().size();
             if ("-".equals(leaf)) {
                 if (mode == WriteMode.REMOVE || mode == WriteMode.REPLACE) {
                     throw new IllegalStateException("Only add supports append token '-' at path: " + path);
                 }
-                nextItems.add(value);
-                return node.withItems(nextItems);
+                return node.withItemInserted(size, value);
             }
 
             int index = parseArrayIndex(leaf, path);
             switch (mode) {
                 case ADD:
-                    if (index < 0 || index > nextItems.size()) {
+                    if (index < 0 || index > size) {
                         throw new IllegalStateException("Array index out of bounds for add: " + path);
                     }
-                    nextItems.add(index, value);
-                    return node.withItems(nextItems);
+                    return node.withItemInserted(index, value);
                 case REPLACE:
-                    if (index < 0 || index >= nextItems.size()) {
+                    if (index < 0 || index >= size) {
                         throw new IllegalStateException("Array index out of bounds for replace: " + path);
                     }
-                    nextItems.set(index, value);
-                    return node.withItems(nextItems);
+                    return node.withItem(index, value);
                 case REMOVE:
-                    if (index < 0 || index >= nextItems.size()) {
+                    if (index < 0 || index >= size) {
                         throw new IllegalStateException("Array index out of bounds for remove: " + path);
                     }
-                    nextItems.remove(index);
-                    return node.withItems(nextItems);
+                    return node.withoutItem(index);
                 default:
                     throw new UnsupportedOperationException("Unsupported patch mode: " + mode);
             }
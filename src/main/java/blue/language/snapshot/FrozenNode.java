@@ -2,10 +2,12 @@ package blue.language.snapshot;
 
 import blue.language.model.Node;
 import blue.language.model.Schema;
-import blue.language.utils.Base58Sha256Provider;
 import blue.language.utils.BlueNumbers;
 import blue.language.utils.BlueIdCalculator;
+import blue.language.utils.CanonicalSize;
+import blue.language.utils.CompactBlueId;
 import blue.language.utils.JsonPointer;
+import blue.language.utils.StreamingBase58Sha256Provider;
 import com.fasterxml.jackson.core.type.TypeReference;
 
 import java.math.BigInteger;
@@ -16,7 +18,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static blue.language.utils.Properties.*;
@@ -24,7 +25,8 @@ import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
 
 public final class FrozenNode {
 
-    private static final Function<Object, String> HASH = new Base58Sha256Provider();
+    private static final StreamingBase58Sha256Provider HASH = new StreamingBase58Sha256Provider();
+    private static final CompactBlueId EMPTY_LIST_BLUE_ID = HASH.applyCompact(Collections.singletonMap("$list", "empty"));
 
     private final String name;
     private final String description;
@@ -35,15 +37,19 @@ public final class FrozenNode {
     private final Object value;
     private final List<FrozenNode> items;
     private final Map<String, FrozenNode> properties;
-    private final String referenceBlueId;
+    private final CompactBlueId referenceBlueId;
     private final Schema schema;
     private final String mergePolicy;
-    private final String previousBlueId;
+    private final CompactBlueId previousBlueId;
     private final Integer position;
     private final FrozenNode blue;
     private final boolean inlineValue;
     private final boolean strictCanonical;
-    private final String blueId;
+    private final PersistentVector<CompactBlueId> listChain;
+    private final String schemaBlueId;
+    private volatile CompactBlueId blueId;
+    private volatile long nodeCount;
+    private volatile long canonicalSize;
 
     private FrozenNode(Builder builder) {
         this.name = builder.name;
@@ -64,7 +70,16 @@ public final class FrozenNode {
         this.inlineValue = builder.inlineValue;
         this.strictCanonical = builder.strictCanonical;
         validatePayloadShape();
-        this.blueId = computeBlueId();
+        this.listChain = items != null ? listChain(builder) : null;
+        this.schemaBlueId = schema == null
+                ? null
+                : builder.schemaBlueId != null
+                ? builder.schemaBlueId
+                : BlueIdCalculator.INSTANCE.calculate(schemaObject(schema));
+        if (strictCanonical) {
+            // canonical trees are content-addressed, and hashing them validates their list controls
+            this.blueId = computeBlueId();
+        }
     }
 
     public static FrozenNode empty() {
@@ -89,8 +104,9 @@ public final class FrozenNode {
 
     private static FrozenNode fromNode(Node node, boolean strictCanonical, ResolvedReferenceInterner interner) {
         Objects.requireNonNull(node, "node");
-        if (!strictCanonical && interner != null && node.getBlueId() != null) {
-            FrozenNode cached = interner.lookup(node.getBlueId());
+        CompactBlueId referenceBlueId = CompactBlueId.ofNullable(node.getBlueId());
+        if (!strictCanonical && interner != null && referenceBlueId != null) {
+            FrozenNode cached = interner.lookup(referenceBlueId);
             if (cached != null) {
                 return cached;
             }
@@ -107,17 +123,17 @@ public final class FrozenNode {
                         ? node.getItems().stream().map(item -> fromNode(item, strictCanonical, interner)).collect(Collectors.toList())
                         : null)
                 .properties(freezeProperties(node.getProperties(), strictCanonical, interner))
-                .referenceBlueId(node.getBlueId())
+                .referenceBlueId(referenceBlueId)
                 .schema(node.getSchema())
                 .mergePolicy(node.getMergePolicy())
-                .previousBlueId(node.getPreviousBlueId())
+                .previousBlueId(CompactBlueId.ofNullable(node.getPreviousBlueId()))
                 .position(node.getPosition())
                 .blue(node.getBlue() != null ? fromNode(node.getBlue(), strictCanonical, interner) : null)
                 .inlineValue(node.isInlineValue())
                 .strictCanonical(strictCanonical)
                 .build();
-        if (!strictCanonical && interner != null && node.getBlueId() != null && !node.isReferenceOnly()) {
-            return interner.intern(node.getBlueId(), frozen);
+        if (!strictCanonical && interner != null && referenceBlueId != null && !node.isReferenceOnly()) {
+            return interner.intern(referenceBlueId, frozen);
         }
         return frozen;
     }
@@ -131,6 +147,23 @@ public final class FrozenNode {
                 .collect(Collectors.toList()));
     }
 
+    /**
+     * Assembles a resolved container from children that are already resolved and frozen,
+     * equivalent to {@link #fromResolvedNode(Node)} of the same tree without copying the children.
+     */
+    public static FrozenNode fromResolvedChildren(String name,
+                                                  String description,
+                                                  List<FrozenNode> items,
+                                                  Map<String, FrozenNode> properties) {
+        return builder()
+                .name(name)
+                .description(description)
+                .items(items)
+                .properties(properties)
+                .strictCanonical(false)
+                .build();
+    }
+
     private static Map<String, FrozenNode> freezeProperties(Map<String, Node> source,
                                                             boolean strictCanonical,
                                                             ResolvedReferenceInterner interner) {
@@ -149,7 +182,7 @@ public final class FrozenNode {
     }
 
     public static String calculateBlueId(List<FrozenNode> nodes) {
-        return computeListHash(nodes == null ? Collections.emptyList() : nodes);
+        return computeListHash(nodes == null ? Collections.emptyList() : nodes).toString();
     }
 
     public Node toNode() {
@@ -161,10 +194,10 @@ public final class FrozenNode {
                 .keyType(keyType != null ? keyType.toNode() : null)
                 .valueType(valueType != null ? valueType.toNode() : null)
                 .value(value)
-                .blueId(referenceBlueId)
+                .blueId(getReferenceBlueId())
                 .schema(schema != null ? schema.clone() : null)
                 .mergePolicy(mergePolicy)
-                .previousBlueId(previousBlueId)
+                .previousBlueId(getPreviousBlueId())
                 .position(position)
                 .blue(blue != null ? blue.toNode() : null)
                 .inlineValue(inlineValue);
@@ -183,7 +216,61 @@ public final class FrozenNode {
     }
 
     public String blueId() {
-        return blueId;
+        return blueIdValue().toString();
+    }
+
+    /**
+     * The BlueId of this node in its compact form, for use as a cache key without Base58 encoding.
+     * Strict canonical nodes are hashed when built; resolved nodes, such as frozen events, are
+     * hashed on first use.
+     */
+    public CompactBlueId blueIdValue() {
+        CompactBlueId id = blueId;
+        if (id == null) {
+            id = computeBlueId();
+            blueId = id;
+        }
+        return id;
+    }
+
+    /**
+     * Number of nodes in this tree, counting this node and shared subtrees once per occurrence.
+     * Used as the cache weight of frozen trees; memoized on first use.
+     */
+    public long nodeCount() {
+        long count = nodeCount;
+        if (count == 0) {
+            count = 1 + nodeCount(type) + nodeCount(itemType) + nodeCount(keyType) + nodeCount(valueType) + nodeCount(blue);
+            if (items != null) {
+                for (FrozenNode item : items) {
+                    count += item.nodeCount();
+                }
+            }
+            if (properties != null) {
+                for (FrozenNode child : properties.values()) {
+                    count += child.nodeCount();
+                }
+            }
+            nodeCount = count;
+        }
+        return count;
+    }
+
+    /**
+     * UTF-8 byte length of this node's canonical official JSON, as used for gas accounting.
+     * Memoized on first use; children contribute their own memoized sizes.
+     */
+    public long canonicalSize() {
+        long size = canonicalSize;
+        if (size == 0) {
+            size = CanonicalSize.of(this);
+            canonicalSize = size;
+        }
+        return size;
+    }
+
+    private static long nodeCount(FrozenNode node) {
+        return node != null ? node.nodeCount() : 0;
     }
 
     public String getName() {
@@ -215,6 +302,10 @@ public final class FrozenNode {
     }
 
     public String getReferenceBlueId() {
+        return referenceBlueId != null ? referenceBlueId.toString() : null;
+    }
+
+    public CompactBlueId referenceBlueIdValue() {
         return referenceBlueId;
     }
 
@@ -231,7 +322,7 @@ public final class FrozenNode {
     }
 
     public String getPreviousBlueId() {
-        return previousBlueId;
+        return previousBlueId != null ? previousBlueId.toString() : null;
     }
 
     public Integer getPosition() {
@@ -353,21 +444,35 @@ public final class FrozenNode {
     }
 
     public FrozenNode withProperty(String key, FrozenNode child) {
-        Map<String, FrozenNode> next = properties != null
-                ? new LinkedHashMap<>(properties)
-                : new LinkedHashMap<>();
-        if (child == null || (strictCanonical && child.isEmptyNode())) {
-            next.remove(key);
-        } else {
-            next.put(key, child);
-        }
-        return toBuilder().properties(next.isEmpty() ? null : next).build();
+        PersistentOrderedMap<FrozenNode> current = properties != null
+                ? PersistentOrderedMap.of(properties)
+                : PersistentOrderedMap.empty();
+        PersistentOrderedMap<FrozenNode> next = child == null || (strictCanonical && child.isEmptyNode())
+                ? current.remove(key)
+                : current.put(key, child);
+        return toBuilder().properties(next.isEmpty() ? null : next.asMap()).build();
     }
 
     public FrozenNode withItems(List<FrozenNode> nextItems) {
         return toBuilder().items(nextItems).build();
     }
 
+    public FrozenNode withItem(int index, FrozenNode item) {
+        return toBuilder().patchedItems(itemVector().set(index, item).asList(), index).build();
+    }
+
+    public FrozenNode withItemInserted(int index, FrozenNode item) {
+        return toBuilder().patchedItems(itemVector().insert(index, item).asList(), index).build();
+    }
+
+    public FrozenNode withoutItem(int index) {
+        return toBuilder().patchedItems(itemVector().remove(index).asList(), index).build();
+    }
+
+    private PersistentVector<FrozenNode> itemVector() {
+        return items != null ? PersistentVector.of(items) : PersistentVector.empty();
+    }
+
     public FrozenNode withoutPosition() {
         if (position == null) {
             return this;
@@ -435,29 +540,31 @@ public final class FrozenNode {
                 .keyType(keyType)
                 .valueType(valueType)
                 .value(value)
-                .items(items)
+                .items(items, items != null ? items.size() : 0)
                 .properties(properties)
                 .referenceBlueId(referenceBlueId)
                 .schema(schema)
+                .schemaBlueId(schemaBlueId)
                 .mergePolicy(mergePolicy)
                 .previousBlueId(previousBlueId)
                 .position(position)
                 .blue(blue)
                 .inlineValue(inlineValue)
-                .strictCanonical(strictCanonical);
+                .strictCanonical(strictCanonical)
+                .base(this);
     }
 
-    private String computeBlueId() {
+    private CompactBlueId computeBlueId() {
         if (isReferenceOnly()) {
             return referenceBlueId;
         }
         if (isPreviousOnly()) {
-            Map<String, Object> previous = new TreeMap<>(String::compareTo);
+            Map<String, Object> previous = new TreeMap<>();
             previous.put(LIST_CONTROL_PREVIOUS, reference(previousBlueId));
-            return HASH.apply(previous);
+            return HASH.applyCompact(previous);
         }
 
-        Map<String, Object> hashes = new TreeMap<>(String::compareTo);
+        Map<String, Object> hashes = new TreeMap<>();
         putRaw(hashes, OBJECT_NAME, name);
         putRaw(hashes, OBJECT_DESCRIPTION, description);
 
@@ -469,8 +576,8 @@ public final class FrozenNode {
                 putBlueId(hashes, OBJECT_TYPE, inferredTypeBlueId);
             }
         } else if (type != null) {
-            valueTypeBlueId = type.referenceBlueId;
-            putBlueId(hashes, OBJECT_TYPE, type.blueId());
+            valueTypeBlueId = value != null ? type.getReferenceBlueId() : null;
+            putBlueId(hashes, OBJECT_TYPE, type.blueIdValue());
         }
 
         putBlueId(hashes, OBJECT_ITEM_TYPE, itemType);
@@ -480,24 +587,82 @@ public final class FrozenNode {
         putHashedScalar(hashes, LIST_CONTROL_POS, position != null ? BigInteger.valueOf(position) : null);
         putRaw(hashes, OBJECT_VALUE, handleValue(value, valueTypeBlueId));
         if (items != null) {
-            putBlueId(hashes, OBJECT_ITEMS, computeListHash(items));
-        }
-        if (schema != null) {
-            putBlueId(hashes, OBJECT_SCHEMA, BlueIdCalculator.INSTANCE.calculate(schemaObject(schema)));
+            putBlueId(hashes, OBJECT_ITEMS, listChain != null ? listHash(listChain) : computeListHash(items));
         }
+        putBlueId(hashes, OBJECT_SCHEMA, schemaBlueId);
         putBlueId(hashes, OBJECT_BLUE, blue);
         if (properties != null) {
             properties.forEach((key, child) -> putBlueId(hashes, key, child));
         }
-        return HASH.apply(hashes);
+        return HASH.applyCompact(hashes);
     }
 
-    private static String computeListHash(List<FrozenNode> list) {
+    /**
+     * Only lists produced by an item patch keep a hash chain, so later patches of the same list
+     * rehash just the changed suffix; lists that are never patched do not pay for one. A copy
+     * that leaves the items alone keeps the chain of the node it was derived from.
+     */
+    private PersistentVector<CompactBlueId> listChain(Builder builder) {
+        if (builder.listPatch) {
+            return computeListChain(builder.base, builder.unchangedItems);
+        }
+        FrozenNode base = builder.base;
+        if (base != null && base.listChain != null && builder.unchangedItems == items.size()
+                && base.items.size() == items.size()) {
+            return base.listChain;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the {@code $listCons} accumulator after each item, reusing the accumulators of
+     * {@code base} for the first {@code unchanged} items so that an edited list only rehashes the
+     * suffix starting at the first changed index. Returns {@code null} for lists that use
+     * {@code $pos}, which are normalized and hashed as a whole.
+     */
+    private PersistentVector<CompactBlueId> computeListChain(FrozenNode base, int unchanged) {
+        PersistentVector<CompactBlueId> chain = PersistentVector.empty();
+        int start = 0;
+        if (base != null && base.listChain != null) {
+            chain = base.listChain;
+            start = Math.min(unchanged, Math.min(chain.size(), items.size()));
+        }
+        for (int i = start; i < items.size(); i++) {
+            FrozenNode item = items.get(i);
+            if (item.position != null) {
+                return null;
+            }
+            CompactBlueId accumulator;
+            if (item.isPreviousOnly()) {
+                if (i != 0) {
+                    throw new IllegalArgumentException("\"$previous\" must appear only as the first list item.");
+                }
+                accumulator = item.previousBlueId;
+            } else {
+                accumulator = cons(item, i == 0 ? EMPTY_LIST_BLUE_ID : chain.get(i - 1));
+            }
+            chain = i < chain.size() ? chain.set(i, accumulator) : chain.append(accumulator);
+        }
+        return chain.size() > items.size() ? chain.take(items.size()) : chain;
+    }
+
+    private static CompactBlueId listHash(PersistentVector<CompactBlueId> chain) {
+        return chain.size() == 0 ? EMPTY_LIST_BLUE_ID : chain.get(chain.size() - 1);
+    }
+
+    private static CompactBlueId cons(FrozenNode element, CompactBlueId accumulator) {
+        Map<String, Object> cons = new TreeMap<>();
+        cons.put("elem", reference(element.blueIdValue()));
+        cons.put("prev", reference(accumulator));
+        return HASH.applyCompact(Collections.singletonMap("$listCons", cons));
+    }
+
+    private static CompactBlueId computeListHash(List<FrozenNode> list) {
         if (list == null) {
-            return HASH.apply(Collections.singletonMap("$list", "empty"));
+            return EMPTY_LIST_BLUE_ID;
         }
 
-        String accumulator = HASH.apply(Collections.singletonMap("$list", "empty"));
+        CompactBlueId accumulator = EMPTY_LIST_BLUE_ID;
         int start = 0;
         if (!list.isEmpty() && list.get(0).isPreviousOnly()) {
             accumulator = list.get(0).previousBlueId;
@@ -506,10 +671,7 @@ public final class FrozenNode {
 
         List<FrozenNode> normalized = normalizeListControls(list, start);
         for (FrozenNode element : normalized) {
-            Map<String, Object> cons = new TreeMap<>(String::compareTo);
-            cons.put("elem", reference(element.blueId()));
-            cons.put("prev", reference(accumulator));
-            accumulator = HASH.apply(Collections.singletonMap("$listCons", cons));
+            accumulator = cons(element, accumulator);
         }
         return accumulator;
     }
@@ -548,11 +710,11 @@ public final class FrozenNode {
 
     private static void putBlueId(Map<String, Object> target, String key, FrozenNode node) {
         if (node != null) {
-            putBlueId(target, key, node.blueId());
+            putBlueId(target, key, node.blueIdValue());
         }
     }
 
-    private static void putBlueId(Map<String, Object> target, String key, String blueId) {
+    private static void putBlueId(Map<String, Object> target, String key, Object blueId) {
         if (blueId != null) {
             target.put(key, reference(blueId));
         }
@@ -560,11 +722,11 @@ public final class FrozenNode {
 
     private static void putHashedScalar(Map<String, Object> target, String key, Object value) {
         if (value != null) {
-            putBlueId(target, key, HASH.apply(value));
+            putBlueId(target, key, HASH.applyCompact(value));
         }
     }
 
-    private static Map<String, Object> reference(String blueId) {
+    private static Map<String, Object> reference(Object blueId) {
         return Collections.singletonMap(OBJECT_BLUE_ID, blueId);
     }
 
@@ -607,14 +769,14 @@ public final class FrozenNode {
         if (source == null) {
             return null;
         }
-        return Collections.unmodifiableList(new ArrayList<>(source));
+        return PersistentVector.of(source).asList();
     }
 
     private static Map<String, FrozenNode> freezeMap(Map<String, FrozenNode> source) {
         if (source == null || source.isEmpty()) {
             return null;
         }
-        return Collections.unmodifiableMap(new LinkedHashMap<>(source));
+        return PersistentOrderedMap.of(source).asMap();
     }
 
     private static Builder builder() {
@@ -631,14 +793,18 @@ public final class FrozenNode {
         private Object nodeValue;
         private List<FrozenNode> items;
         private Map<String, FrozenNode> properties;
-        private String referenceBlueId;
+        private CompactBlueId referenceBlueId;
         private Schema schema;
         private String mergePolicy;
-        private String previousBlueId;
+        private CompactBlueId previousBlueId;
         private Integer position;
         private FrozenNode blue;
         private boolean inlineValue;
         private boolean strictCanonical = true;
+        private String schemaBlueId;
+        private FrozenNode base;
+        private int unchangedItems;
+        private boolean listPatch;
 
         Builder name(String name) {
             this.name = name;
@@ -676,7 +842,23 @@ public final class FrozenNode {
         }
 
         Builder items(List<FrozenNode> items) {
+            return items(items, 0);
+        }
+
+        Builder items(List<FrozenNode> items, int unchangedItems) {
             this.items = items;
+            this.unchangedItems = unchangedItems;
+            this.listPatch = false;
+            return this;
+        }
+
+        /**
+         * Items of a list patch whose first {@code unchangedItems} match the base; the built node
+         * keeps a hash chain for later patches.
+         */
+        Builder patchedItems(List<FrozenNode> items, int unchangedItems) {
+            items(items, unchangedItems);
+            this.listPatch = true;
             return this;
         }
 
@@ -685,13 +867,14 @@ public final class FrozenNode {
             return this;
         }
 
-        Builder referenceBlueId(String referenceBlueId) {
+        Builder referenceBlueId(CompactBlueId referenceBlueId) {
             this.referenceBlueId = referenceBlueId;
             return this;
         }
 
         Builder schema(Schema schema) {
             this.schema = schema != null ? schema.clone() : null;
+            this.schemaBlueId = null;
             return this;
         }
 
@@ -700,7 +883,7 @@ public final class FrozenNode {
             return this;
         }
 
-        Builder previousBlueId(String previousBlueId) {
+        Builder previousBlueId(CompactBlueId previousBlueId) {
             this.previousBlueId = previousBlueId;
             return this;
         }
@@ -725,14 +908,27 @@ public final class FrozenNode {
             return this;
         }
 
+        Builder schemaBlueId(String schemaBlueId) {
+            this.schemaBlueId = schemaBlueId;
+            return this;
+        }
+
+        /**
+         * Node this builder was derived from; its list hash chain is reused for unchanged items.
+         */
+        Builder base(FrozenNode base) {
+            this.base = base;
+            return this;
+        }
+
         FrozenNode build() {
             return new FrozenNode(this);
         }
     }
 
     public interface ResolvedReferenceInterner {
-        FrozenNode lookup(String blueId);
+        FrozenNode lookup(CompactBlueId blueId);
 
-        FrozenNode intern(String blueId, FrozenNode node);
+        FrozenNode intern(CompactBlueId blueId, FrozenNode node);
     }
 }
@@ -0,0 +1,135 @@
+package blue.language.snapshot;
+
+import blue.language.model.Node;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mutable {@link Node} over a {@link FrozenNode} that copies one level of the frozen tree only when
+ * that level is first read or written. Its children are views too, so touching a path materializes
+ * just the nodes along it, and cloning an untouched view does not copy anything.
+ *
+ * <p>The result is the same as {@link FrozenNode#toNode()}; only the timing of the copy differs.
+ * Views that are only read may be shared across threads like any other node: the first access
+ * copies the level under a lock and publishes it before other readers can see it.</p>
+ */
+public final class FrozenNodeView extends Node {
+
+    // cleared only after the level is copied, so a reader that sees null also sees the copy
+    private volatile FrozenNode source;
+    private boolean copying;
+
+    private FrozenNodeView(FrozenNode source) {
+        this.source = source;
+    }
+
+    public static Node of(FrozenNode node) {
+        return node != null ? new FrozenNodeView(node) : null;
+    }
+
+    /**
+     * Replaces the content of {@code target} with that of {@code source}, copying only the top
+     * level; the children of {@code target} become views over the children of {@code source}.
+     */
+    public static Node materializeInto(FrozenNode source, Node target) {
+        target.name(source.getName())
+                .description(source.getDescription())
+                .type(of(source.getType()))
+                .itemType(of(source.getItemType()))
+                .keyType(of(source.getKeyType()))
+                .valueType(of(source.getValueType()))
+                .value(source.getValue())
+                .blueId(source.getReferenceBlueId())
+                .schema(source.getSchema())
+                .mergePolicy(source.getMergePolicy())
+                .previousBlueId(source.getPreviousBlueId())
+                .position(source.getPosition())
+                .blue(of(source.getBlue()))
+                .inlineValue(source.isInlineValue());
+        List<Node> items = null;
+        if (source.getItems() != null) {
+            items = new ArrayList<>(source.getItems().size());
+            for (FrozenNode item : source.getItems()) {
+                items.add(of(item));
+            }
+        }
+        target.items(items);
+        // Node copies the map it is given, so hand it views directly instead of building one first
+        target.properties(source.getProperties() != null ? new ViewMap(source.getProperties()) : null);
+        return target;
+    }
+
+    /**
+     * Whether this view has not been read or written yet.
+     */
+    public boolean isPristine() {
+        return source != null;
+    }
+
+    @Override
+    protected void materialize() {
+        if (source == null) {
+            return;
+        }
+        synchronized (this) {
+            FrozenNode frozen = source;
+            // the setters used while copying call back in here on the same thread
+            if (frozen == null || copying) {
+                return;
+            }
+            copying = true;
+            materializeInto(frozen, this);
+            source = null;
+        }
+    }
+
+    @Override
+    public Node clone() {
+        FrozenNode frozen = source;
+        return frozen != null ? new FrozenNodeView(frozen) : super.clone();
+    }
+
+    /**
+     * Read-once map that wraps each frozen property in a view as it is iterated.
+     */
+    private static final class ViewMap extends AbstractMap<String, Node> {
+        private final Map<String, FrozenNode> source;
+
+        private ViewMap(Map<String, FrozenNode> source) {
+            this.source = source;
+        }
+
+        @Override
+        public Set<Entry<String, Node>> entrySet() {
+            return new AbstractSet<Entry<String, Node>>() {
+                @Override
+                public Iterator<Entry<String, Node>> iterator() {
+                    Iterator<Entry<String, FrozenNode>> entries = source.entrySet().iterator();
+                    return new Iterator<Entry<String, Node>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Node> next() {
+                            Entry<String, FrozenNode> entry = entries.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), of(entry.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return source.size();
+                }
+            };
+        }
+    }
+}
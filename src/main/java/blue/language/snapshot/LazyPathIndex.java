@@ -0,0 +1,79 @@
+package blue.language.snapshot;
+
+import blue.language.utils.JsonPointer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * On-demand replacement for {@link FrozenNode#pathIndex()}.
+ *
+ * <p>Pointers are answered by walking segments from the root and only pointers that were actually
+ * looked up are remembered. Lookups agree with the eager index: list items are addressed by their
+ * canonical decimal index only.</p>
+ */
+final class LazyPathIndex {
+
+    private final FrozenNode root;
+    private final ConcurrentMap<String, FrozenNode> accessed = new ConcurrentHashMap<>();
+    private volatile Map<String, FrozenNode> fullIndex;
+
+    LazyPathIndex(FrozenNode root) {
+        this.root = root;
+    }
+
+    FrozenNode get(String pointer) {
+        String key = pointer != null ? pointer : "";
+        FrozenNode cached = accessed.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        FrozenNode node = walk(JsonPointer.split(pointer));
+        if (node != null) {
+            accessed.putIfAbsent(key, node);
+        }
+        return node;
+    }
+
+    Map<String, FrozenNode> asMap() {
+        Map<String, FrozenNode> index = fullIndex;
+        if (index == null) {
+            index = root.pathIndex();
+            fullIndex = index;
+        }
+        return index;
+    }
+
+    private FrozenNode walk(List<String> segments) {
+        FrozenNode current = root;
+        for (String segment : segments) {
+            if (current.hasItems()) {
+                current = current.item(canonicalIndex(segment));
+            } else {
+                current = current.property(segment);
+            }
+            if (current == null) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private static int canonicalIndex(String segment) {
+        int length = segment.length();
+        if (length == 0 || length > 10 || (length > 1 && segment.charAt(0) == '0')) {
+            return -1;
+        }
+        long index = 0;
+        for (int i = 0; i < length; i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index <= Integer.MAX_VALUE ? (int) index : -1;
+    }
+}
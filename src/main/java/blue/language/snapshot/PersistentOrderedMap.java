@@ -0,0 +1,390 @@
+package blue.language.snapshot;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable insertion-ordered map used for {@link FrozenNode} properties.
+ *
+ * <p>Entries live in a {@link PersistentVector} in insertion order; removed keys leave a tombstone
+ * that is compacted once tombstones outnumber live entries. Maps larger than a handful of entries
+ * also keep a hash array mapped trie from key to slot, so {@link #get}, {@link #put} and
+ * {@link #remove} cost O(log n) while sharing untouched structure with the previous version.</p>
+ */
+final class PersistentOrderedMap<V> {
+
+    private static final int LINEAR_LIMIT = 8;
+    private static final PersistentOrderedMap<?> EMPTY =
+            new PersistentOrderedMap<>(PersistentVector.empty(), null, 0);
+
+    private final PersistentVector<Map.Entry<String, V>> slots;
+    private final Node index;
+    private final int size;
+
+    private PersistentOrderedMap(PersistentVector<Map.Entry<String, V>> slots, Node index, int size) {
+        this.slots = slots;
+        this.index = index;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentOrderedMap<V> empty() {
+        return (PersistentOrderedMap<V>) EMPTY;
+    }
+
+    static <V> PersistentOrderedMap<V> of(Map<String, ? extends V> source) {
+        if (source instanceof MapView) {
+            @SuppressWarnings("unchecked")
+            PersistentOrderedMap<V> shared = ((MapView<V>) source).map;
+            return shared;
+        }
+        PersistentOrderedMap<V> result = empty();
+        for (Map.Entry<String, ? extends V> entry : source.entrySet()) {
+            result = result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    V get(String key) {
+        int slot = slotOf(key);
+        return slot >= 0 ? slots.get(slot).getValue() : null;
+    }
+
+    boolean containsKey(String key) {
+        return slotOf(key) >= 0;
+    }
+
+    PersistentOrderedMap<V> put(String key, V value) {
+        Map.Entry<String, V> entry = new AbstractMap.SimpleImmutableEntry<>(key, value);
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            return new PersistentOrderedMap<>(slots.set(slot, entry), index, size);
+        }
+        int appended = slots.size();
+        PersistentVector<Map.Entry<String, V>> nextSlots = slots.append(entry);
+        Node nextIndex = index;
+        if (nextIndex != null) {
+            nextIndex = nextIndex.put(0, hash(key), key, appended);
+        } else if (size + 1 > LINEAR_LIMIT) {
+            nextIndex = buildIndex(nextSlots);
+        }
+        return new PersistentOrderedMap<>(nextSlots, nextIndex, size + 1);
+    }
+
+    PersistentOrderedMap<V> remove(String key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return this;
+        }
+        if (size == 1) {
+            return empty();
+        }
+        PersistentVector<Map.Entry<String, V>> nextSlots = slots.set(slot, null);
+        if (nextSlots.size() > 2 * (size - 1) + LINEAR_LIMIT) {
+            return compact(nextSlots);
+        }
+        Node nextIndex = index != null ? index.remove(0, hash(key), key) : null;
+        return new PersistentOrderedMap<>(nextSlots, nextIndex, size - 1);
+    }
+
+    Map<String, V> asMap() {
+        return new MapView<>(this);
+    }
+
+    private int slotOf(String key) {
+        if (key == null || size == 0) {
+            return -1;
+        }
+        if (index != null) {
+            Integer slot = index.find(0, hash(key), key);
+            return slot != null ? slot : -1;
+        }
+        for (int i = 0; i < slots.size(); i++) {
+            Map.Entry<String, V> entry = slots.get(i);
+            if (entry != null && entry.getKey().equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <V> PersistentOrderedMap<V> compact(PersistentVector<Map.Entry<String, V>> withTombstones) {
+        PersistentVector<Map.Entry<String, V>> compacted = PersistentVector.empty();
+        for (Map.Entry<String, V> entry : withTombstones) {
+            if (entry != null) {
+                compacted = compacted.append(entry);
+            }
+        }
+        Node nextIndex = compacted.size() > LINEAR_LIMIT ? buildIndex(compacted) : null;
+        return new PersistentOrderedMap<>(compacted, nextIndex, compacted.size());
+    }
+
+    private static <V> Node buildIndex(PersistentVector<Map.Entry<String, V>> slots) {
+        Node result = BitmapNode.EMPTY;
+        for (int i = 0; i < slots.size(); i++) {
+            Map.Entry<String, V> entry = slots.get(i);
+            if (entry != null) {
+                result = result.put(0, hash(entry.getKey()), entry.getKey(), i);
+            }
+        }
+        return result;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    /**
+     * Hash array mapped trie node mapping keys to slot numbers. A {@code null} result from
+     * {@link #remove} means the node became empty.
+     */
+    private abstract static class Node {
+        abstract Integer find(int shift, int hash, String key);
+
+        abstract Node put(int shift, int hash, String key, int slot);
+
+        abstract Node remove(int shift, int hash, String key);
+    }
+
+    /**
+     * Pairs are stored flat as {@code [key, slot]}; a {@code null} key means the value is a child node.
+     */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        Integer find(int shift, int hash, String key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int idx = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object keyOrNull = array[idx];
+            if (keyOrNull == null) {
+                return ((Node) array[idx + 1]).find(shift + 5, hash, key);
+            }
+            return key.equals(keyOrNull) ? (Integer) array[idx + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, String key, int slot) {
+            int bit = bit(hash, shift);
+            int idx = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] next = new Object[array.length + 2];
+                System.arraycopy(array, 0, next, 0, idx);
+                next[idx] = key;
+                next[idx + 1] = slot;
+                System.arraycopy(array, idx, next, idx + 2, array.length - idx);
+                return new BitmapNode(bitmap | bit, next);
+            }
+            Object keyOrNull = array[idx];
+            Object valueOrNode = array[idx + 1];
+            Object[] next = array.clone();
+            if (keyOrNull == null) {
+                next[idx + 1] = ((Node) valueOrNode).put(shift + 5, hash, key, slot);
+            } else if (key.equals(keyOrNull)) {
+                next[idx + 1] = slot;
+            } else {
+                String existing = (String) keyOrNull;
+                next[idx] = null;
+                next[idx + 1] = merge(shift + 5, existing, (Integer) valueOrNode, hash, key, slot);
+            }
+            return new BitmapNode(bitmap, next);
+        }
+
+        @Override
+        Node remove(int shift, int hash, String key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int idx = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object keyOrNull = array[idx];
+            if (keyOrNull == null) {
+                Node child = (Node) array[idx + 1];
+                Node nextChild = child.remove(shift + 5, hash, key);
+                if (nextChild == child) {
+                    return this;
+                }
+                if (nextChild != null) {
+                    Object[] next = array.clone();
+                    next[idx + 1] = nextChild;
+                    return new BitmapNode(bitmap, next);
+                }
+            } else if (!key.equals(keyOrNull)) {
+                return this;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] next = new Object[array.length - 2];
+            System.arraycopy(array, 0, next, 0, idx);
+            System.arraycopy(array, idx + 2, next, idx, array.length - idx - 2);
+            return new BitmapNode(bitmap ^ bit, next);
+        }
+
+        private static Node merge(int shift, String existingKey, int existingSlot, int hash, String key, int slot) {
+            int existingHash = hash(existingKey);
+            if (existingHash == hash) {
+                return new CollisionNode(hash, new Object[]{existingKey, existingSlot, key, slot});
+            }
+            return EMPTY.put(shift, existingHash, existingKey, existingSlot).put(shift, hash, key, slot);
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        Integer find(int shift, int hash, String key) {
+            int idx = indexOf(key);
+            return idx >= 0 ? (Integer) array[idx + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, String key, int slot) {
+            if (hash != this.hash) {
+                return new BitmapNode(bit(this.hash, shift), new Object[]{null, this}).put(shift, hash, key, slot);
+            }
+            int idx = indexOf(key);
+            Object[] next;
+            if (idx >= 0) {
+                next = array.clone();
+                next[idx + 1] = slot;
+            } else {
+                next = new Object[array.length + 2];
+                System.arraycopy(array, 0, next, 0, array.length);
+                next[array.length] = key;
+                next[array.length + 1] = slot;
+            }
+            return new CollisionNode(hash, next);
+        }
+
+        @Override
+        Node remove(int shift, int hash, String key) {
+            int idx = indexOf(key);
+            if (idx < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] next = new Object[array.length - 2];
+            System.arraycopy(array, 0, next, 0, idx);
+            System.arraycopy(array, idx + 2, next, idx, array.length - idx - 2);
+            return new CollisionNode(hash, next);
+        }
+
+        private int indexOf(String key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    static final class MapView<V> extends AbstractMap<String, V> {
+        private final PersistentOrderedMap<V> map;
+
+        private MapView(PersistentOrderedMap<V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public V get(Object key) {
+            return key instanceof String ? map.get((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && map.containsKey((String) key);
+        }
+
+        @Override
+        public int size() {
+            return map.size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.size == 0;
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return new AbstractSet<Entry<String, V>>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    Iterator<Entry<String, V>> slots = map.slots.iterator();
+                    return new Iterator<Entry<String, V>>() {
+                        private Entry<String, V> next = advance();
+
+                        private Entry<String, V> advance() {
+                            while (slots.hasNext()) {
+                                Entry<String, V> entry = slots.next();
+                                if (entry != null) {
+                                    return entry;
+                                }
+                            }
+                            return null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != null;
+                        }
+
+                        @Override
+                        public Entry<String, V> next() {
+                            if (next == null) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, V> current = next;
+                            next = advance();
+                            return current;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return map.size;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package blue.language.snapshot;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Immutable bit-partitioned vector (32-way trie with a tail) used for {@link FrozenNode} items.
+ *
+ * <p>{@link #get}, {@link #set} and {@link #append} copy only the nodes on one root-to-leaf path, so
+ * updates cost O(log32 n) and share every untouched leaf with the previous version. Inserting or
+ * removing in the middle rebuilds the vector.</p>
+ */
+final class PersistentVector<E> implements Iterable<E> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    static <E> PersistentVector<E> of(Collection<? extends E> source) {
+        if (source instanceof ListView) {
+            @SuppressWarnings("unchecked")
+            PersistentVector<E> shared = ((ListView<E>) source).vector;
+            return shared;
+        }
+        return of(source.toArray());
+    }
+
+    private static <E> PersistentVector<E> of(Object[] values) {
+        int size = values.length;
+        if (size == 0) {
+            return empty();
+        }
+        int tailOffset = tailOffset(size);
+        Object[] tail = Arrays.copyOfRange(values, tailOffset, size);
+        if (tailOffset == 0) {
+            return new PersistentVector<>(size, BITS, EMPTY_NODE, tail);
+        }
+
+        Object[][] level = new Object[tailOffset / WIDTH][];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = Arrays.copyOfRange(values, i * WIDTH, (i + 1) * WIDTH);
+        }
+        int shift = BITS;
+        while (true) {
+            Object[][] parents = new Object[(level.length + MASK) / WIDTH][];
+            for (int i = 0; i < parents.length; i++) {
+                Object[] parent = new Object[WIDTH];
+                System.arraycopy(level, i * WIDTH, parent, 0, Math.min(WIDTH, level.length - i * WIDTH));
+                parents[i] = parent;
+            }
+            if (parents.length == 1) {
+                return new PersistentVector<>(size, shift, parents[0], tail);
+            }
+            level = parents;
+            shift += BITS;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    PersistentVector<E> set(int index, E value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (index >= tailOffset(size)) {
+            Object[] nextTail = tail.clone();
+            nextTail[index & MASK] = value;
+            return new PersistentVector<>(size, shift, root, nextTail);
+        }
+        return new PersistentVector<>(size, shift, set(shift, root, index, value), tail);
+    }
+
+    PersistentVector<E> append(E value) {
+        if (size - tailOffset(size) < WIDTH) {
+            Object[] nextTail = Arrays.copyOf(tail, tail.length + 1);
+            nextTail[tail.length] = value;
+            return new PersistentVector<>(size + 1, shift, root, nextTail);
+        }
+        Object[] nextRoot;
+        int nextShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            nextRoot = new Object[WIDTH];
+            nextRoot[0] = root;
+            nextRoot[1] = newPath(shift, tail);
+            nextShift += BITS;
+        } else {
+            nextRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, nextShift, nextRoot, new Object[]{value});
+    }
+
+    PersistentVector<E> insert(int index, E value) {
+        if (index == size) {
+            return append(value);
+        }
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Object[] values = new Object[size + 1];
+        copyInto(values, 0, index, 0);
+        values[index] = value;
+        copyInto(values, index, size, index + 1);
+        return of(values);
+    }
+
+    PersistentVector<E> remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Object[] values = new Object[size - 1];
+        copyInto(values, 0, index, 0);
+        copyInto(values, index + 1, size, index);
+        return of(values);
+    }
+
+    PersistentVector<E> take(int count) {
+        if (count == size) {
+            return this;
+        }
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException("Count: " + count + ", Size: " + size);
+        }
+        Object[] values = new Object[count];
+        copyInto(values, 0, count, 0);
+        return of(values);
+    }
+
+    List<E> asList() {
+        return new ListView<>(this);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int index;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                if ((index & MASK) == 0 || leaf == null) {
+                    leaf = leafFor(index);
+                }
+                return (E) leaf[index++ & MASK];
+            }
+        };
+    }
+
+    private void copyInto(Object[] target, int from, int to, int targetOffset) {
+        for (int i = from; i < to; i++) {
+            target[targetOffset + i - from] = get(i);
+        }
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset(size)) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private static Object[] set(int level, Object[] node, int index, Object value) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = set(level - BITS, (Object[]) node[child], index, value);
+        }
+        return copy;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int child = ((size - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        if (level == BITS) {
+            copy[child] = tailNode;
+        } else {
+            Object[] existing = (Object[]) parent[child];
+            copy[child] = existing != null
+                    ? pushTail(level - BITS, existing, tailNode)
+                    : newPath(level - BITS, tailNode);
+        }
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] path = new Object[WIDTH];
+        path[0] = newPath(level - BITS, node);
+        return path;
+    }
+
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    static final class ListView<E> extends AbstractList<E> implements RandomAccess {
+        private final PersistentVector<E> vector;
+
+        private ListView(PersistentVector<E> vector) {
+            this.vector = vector;
+        }
+
+        PersistentVector<E> vector() {
+            return vector;
+        }
+
+        @Override
+        public E get(int index) {
+            return vector.get(index);
+        }
+
+        @Override
+        public int size() {
+            return vector.size;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return vector.iterator();
+        }
+    }
+}
@@ -1,21 +1,41 @@
 package blue.language.snapshot;
 
 import blue.language.model.Node;
+import blue.language.utils.CompactBlueId;
+import blue.language.utils.cache.BoundedCache;
+import blue.language.utils.cache.CacheSettings;
+import blue.language.utils.cache.CacheStats;
 
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Resolved type references keyed by {@link CompactBlueId}, bounded by the total node count of cached trees.
+ */
 public final class ResolvedReferenceCache implements FrozenNode.ResolvedReferenceInterner {
 
-    private final ConcurrentMap<String, FrozenNode> resolvedReferencesByBlueId = new ConcurrentHashMap<>();
+    private volatile BoundedCache<CompactBlueId, FrozenNode> resolvedReferencesByBlueId;
+
+    public ResolvedReferenceCache() {
+        this(CacheSettings.defaults());
+    }
+
+    public ResolvedReferenceCache(CacheSettings settings) {
+        this.resolvedReferencesByBlueId = new BoundedCache<>(settings, FrozenNode::nodeCount);
+    }
+
+    /**
+     * Replaces the bound of this cache, dropping all cached references.
+     */
+    public void settings(CacheSettings settings) {
+        resolvedReferencesByBlueId = new BoundedCache<>(settings, FrozenNode::nodeCount);
+    }
 
     public Optional<FrozenNode> get(String blueId) {
-        return Optional.ofNullable(resolvedReferencesByBlueId.get(blueId));
+        return Optional.ofNullable(lookup(CompactBlueId.of(blueId)));
     }
 
     public Node mutableCopy(String blueId) {
-        FrozenNode node = resolvedReferencesByBlueId.get(blueId);
+        FrozenNode node = lookup(CompactBlueId.of(blueId));
         return node != null ? node.toNode() : null;
     }
 
@@ -24,16 +44,24 @@ public final class ResolvedReferenceCache implements FrozenNode.ResolvedReferenc
     }
 
     public FrozenNode putIfAbsent(String blueId, FrozenNode node) {
-        FrozenNode existing = resolvedReferencesByBlueId.putIfAbsent(blueId, node);
-        return existing != null ? existing : node;
+        return intern(CompactBlueId.of(blueId), node);
     }
 
+    /**
+     * Caches every resolved reference in {@code node}. A subtree that is itself the cached entry for
+     * its reference was indexed when it was added and is not walked again; once that entry is
+     * evicted, the next call indexes the subtree anew.
+     */
     public void indexResolved(FrozenNode node) {
         if (node == null) {
             return;
         }
-        if (node.getReferenceBlueId() != null && !node.isReferenceOnly()) {
-            putIfAbsent(node.getReferenceBlueId(), node);
+        CompactBlueId referenceBlueId = node.referenceBlueIdValue();
+        if (referenceBlueId != null && !node.isReferenceOnly()) {
+            if (resolvedReferencesByBlueId.peek(referenceBlueId) == node) {
+                return;
+            }
+            intern(referenceBlueId, node);
         }
         indexResolved(node.getType());
         indexResolved(node.getItemType());
@@ -52,17 +80,21 @@ public final class ResolvedReferenceCache implements FrozenNode.ResolvedReferenc
         return resolvedReferencesByBlueId.size();
     }
 
+    public CacheStats stats() {
+        return resolvedReferencesByBlueId.stats();
+    }
+
     public void clear() {
         resolvedReferencesByBlueId.clear();
     }
 
     @Override
-    public FrozenNode lookup(String blueId) {
+    public FrozenNode lookup(CompactBlueId blueId) {
         return resolvedReferencesByBlueId.get(blueId);
     }
 
     @Override
-    public FrozenNode intern(String blueId, FrozenNode node) {
-        return putIfAbsent(blueId, node);
+    public FrozenNode intern(CompactBlueId blueId, FrozenNode node) {
+        return resolvedReferencesByBlueId.putIfAbsent(blueId, node);
     }
 }
@@ -2,7 +2,7 @@ package blue.language.snapshot;
 
 import blue.language.model.Node;
 import blue.language.processor.model.JsonPatch;
-import blue.language.utils.JsonPointer;
+import blue.language.utils.CompactBlueId;
 
 import java.util.Map;
 import java.util.Objects;
@@ -11,8 +11,8 @@ public final class ResolvedSnapshot {
 
     private final FrozenNode canonicalRoot;
     private final FrozenNode resolvedRoot;
-    private final Map<String, FrozenNode> canonicalIndex;
-    private final Map<String, FrozenNode> resolvedIndex;
+    private final LazyPathIndex canonicalIndex;
+    private final LazyPathIndex resolvedIndex;
     private final String blueId;
 
     public ResolvedSnapshot(Node canonicalRoot, Node resolvedRoot, String blueId) {
@@ -29,8 +29,8 @@ public final class ResolvedSnapshot {
         if (!expectedBlueId.equals(Objects.requireNonNull(blueId, "blueId"))) {
             throw new IllegalArgumentException("Snapshot blueId must match canonical root blueId.");
         }
-        this.canonicalIndex = this.canonicalRoot.pathIndex();
-        this.resolvedIndex = this.resolvedRoot.pathIndex();
+        this.canonicalIndex = new LazyPathIndex(this.canonicalRoot);
+        this.resolvedIndex = new LazyPathIndex(this.resolvedRoot);
         this.blueId = expectedBlueId;
     }
 
@@ -51,11 +51,11 @@ public final class ResolvedSnapshot {
     }
 
     public FrozenNode canonicalAt(String pointer) {
-        return canonicalIndex.get(JsonPointer.canonicalize(pointer));
+        return canonicalIndex.get(pointer);
     }
 
     public FrozenNode resolvedAt(String pointer) {
-        return resolvedIndex.get(JsonPointer.canonicalize(pointer));
+        return resolvedIndex.get(pointer);
     }
 
     public Node canonicalNodeAt(String pointer) {
@@ -68,18 +68,28 @@ public final class ResolvedSnapshot {
         return node != null ? node.toNode() : null;
     }
 
+    /**
+     * Full pointer index of the canonical tree. Built on first call; prefer {@link #canonicalAt(String)}.
+     */
     public Map<String, FrozenNode> canonicalIndex() {
-        return canonicalIndex;
+        return canonicalIndex.asMap();
     }
 
+    /**
+     * Full pointer index of the resolved tree. Built on first call; prefer {@link #resolvedAt(String)}.
+     */
     public Map<String, FrozenNode> resolvedIndex() {
-        return resolvedIndex;
+        return resolvedIndex.asMap();
     }
 
     public String blueId() {
         return blueId;
     }
 
+    public CompactBlueId blueIdValue() {
+        return canonicalRoot.blueIdValue();
+    }
+
     public CanonicalOverlayPatchEngine canonicalPatchEngine() {
         return new CanonicalOverlayPatchEngine(canonicalRoot);
     }
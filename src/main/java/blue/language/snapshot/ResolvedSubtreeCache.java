@@ -0,0 +1,63 @@
+package blue.language.snapshot;
+
+import blue.language.utils.CompactBlueId;
+import blue.language.utils.cache.BoundedCache;
+import blue.language.utils.cache.CacheSettings;
+import blue.language.utils.cache.CacheStats;
+
+import java.util.Optional;
+
+/**
+ * Resolved form of canonical subtrees, keyed by the canonical subtree BlueId.
+ *
+ * <p>Unlike {@link ResolvedReferenceCache}, which maps referenced type BlueIds to their expanded
+ * content, entries here are the result of resolving a canonical subtree exactly as it appears in a
+ * document, so patched snapshots can reuse every subtree the patch did not touch.</p>
+ */
+public final class ResolvedSubtreeCache {
+
+    private volatile BoundedCache<CompactBlueId, FrozenNode> resolvedByCanonicalBlueId;
+
+    public ResolvedSubtreeCache() {
+        this(CacheSettings.defaults());
+    }
+
+    public ResolvedSubtreeCache(CacheSettings settings) {
+        this.resolvedByCanonicalBlueId = new BoundedCache<>(settings, FrozenNode::nodeCount);
+    }
+
+    /**
+     * Replaces the bound of this cache, dropping all cached subtrees.
+     */
+    public void settings(CacheSettings settings) {
+        resolvedByCanonicalBlueId = new BoundedCache<>(settings, FrozenNode::nodeCount);
+    }
+
+    public Optional<FrozenNode> get(String canonicalBlueId) {
+        return get(CompactBlueId.of(canonicalBlueId));
+    }
+
+    public Optional<FrozenNode> get(CompactBlueId canonicalBlueId) {
+        return Optional.ofNullable(resolvedByCanonicalBlueId.get(canonicalBlueId));
+    }
+
+    public FrozenNode putIfAbsent(String canonicalBlueId, FrozenNode resolved) {
+        return putIfAbsent(CompactBlueId.of(canonicalBlueId), resolved);
+    }
+
+    public FrozenNode putIfAbsent(CompactBlueId canonicalBlueId, FrozenNode resolved) {
+        return resolvedByCanonicalBlueId.putIfAbsent(canonicalBlueId, resolved);
+    }
+
+    public int size() {
+        return resolvedByCanonicalBlueId.size();
+    }
+
+    public CacheStats stats() {
+        return resolvedByCanonicalBlueId.stats();
+    }
+
+    public void clear() {
+        resolvedByCanonicalBlueId.clear();
+    }
+}
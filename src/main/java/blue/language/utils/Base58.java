@@ -1,50 +1,115 @@
 package blue.language.utils;
 
-import java.math.BigInteger;
+import java.util.Arrays;
 
+/**
+ * Bitcoin-alphabet Base58. Digits are converted five at a time through 32-bit limbs
+ * ({@code 58^5 < 2^30}), and characters are mapped through lookup tables in both directions.
+ */
 public class Base58 {
     private static final char[] ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
-    private static final BigInteger BASE_58 = BigInteger.valueOf(58);
+    private static final int[] INDEXES = new int[128];
+    private static final long BASE_58_POW_5 = 58L * 58 * 58 * 58 * 58;
+    private static final long[] POWERS = {1, 58, 58 * 58, 58 * 58 * 58, 58L * 58 * 58 * 58, BASE_58_POW_5};
+
+    static {
+        Arrays.fill(INDEXES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            INDEXES[ALPHABET[i]] = i;
+        }
+    }
 
     public static String encode(byte[] input) {
-        BigInteger value = new BigInteger(1, input);
-        StringBuilder base58 = new StringBuilder();
+        int zeros = 0;
+        while (zeros < input.length && input[zeros] == 0) {
+            zeros++;
+        }
 
-        while (value.compareTo(BigInteger.ZERO) > 0) {
-            BigInteger[] divmod = value.divideAndRemainder(BASE_58);
-            base58.insert(0, ALPHABET[divmod[1].intValue()]);
-            value = divmod[0];
+        // big-endian 32-bit limbs of the value without its leading zero bytes
+        int length = input.length - zeros;
+        int[] limbs = new int[(length + 3) / 4];
+        for (int i = zeros; i < input.length; i++) {
+            int fromEnd = input.length - 1 - i;
+            limbs[limbs.length - 1 - fromEnd / 4] |= (input[i] & 0xFF) << (8 * (fromEnd % 4));
         }
 
-        // Encode leading zeros as '1's.
-        int i = 0;
-        while (i < input.length && input[i] == 0) {
-            base58.insert(0, ALPHABET[0]);
-            i++;
+        // log(256) / log(58) < 1.37, plus room for one padded group of five digits
+        char[] output = new char[zeros + length * 137 / 100 + 6];
+        int position = output.length;
+        int start = 0;
+        while (start < limbs.length) {
+            long remainder = 0;
+            for (int i = start; i < limbs.length; i++) {
+                long current = (remainder << 32) | (limbs[i] & 0xFFFFFFFFL);
+                limbs[i] = (int) (current / BASE_58_POW_5);
+                remainder = current % BASE_58_POW_5;
+            }
+            while (start < limbs.length && limbs[start] == 0) {
+                start++;
+            }
+            for (int k = 0; k < 5; k++) {
+                output[--position] = ALPHABET[(int) (remainder % 58)];
+                remainder /= 58;
+            }
         }
 
-        return base58.toString();
+        // drop the zero digits padding the most significant group, then encode leading zeros as '1's
+        while (position < output.length && output[position] == ALPHABET[0]) {
+            position++;
+        }
+        for (int i = 0; i < zeros; i++) {
+            output[--position] = ALPHABET[0];
+        }
+        return new String(output, position, output.length - position);
     }
 
     public static byte[] decode(String input) {
-        BigInteger num = BigInteger.ZERO;
-        for (char t : input.toCharArray()) {
-            int p = new String(ALPHABET).indexOf(t);
-            if (p == -1) {
-                throw new IllegalArgumentException("Invalid character found: " + t);
+        int length = input.length();
+        int zeros = 0;
+        while (zeros < length && input.charAt(zeros) == ALPHABET[0]) {
+            zeros++;
+        }
+
+        // little-endian 32-bit limbs; log(58) / log(256) < 0.733
+        int[] limbs = new int[(length - zeros) * 733 / 4000 + 2];
+        int used = 0;
+        for (int i = zeros; i < length; ) {
+            int group = Math.min(5, length - i);
+            long accumulator = 0;
+            for (int k = 0; k < group; k++, i++) {
+                accumulator = accumulator * 58 + digit(input.charAt(i));
+            }
+            long multiplier = POWERS[group];
+            for (int j = 0; j < used; j++) {
+                long product = (limbs[j] & 0xFFFFFFFFL) * multiplier + accumulator;
+                limbs[j] = (int) product;
+                accumulator = product >>> 32;
+            }
+            if (accumulator != 0) {
+                limbs[used++] = (int) accumulator;
             }
-            num = num.multiply(BASE_58).add(BigInteger.valueOf(p));
         }
 
-        byte[] bytes = num.toByteArray();
-        boolean stripSignByte = bytes.length > 1 && bytes[0] == 0 && bytes[1] < 0;
-        int leadingZeros = 0;
-        for (int i = 0; i < input.length() && input.charAt(i) == ALPHABET[0]; i++) {
-            leadingZeros++;
+        int significant = used * 4;
+        while (significant > 0 && byteAt(limbs, significant - 1) == 0) {
+            significant--;
+        }
+        byte[] result = new byte[zeros + significant];
+        for (int i = 0; i < significant; i++) {
+            result[result.length - 1 - i] = byteAt(limbs, i);
         }
+        return result;
+    }
+
+    private static int digit(char c) {
+        int digit = c < 128 ? INDEXES[c] : -1;
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid character found: " + c);
+        }
+        return digit;
+    }
 
-        byte[] tmp = new byte[bytes.length - (stripSignByte ? 1 : 0) + leadingZeros];
-        System.arraycopy(bytes, stripSignByte ? 1 : 0, tmp, leadingZeros, tmp.length - leadingZeros);
-        return tmp;
+    private static byte byteAt(int[] limbs, int index) {
+        return (byte) (limbs[index / 4] >>> (8 * (index % 4)));
     }
-}
\ No newline at end of file
+}
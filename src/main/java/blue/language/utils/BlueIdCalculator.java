@@ -11,7 +11,7 @@ import static blue.language.utils.Properties.*;
 
 public class BlueIdCalculator {
 
-    public static final BlueIdCalculator INSTANCE = new BlueIdCalculator(new Base58Sha256Provider());
+    public static final BlueIdCalculator INSTANCE = new BlueIdCalculator(new StreamingBase58Sha256Provider());
 
     private Function<Object, String> hashProvider;
 
@@ -20,16 +20,119 @@ public class BlueIdCalculator {
     }
 
     public static String calculateBlueId(Node node) {
-        return BlueIdCalculator.INSTANCE.calculate(NodeToMapListOrValue.get(node));
+        return BlueIdCalculator.INSTANCE.calculateMemoized(node);
     }
 
     public static String calculateBlueId(List<Node> nodes) {
         List<Object> objects = nodes.stream()
-                .map(NodeToMapListOrValue::get)
+                .map(BlueIdCalculator.INSTANCE::memoizedRootItem)
                 .collect(Collectors.toList());
         return BlueIdCalculator.INSTANCE.calculate(objects);
     }
 
+    /**
+     * BlueId of a {@link Node} subtree. Every node a memo was computed from links back to the node
+     * holding it, and any mutation clears the memos along those links, so a memo that is still
+     * present is current and is reused without looking at the subtree again. Subtrees containing a
+     * {@link blue.language.model.Schema}, whose fields can change without the node noticing, are
+     * marked unstable and rehashed on every calculation.
+     */
+    public static final class Memo {
+        private final String blueId;
+        private final boolean stable;
+
+        private Memo(String blueId, boolean stable) {
+            this.blueId = blueId;
+            this.stable = stable;
+        }
+
+        public String blueId() {
+            return blueId;
+        }
+    }
+
+    /**
+     * Reads and writes the memo slot of a {@link Node}. The model installs the only instance when
+     * {@link Node} is initialized, which keeps the slot out of the node's public API.
+     */
+    public abstract static class MemoAccess {
+        protected abstract Memo memo(Node node);
+
+        protected abstract void memo(Node node, Memo memo);
+
+        protected abstract void addParent(Node child, Node parent);
+    }
+
+    private static volatile MemoAccess memoAccess;
+
+    public static void installMemoAccess(MemoAccess access) {
+        synchronized (BlueIdCalculator.class) {
+            if (memoAccess != null) {
+                throw new IllegalStateException("Memo access is already installed");
+            }
+            memoAccess = Objects.requireNonNull(access, "access");
+        }
+    }
+
+    static Memo memoOf(Node node) {
+        return memoAccess.memo(node);
+    }
+
+    private String calculateMemoized(Node node) {
+        String blueId = memoize(node, null).blueId;
+        return blueId != null ? blueId : hashProvider.apply(Collections.emptyMap());
+    }
+
+    private Memo memoize(Node node, Node parent) {
+        Memo memo = memoAccess.memo(node);
+        if (memo == null || !memo.stable) {
+            Children children = new Children(node);
+            Object cleaned = cleanStructure(NodeToMapListOrValue.get(node, children::child, children::item));
+            memo = new Memo(cleaned != null ? calculateCleanedObject(cleaned) : null,
+                    children.stable && node.getSchema() == null);
+            memoAccess.memo(node, memo);
+        }
+        if (parent != null) {
+            memoAccess.addParent(node, parent);
+        }
+        return memo;
+    }
+
+    private Object memoizedRootItem(Node item) {
+        return new Children(null).item(item);
+    }
+
+    /**
+     * Hashes the children of one node, linking each of them back to it and tracking whether all of
+     * their memos are stable.
+     */
+    private final class Children {
+        private final Node parent;
+        private boolean stable = true;
+
+        private Children(Node parent) {
+            this.parent = parent;
+        }
+
+        private Object child(Node child) {
+            Memo memo = memoize(child, parent);
+            stable &= memo.stable;
+            return memo.blueId != null ? Collections.singletonMap(OBJECT_BLUE_ID, memo.blueId) : null;
+        }
+
+        private Object item(Node item) {
+            if (item.getPosition() != null || item.getPreviousBlueId() != null) {
+                // list controls are interpreted by the enclosing list, so they keep their own level expanded
+                if (parent != null) {
+                    memoAccess.addParent(item, parent);
+                }
+                stable &= item.getSchema() == null;
+                return NodeToMapListOrValue.get(item, this::child, this::item);
+            }
+            return child(item);
+        }
+    }
+
     public String calculate(Object object) {
         // we invoke calculateCleanedObject method only once (for root)
         Object cleaned = cleanStructure(object);
@@ -0,0 +1,336 @@
+package blue.language.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Writes RFC 8785 (JCS) canonical JSON as UTF-8 bytes straight into a {@link MessageDigest},
+ * producing exactly the bytes that {@code JSON_MAPPER} serialization followed by
+ * {@code JsonCanonicalizer} would produce for the same object.
+ * <p>
+ * Instances are not thread-safe; they are meant to be reused by a single thread.
+ */
+public final class CanonicalJsonWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final long MAX_SAFE_INTEGER = 9007199254740991L;
+    private static final BigInteger MIN_SAFE_BIG_INTEGER = BigInteger.valueOf(-MAX_SAFE_INTEGER);
+    private static final BigInteger MAX_SAFE_BIG_INTEGER = BigInteger.valueOf(MAX_SAFE_INTEGER);
+    private static final RoundingMode[] ROUNDING_MODES = {RoundingMode.HALF_EVEN, RoundingMode.UP, RoundingMode.DOWN};
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[4096];
+    private int position;
+    private long size;
+
+    /**
+     * @param digest target digest, or {@code null} to only count canonical bytes
+     */
+    public CanonicalJsonWriter(MessageDigest digest) {
+        this.digest = digest;
+    }
+
+    /**
+     * Thrown when a value cannot be canonicalized without going through Jackson.
+     */
+    public static final class UnsupportedValueException extends RuntimeException {
+        UnsupportedValueException(String message) {
+            super(message);
+        }
+    }
+
+    public CanonicalJsonWriter reset() {
+        position = 0;
+        size = 0;
+        if (digest != null) {
+            digest.reset();
+        }
+        return this;
+    }
+
+    public long size() {
+        return size + position;
+    }
+
+    public byte[] digest() {
+        flush();
+        return digest.digest();
+    }
+
+    public CanonicalJsonWriter write(Object value) {
+        if (value == null) {
+            writeAscii("null");
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof CompactBlueId) {
+            writeString(value.toString());
+        } else if (value instanceof Boolean) {
+            writeAscii(((Boolean) value) ? "true" : "false");
+        } else if (value instanceof Number) {
+            writeNumber((Number) value);
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value);
+        } else if (value instanceof Collection) {
+            writeCollection((Collection<?>) value);
+        } else {
+            throw new UnsupportedValueException("Unsupported canonical JSON value: " + value.getClass().getName());
+        }
+        return this;
+    }
+
+    private void writeMap(Map<?, ?> map) {
+        // JSON_MAPPER serializes with NON_NULL inclusion, so null-valued entries are left out
+        writeByte('{');
+        int size = map.size();
+        if (size == 1) {
+            Map.Entry<?, ?> entry = map.entrySet().iterator().next();
+            if (entry.getValue() != null) {
+                writeString(key(entry.getKey()));
+                writeByte(':');
+                write(entry.getValue());
+            }
+        } else if (size > 1) {
+            String[] keys = new String[size];
+            Object[] values = new Object[size];
+            int count = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                keys[count] = key(entry.getKey());
+                values[count] = entry.getValue();
+                count++;
+            }
+            if (!(map instanceof SortedMap) || ((SortedMap<?, ?>) map).comparator() != null) {
+                Integer[] order = new Integer[count];
+                for (int i = 0; i < count; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (left, right) -> keys[left].compareTo(keys[right]));
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        writeByte(',');
+                    }
+                    writeString(keys[order[i]]);
+                    writeByte(':');
+                    write(values[order[i]]);
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        writeByte(',');
+                    }
+                    writeString(keys[i]);
+                    writeByte(':');
+                    write(values[i]);
+                }
+            }
+        }
+        writeByte('}');
+    }
+
+    private String key(Object key) {
+        if (key instanceof String) {
+            return (String) key;
+        }
+        throw new UnsupportedValueException("Unsupported canonical JSON key: " + key);
+    }
+
+    private void writeCollection(Collection<?> collection) {
+        writeByte('[');
+        boolean first = true;
+        for (Object item : collection) {
+            if (!first) {
+                writeByte(',');
+            }
+            first = false;
+            write(item);
+        }
+        writeByte(']');
+    }
+
+    private void writeNumber(Number number) {
+        if (number instanceof BigInteger) {
+            BigInteger value = (BigInteger) number;
+            // JSON_MAPPER writes integers outside the IEEE-754 safe range as strings
+            if (value.compareTo(MIN_SAFE_BIG_INTEGER) < 0 || value.compareTo(MAX_SAFE_BIG_INTEGER) > 0) {
+                writeString(value.toString());
+            } else {
+                writeAscii(value.toString());
+            }
+        } else if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            long value = number.longValue();
+            if (value >= -MAX_SAFE_INTEGER && value <= MAX_SAFE_INTEGER) {
+                writeAscii(Long.toString(value));
+            } else {
+                writeAscii(formatNumber((double) value));
+            }
+        } else if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                writeString(number.toString());
+            } else {
+                writeAscii(formatNumber(Double.parseDouble(number.toString())));
+            }
+        } else if (number instanceof BigDecimal) {
+            writeAscii(formatNumber(Double.parseDouble(number.toString())));
+        } else {
+            throw new UnsupportedValueException("Unsupported canonical JSON number: " + number.getClass().getName());
+        }
+    }
+
+    /**
+     * Formats a double the way ECMAScript {@code Number.prototype.toString} does, as required by RFC 8785.
+     */
+    public static String formatNumber(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Problem when generating canonized json.");
+        }
+        if (value == 0) {
+            return "0";
+        }
+        if (value < 0) {
+            return "-" + formatNumber(-value);
+        }
+        if (value <= MAX_SAFE_INTEGER && value == Math.rint(value)) {
+            return Long.toString((long) value);
+        }
+
+        BigDecimal shortest = shortestRepresentation(value).stripTrailingZeros();
+        String digits = shortest.unscaledValue().toString();
+        int k = digits.length();
+        int n = k - shortest.scale();
+
+        StringBuilder result = new StringBuilder(k + 8);
+        if (k <= n && n <= 21) {
+            result.append(digits);
+            for (int i = k; i < n; i++) {
+                result.append('0');
+            }
+        } else if (0 < n && n <= 21) {
+            result.append(digits, 0, n).append('.').append(digits, n, k);
+        } else if (-6 < n && n <= 0) {
+            result.append("0.");
+            for (int i = n; i < 0; i++) {
+                result.append('0');
+            }
+            result.append(digits);
+        } else {
+            result.append(digits.charAt(0));
+            if (k > 1) {
+                result.append('.').append(digits, 1, k);
+            }
+            result.append('e').append(n - 1 >= 0 ? '+' : '-').append(Math.abs(n - 1));
+        }
+        return result.toString();
+    }
+
+    private static BigDecimal shortestRepresentation(double value) {
+        BigDecimal exact = new BigDecimal(value);
+        for (int precision = 1; precision < 17; precision++) {
+            for (RoundingMode mode : ROUNDING_MODES) {
+                BigDecimal candidate = exact.round(new MathContext(precision, mode));
+                if (candidate.doubleValue() == value) {
+                    return candidate;
+                }
+            }
+        }
+        return exact.round(new MathContext(17, RoundingMode.HALF_EVEN));
+    }
+
+    private void writeString(String value) {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        writeByte('\\');
+                        writeByte(c);
+                        break;
+                    case '\n':
+                        writeEscape('n');
+                        break;
+                    case '\b':
+                        writeEscape('b');
+                        break;
+                    case '\f':
+                        writeEscape('f');
+                        break;
+                    case '\r':
+                        writeEscape('r');
+                        break;
+                    case '\t':
+                        writeEscape('t');
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            writeByte('\\');
+                            writeByte('u');
+                            writeByte('0');
+                            writeByte('0');
+                            writeByte(HEX[c >> 4]);
+                            writeByte(HEX[c & 0xF]);
+                        } else {
+                            writeByte(c);
+                        }
+                }
+            } else if (c < 0x800) {
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                writeByte(0xF0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                writeByte(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // matches String.getBytes(UTF_8) replacement of unpaired surrogates
+                writeByte('?');
+            } else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeEscape(char c) {
+        writeByte('\\');
+        writeByte(c);
+    }
+
+    private void writeAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            writeByte(value.charAt(i));
+        }
+    }
+
+    private void writeByte(int b) {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void flush() {
+        if (position == 0) {
+            return;
+        }
+        if (digest != null) {
+            digest.update(buffer, 0, position);
+        }
+        size += position;
+        position = 0;
+    }
+}
@@ -0,0 +1,156 @@
+package blue.language.utils;
+
+import blue.language.model.Node;
+import blue.language.snapshot.FrozenNode;
+import org.erdtman.jcs.JsonCanonicalizer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static blue.language.utils.UncheckedObjectMapper.JSON_MAPPER;
+
+/**
+ * Counts the UTF-8 bytes of a node's official JSON form after RFC 8785 canonicalization without
+ * building that JSON. Each node level is laid out by {@link NodeToMapListOrValue} with nested nodes
+ * replaced by their already computed sizes; since canonical JSON has no insignificant whitespace,
+ * the size of a map or list is its punctuation plus the sizes of its members in any order.
+ *
+ * <p>Frozen children contribute their memoized {@link FrozenNode#canonicalSize()}, so sizing a
+ * patched snapshot only walks the nodes the patch replaced.</p>
+ */
+public final class CanonicalSize {
+
+    private static final ThreadLocal<CanonicalJsonWriter> WRITER =
+            ThreadLocal.withInitial(() -> new CanonicalJsonWriter(null));
+
+    private CanonicalSize() {
+    }
+
+    public static long of(Node node) {
+        return size(NodeToMapListOrValue.get(node, CanonicalSize::sized, CanonicalSize::sized), null);
+    }
+
+    /**
+     * Size of {@code node}, taking the sizes of its children from {@link FrozenNode#canonicalSize()}.
+     */
+    public static long of(FrozenNode node) {
+        Map<Node, FrozenNode> children = new IdentityHashMap<>();
+        Node level = shallowCopy(node, children);
+        Function<Node, Object> childSize = child -> new Sized(children.get(child).canonicalSize());
+        return size(NodeToMapListOrValue.get(level, childSize, childSize), children);
+    }
+
+    private static Object sized(Node child) {
+        return new Sized(of(child));
+    }
+
+    private static long size(Object value, Map<Node, FrozenNode> frozenChildren) {
+        if (value instanceof Sized) {
+            return ((Sized) value).bytes;
+        }
+        if (value instanceof Node) {
+            // the "blue" entry is added as a raw node and serialized through NodeSerializer
+            return frozenChildren != null ? frozenChildren.get(value).canonicalSize() : of((Node) value);
+        }
+        if (value instanceof Map && hasStringKeys((Map<?, ?>) value)) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            long bytes = 2 + Math.max(0, map.size() - 1);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                bytes += scalarSize(entry.getKey()) + 1 + size(entry.getValue(), frozenChildren);
+            }
+            return bytes;
+        }
+        if (value instanceof Collection) {
+            Collection<?> items = (Collection<?>) value;
+            long bytes = 2 + Math.max(0, items.size() - 1);
+            for (Object item : items) {
+                bytes += size(item, frozenChildren);
+            }
+            return bytes;
+        }
+        return scalarSize(value);
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long scalarSize(Object value) {
+        try {
+            return WRITER.get().reset().write(value).size();
+        } catch (CanonicalJsonWriter.UnsupportedValueException e) {
+            return jacksonSize(value);
+        }
+    }
+
+    private static long jacksonSize(Object value) {
+        try {
+            // JsonCanonicalizer only accepts containers, so scalars are measured inside a one-element array
+            String wrapped = new JsonCanonicalizer("[" + JSON_MAPPER.writeValueAsString(value) + "]").getEncodedString();
+            return wrapped.getBytes(StandardCharsets.UTF_8).length - 2;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Problem when generating canonized json.", e);
+        }
+    }
+
+    private static Node shallowCopy(FrozenNode node, Map<Node, FrozenNode> children) {
+        Node level = new Node()
+                .name(node.getName())
+                .description(node.getDescription())
+                .type(placeholder(node.getType(), children))
+                .itemType(placeholder(node.getItemType(), children))
+                .keyType(placeholder(node.getKeyType(), children))
+                .valueType(placeholder(node.getValueType(), children))
+                .value(node.getValue())
+                .blueId(node.getReferenceBlueId())
+                .schema(node.getSchema())
+                .mergePolicy(node.getMergePolicy())
+                .previousBlueId(node.getPreviousBlueId())
+                .position(node.getPosition())
+                .blue(placeholder(node.getBlue(), children))
+                .inlineValue(node.isInlineValue());
+        if (node.getItems() != null) {
+            List<Node> items = new ArrayList<>(node.getItems().size());
+            for (FrozenNode item : node.getItems()) {
+                items.add(placeholder(item, children));
+            }
+            level.items(items);
+        }
+        if (node.getProperties() != null) {
+            Map<String, Node> properties = new LinkedHashMap<>();
+            node.getProperties().forEach((key, child) -> properties.put(key, placeholder(child, children)));
+            level.properties(properties);
+        }
+        return level;
+    }
+
+    private static Node placeholder(FrozenNode child, Map<Node, FrozenNode> children) {
+        if (child == null) {
+            return null;
+        }
+        // keeps the reference BlueId, which decides how a typed value is written
+        Node placeholder = new Node().blueId(child.getReferenceBlueId());
+        children.put(placeholder, child);
+        return placeholder;
+    }
+
+    private static final class Sized {
+        private final long bytes;
+
+        private Sized(long bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package blue.language.utils;
+
+import blue.language.utils.cache.BoundedCache;
+import blue.language.utils.cache.CacheSettings;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Objects;
+
+/**
+ * A BlueId held as its 32-byte SHA-256 digest in four longs rather than as a 44-character Base58
+ * string. Identifiers that are not the Base58 form of a 32-byte digest (symbolic type ids such as
+ * {@code "Text"}, or ids with a {@code #index} suffix) are kept as text, so every string converts to
+ * a {@code CompactBlueId} and back unchanged.
+ *
+ * <p>Instances are immutable and compare by value; they are meant to be used as cache keys and
+ * converted to strings only at the API boundary.</p>
+ */
+public final class CompactBlueId {
+
+    private static final int DIGEST_LENGTH = 32;
+    private static final int MIN_ENCODED_LENGTH = 32;
+    private static final int MAX_ENCODED_LENGTH = 44;
+
+    private final long d0;
+    private final long d1;
+    private final long d2;
+    private final long d3;
+    private final String text;
+    // racy single-check memo like String.hashCode: every thread computes the same String
+    private String encoded;
+
+    private CompactBlueId(long d0, long d1, long d2, long d3, String text) {
+        this.d0 = d0;
+        this.d1 = d1;
+        this.d2 = d2;
+        this.d3 = d3;
+        this.text = text;
+    }
+
+    public static CompactBlueId of(String blueId) {
+        Objects.requireNonNull(blueId, "blueId");
+        int length = blueId.length();
+        if (length >= MIN_ENCODED_LENGTH && length <= MAX_ENCODED_LENGTH) {
+            byte[] digest;
+            try {
+                digest = Base58.decode(blueId);
+            } catch (IllegalArgumentException e) {
+                digest = null;
+            }
+            if (digest != null && digest.length == DIGEST_LENGTH) {
+                return fromDigest(digest);
+            }
+        }
+        return new CompactBlueId(0, 0, 0, 0, blueId);
+    }
+
+    /**
+     * Returns {@code null} for a {@code null} BlueId.
+     */
+    public static CompactBlueId ofNullable(String blueId) {
+        return blueId != null ? of(blueId) : null;
+    }
+
+    public static CompactBlueId fromDigest(byte[] digest) {
+        if (digest == null || digest.length != DIGEST_LENGTH) {
+            throw new IllegalArgumentException("BlueId digest must be " + DIGEST_LENGTH + " bytes");
+        }
+        return new CompactBlueId(readLong(digest, 0), readLong(digest, 8), readLong(digest, 16), readLong(digest, 24), null);
+    }
+
+    /**
+     * Whether this BlueId is a SHA-256 digest rather than a symbolic identifier kept as text.
+     */
+    public boolean isDigest() {
+        return text == null;
+    }
+
+    public byte[] digest() {
+        if (text != null) {
+            throw new IllegalStateException("BlueId is not a digest: " + text);
+        }
+        byte[] digest = new byte[DIGEST_LENGTH];
+        writeLong(digest, 0, d0);
+        writeLong(digest, 8, d1);
+        writeLong(digest, 16, d2);
+        writeLong(digest, 24, d3);
+        return digest;
+    }
+
+    /**
+     * Returns the canonical string form of this BlueId; digests are Base58-encoded on the first call
+     * and the result is kept for later ones.
+     */
+    @JsonValue
+    @Override
+    public String toString() {
+        if (text != null) {
+            return text;
+        }
+        String value = encoded;
+        if (value == null) {
+            value = Base58.encode(digest());
+            encoded = value;
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactBlueId)) {
+            return false;
+        }
+        CompactBlueId other = (CompactBlueId) o;
+        return d0 == other.d0 && d1 == other.d1 && d2 == other.d2 && d3 == other.d3
+                && Objects.equals(text, other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        // digest bits are already uniformly distributed
+        return text != null ? text.hashCode() : (int) (d0 ^ (d0 >>> 32));
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    /**
+     * Canonicalizes equal BlueIds to one shared instance, bounded by the number of pooled ids.
+     */
+    public static final class InternPool {
+
+        private final BoundedCache<CompactBlueId, CompactBlueId> pool;
+
+        public InternPool() {
+            this(CacheSettings.defaults());
+        }
+
+        public InternPool(CacheSettings settings) {
+            this.pool = new BoundedCache<>(settings, id -> 1L);
+        }
+
+        public CompactBlueId intern(CompactBlueId blueId) {
+            if (blueId == null) {
+                return null;
+            }
+            CompactBlueId pooled = pool.get(blueId);
+            return pooled != null ? pooled : pool.putIfAbsent(blueId, blueId);
+        }
+
+        public CompactBlueId intern(String blueId) {
+            return blueId != null ? intern(of(blueId)) : null;
+        }
+
+        public int size() {
+            return pool.size();
+        }
+    }
+}
@@ -4,11 +4,12 @@ import blue.language.Blue;
 import blue.language.model.Node;
 import blue.language.model.Schema;
 import blue.language.snapshot.FrozenNode;
+import blue.language.utils.cache.BoundedCache;
+import blue.language.utils.cache.CacheSettings;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -23,24 +24,59 @@ import static blue.language.utils.Properties.*;
  * performs no full document resolve during matching; provider access is limited
  * to resolving type references that are not already embedded in the frozen
  * graph, and those lookups are cached for the lifetime of the matcher.</p>
+ *
+ * <p>All caches are concurrent and bounded, so a single warm matcher can be shared by threads
+ * processing documents in parallel. Cached answers depend only on BlueIds, so racing threads at
+ * worst compute the same result twice.</p>
  */
 public final class FrozenTypeMatcher {
 
+    private static final Set<CompactBlueId> CORE_TYPE_IDS = new HashSet<>();
+    private static final CompactBlueId TEXT_TYPE_ID = CompactBlueId.of(TEXT_TYPE_BLUE_ID);
+    private static final CompactBlueId INTEGER_TYPE_ID = CompactBlueId.of(INTEGER_TYPE_BLUE_ID);
+    private static final CompactBlueId DOUBLE_TYPE_ID = CompactBlueId.of(DOUBLE_TYPE_BLUE_ID);
+    private static final CompactBlueId BOOLEAN_TYPE_ID = CompactBlueId.of(BOOLEAN_TYPE_BLUE_ID);
+    private static final CompactBlueId LIST_TYPE_ID = CompactBlueId.of(LIST_TYPE_BLUE_ID);
+    private static final CompactBlueId DICTIONARY_TYPE_ID = CompactBlueId.of(DICTIONARY_TYPE_BLUE_ID);
+
+    static {
+        for (String blueId : CORE_TYPE_BLUE_IDS) {
+            CORE_TYPE_IDS.add(CompactBlueId.of(blueId));
+        }
+    }
+
     private final Blue blue;
-    private final Map<String, FrozenNode> resolvedReferenceCache = new HashMap<>();
-    private final Map<String, Boolean> subtypeCache = new HashMap<>();
-    private final Map<String, Boolean> matchCache = new HashMap<>();
-    private final Map<String, String> typeCompatibilityIdentityCache = new HashMap<>();
-    private final Set<String> unresolvedReferenceCache = new HashSet<>();
+    private final BoundedCache<CompactBlueId, FrozenNode> resolvedReferenceCache;
+    private final BoundedCache<IdPair, Boolean> subtypeCache;
+    private final BoundedCache<IdPair, Boolean> matchCache;
+    private final BoundedCache<IdPair, CompactBlueId> typeCompatibilityIdentityCache;
+    private final BoundedCache<CompactBlueId, Boolean> unresolvedReferenceCache;
     private final boolean resolveCandidateReferences;
 
     public FrozenTypeMatcher(Blue blue) {
-        this(blue, true);
+        this(blue, CacheSettings.defaults());
+    }
+
+    /**
+     * @param settings bound applied to each cache; match results count as one unit, resolved
+     *                 type definitions as their node count
+     */
+    public FrozenTypeMatcher(Blue blue, CacheSettings settings) {
+        this(blue, true, settings);
     }
 
     FrozenTypeMatcher(Blue blue, boolean resolveCandidateReferences) {
+        this(blue, resolveCandidateReferences, CacheSettings.defaults());
+    }
+
+    private FrozenTypeMatcher(Blue blue, boolean resolveCandidateReferences, CacheSettings settings) {
         this.blue = blue;
         this.resolveCandidateReferences = resolveCandidateReferences;
+        this.resolvedReferenceCache = new BoundedCache<>(settings, FrozenNode::nodeCount);
+        this.subtypeCache = new BoundedCache<>(settings, result -> 1);
+        this.matchCache = new BoundedCache<>(settings, result -> 1);
+        this.typeCompatibilityIdentityCache = new BoundedCache<>(settings, identity -> 1);
+        this.unresolvedReferenceCache = new BoundedCache<>(settings, unresolved -> 1);
     }
 
     public boolean matchesType(FrozenNode resolvedNode, FrozenNode resolvedTargetType) {
@@ -54,20 +90,20 @@ public final class FrozenTypeMatcher {
     }
 
     private boolean matches(FrozenNode node, FrozenNode target) {
-        String key = node.blueId() + "->" + target.blueId();
+        IdPair key = new IdPair(node.blueIdValue(), target.blueIdValue());
         Boolean cached = matchCache.get(key);
         if (cached != null) {
             return cached;
         }
 
         boolean result = computeMatch(node, target);
-        matchCache.put(key, result);
+        matchCache.putIfAbsent(key, result);
         return result;
     }
 
     private boolean computeMatch(FrozenNode node, FrozenNode target) {
         if (target.isReferenceOnly()) {
-            return referenceMatches(node, target.getReferenceBlueId());
+            return referenceMatches(node, target.referenceBlueIdValue());
         }
         if (resolveCandidateReferences && node.isReferenceOnly()) {
             FrozenNode resolvedNode = resolveTypeReference(node);
@@ -104,7 +140,7 @@ public final class FrozenTypeMatcher {
         if (targetType == null) {
             return true;
         }
-        if (targetType.isReferenceOnly() && referenceMatches(node, targetType.getReferenceBlueId())) {
+        if (targetType.isReferenceOnly() && referenceMatches(node, targetType.referenceBlueIdValue())) {
             return true;
         }
         if (matchesImplicitStructure(node, targetType)) {
@@ -170,7 +206,7 @@ public final class FrozenTypeMatcher {
     }
 
     private boolean hasTypeDefinitionConstraints(FrozenNode definition) {
-        if (definition == null || CORE_TYPE_BLUE_IDS.contains(typeIdentity(definition))) {
+        if (definition == null || CORE_TYPE_IDS.contains(typeIdentity(definition))) {
             return false;
         }
         return definition.getType() != null
@@ -183,14 +219,14 @@ public final class FrozenTypeMatcher {
                 || definition.getSchema() != null;
     }
 
-    private boolean referenceMatches(FrozenNode node, String targetBlueId) {
+    private boolean referenceMatches(FrozenNode node, CompactBlueId targetBlueId) {
         if (targetBlueId == null) {
             return true;
         }
-        if (targetBlueId.equals(node.getReferenceBlueId())) {
+        if (targetBlueId.equals(node.referenceBlueIdValue())) {
             return true;
         }
-        if (targetBlueId.equals(node.blueId())) {
+        if (targetBlueId.equals(node.blueIdValue())) {
             return true;
         }
         FrozenNode nodeType = node.getType();
@@ -536,9 +572,9 @@ public final class FrozenTypeMatcher {
         if (!Boolean.TRUE.equals(schema.getUniqueItemsValue()) || node.getItems() == null) {
             return true;
         }
-        Set<String> itemIds = new HashSet<>();
+        Set<CompactBlueId> itemIds = new HashSet<>();
         for (FrozenNode item : node.getItems()) {
-            if (!itemIds.add(item.blueId())) {
+            if (!itemIds.add(item.blueIdValue())) {
                 return false;
             }
         }
@@ -590,22 +626,22 @@ public final class FrozenTypeMatcher {
         if (candidateType == null || targetType == null) {
             return false;
         }
-        String key = typeIdentity(candidateType) + "->" + typeIdentity(targetType);
+        IdPair key = new IdPair(typeIdentity(candidateType), typeIdentity(targetType));
         Boolean cached = subtypeCache.get(key);
         if (cached != null) {
             return cached;
         }
 
         boolean result = computeSubtype(candidateType, targetType);
-        subtypeCache.put(key, result);
+        subtypeCache.putIfAbsent(key, result);
         return result;
     }
 
     private boolean computeSubtype(FrozenNode candidateType, FrozenNode targetType) {
         FrozenNode current = resolveTypeReference(candidateType);
-        Set<String> visited = new HashSet<>();
+        Set<CompactBlueId> visited = new HashSet<>();
         while (current != null) {
-            String identity = typeIdentity(current);
+            CompactBlueId identity = typeIdentity(current);
             if (!visited.add(identity)) {
                 return false;
             }
@@ -632,11 +668,11 @@ public final class FrozenTypeMatcher {
         if (!type.isReferenceOnly()) {
             return type;
         }
-        String blueId = type.getReferenceBlueId();
-        if (CORE_TYPE_BLUE_IDS.contains(blueId)) {
+        CompactBlueId blueId = type.referenceBlueIdValue();
+        if (CORE_TYPE_IDS.contains(blueId)) {
             return coreType(blueId);
         }
-        if (unresolvedReferenceCache.contains(blueId)) {
+        if (unresolvedReferenceCache.get(blueId) != null) {
             return null;
         }
         FrozenNode cached = resolvedReferenceCache.get(blueId);
@@ -645,16 +681,15 @@ public final class FrozenTypeMatcher {
         }
         FrozenNode resolved;
         try {
-            resolved = blue.loadSnapshot(blueId).frozenResolvedRoot();
+            resolved = blue.loadSnapshot(blueId.toString()).frozenResolvedRoot();
         } catch (RuntimeException ex) {
-            resolved = rawTypeDefinition(blueId);
+            resolved = rawTypeDefinition(blueId.toString());
             if (resolved == null) {
-                unresolvedReferenceCache.add(blueId);
+                unresolvedReferenceCache.putIfAbsent(blueId, Boolean.TRUE);
                 return null;
             }
         }
-        resolvedReferenceCache.put(blueId, resolved);
-        return resolved;
+        return resolvedReferenceCache.putIfAbsent(blueId, resolved);
     }
 
     private FrozenNode rawTypeDefinition(String blueId) {
@@ -672,16 +707,15 @@ public final class FrozenTypeMatcher {
         }
     }
 
-    private FrozenNode coreType(String blueId) {
+    private FrozenNode coreType(CompactBlueId blueId) {
         FrozenNode cached = resolvedReferenceCache.get(blueId);
         if (cached != null) {
             return cached;
         }
         FrozenNode core = FrozenNode.fromResolvedNode(new Node()
-                .name(CORE_TYPE_BLUE_ID_TO_NAME_MAP.get(blueId))
-                .blueId(blueId));
-        resolvedReferenceCache.put(blueId, core);
-        return core;
+                .name(CORE_TYPE_BLUE_ID_TO_NAME_MAP.get(blueId.toString()))
+                .blueId(blueId.toString()));
+        return resolvedReferenceCache.putIfAbsent(blueId, core);
     }
 
     private boolean sameType(FrozenNode left, FrozenNode right) {
@@ -691,23 +725,22 @@ public final class FrozenTypeMatcher {
         return typeCompatibilityIdentity(left).equals(typeCompatibilityIdentity(right));
     }
 
-    private String typeIdentity(FrozenNode type) {
-        return type.getReferenceBlueId() != null ? type.getReferenceBlueId() : type.blueId();
+    private CompactBlueId typeIdentity(FrozenNode type) {
+        return type.referenceBlueIdValue() != null ? type.referenceBlueIdValue() : type.blueIdValue();
     }
 
-    private String typeCompatibilityIdentity(FrozenNode type) {
+    private CompactBlueId typeCompatibilityIdentity(FrozenNode type) {
         FrozenNode resolved = type.isReferenceOnly() ? resolveTypeReference(type) : type;
         if (resolved == null) {
             return typeIdentity(type);
         }
-        String cacheKey = typeIdentity(resolved) + "|" + resolved.blueId();
-        String cached = typeCompatibilityIdentityCache.get(cacheKey);
+        IdPair cacheKey = new IdPair(typeIdentity(resolved), resolved.blueIdValue());
+        CompactBlueId cached = typeCompatibilityIdentityCache.get(cacheKey);
         if (cached != null) {
             return cached;
         }
-        String identity = BlueIdCalculator.calculateBlueId(labelNeutralNode(resolved.toNode()));
-        typeCompatibilityIdentityCache.put(cacheKey, identity);
-        return identity;
+        CompactBlueId identity = CompactBlueId.of(BlueIdCalculator.calculateBlueId(labelNeutralNode(resolved.toNode())));
+        return typeCompatibilityIdentityCache.putIfAbsent(cacheKey, identity);
     }
 
     private Node labelNeutralNode(Node node) {
@@ -763,26 +796,55 @@ public final class FrozenTypeMatcher {
     }
 
     private boolean isTextType(FrozenNode type) {
-        return isSubtype(type, coreType(TEXT_TYPE_BLUE_ID));
+        return isSubtype(type, coreType(TEXT_TYPE_ID));
     }
 
     private boolean isIntegerType(FrozenNode type) {
-        return isSubtype(type, coreType(INTEGER_TYPE_BLUE_ID));
+        return isSubtype(type, coreType(INTEGER_TYPE_ID));
     }
 
     private boolean isDoubleType(FrozenNode type) {
-        return isSubtype(type, coreType(DOUBLE_TYPE_BLUE_ID));
+        return isSubtype(type, coreType(DOUBLE_TYPE_ID));
     }
 
     private boolean isBooleanType(FrozenNode type) {
-        return isSubtype(type, coreType(BOOLEAN_TYPE_BLUE_ID));
+        return isSubtype(type, coreType(BOOLEAN_TYPE_ID));
     }
 
     private boolean isListType(FrozenNode type) {
-        return isSubtype(type, coreType(LIST_TYPE_BLUE_ID));
+        return isSubtype(type, coreType(LIST_TYPE_ID));
     }
 
     private boolean isDictionaryType(FrozenNode type) {
-        return isSubtype(type, coreType(DICTIONARY_TYPE_BLUE_ID));
+        return isSubtype(type, coreType(DICTIONARY_TYPE_ID));
+    }
+
+    private static final class IdPair {
+        private final CompactBlueId first;
+        private final CompactBlueId second;
+        private final int hash;
+
+        private IdPair(CompactBlueId first, CompactBlueId second) {
+            this.first = first;
+            this.second = second;
+            this.hash = 31 * first.hashCode() + second.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof IdPair)) {
+                return false;
+            }
+            IdPair pair = (IdPair) other;
+            return hash == pair.hash && first.equals(pair.first) && second.equals(pair.second);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
 }
@@ -4,6 +4,8 @@ import blue.language.NodeProvider;
 import blue.language.model.Node;
 import blue.language.utils.limits.Limits;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -30,14 +32,11 @@ public class NodeExtender {
     }
 
     public void extend(Node node, Limits limits) {
-        extendNode(node, limits, "");
+        extendNode(node, limits, "", false, new HashMap<>());
     }
 
-    private void extendNode(Node currentNode, Limits currentLimits, String currentSegment) {
-        extendNode(currentNode, currentLimits, currentSegment, false);
-    }
-
-    private void extendNode(Node currentNode, Limits currentLimits, String currentSegment, boolean skipLimitCheck) {
+    private void extendNode(Node currentNode, Limits currentLimits, String currentSegment, boolean skipLimitCheck,
+                            Map<String, Prefetched> prefetched) {
         if (!skipLimitCheck) {
             if (!currentLimits.shouldExtendPathSegment(currentSegment, currentNode)) {
                 return;
@@ -48,7 +47,7 @@ public class NodeExtender {
 
         try {
             if (currentNode.getBlueId() != null && !CORE_TYPE_BLUE_IDS.contains(currentNode.getBlueId())) {
-                List<Node> resolvedNodes = fetchNode(currentNode);
+                List<Node> resolvedNodes = fetchNode(currentNode, prefetched);
                 if (resolvedNodes != null && !resolvedNodes.isEmpty()) {
                     if (resolvedNodes.size() == 1) {
                         Node resolvedNode = resolvedNodes.get(0);
@@ -63,34 +62,36 @@ public class NodeExtender {
                 }
             }
 
+            List<Node> items = currentNode.getItems();
+            if (items != null && !items.isEmpty() && currentLimits.shouldReconstructList(currentNode, items)) {
+                reconstructList(items);
+            }
+            prefetchChildren(currentNode, currentLimits, prefetched);
+
             // Handle type nodes
             if (currentNode.getType() != null) {
-                extendNode(currentNode.getType(), currentLimits, "type", true);
+                extendNode(currentNode.getType(), currentLimits, "type", true, prefetched);
             }
             if (currentNode.getItemType() != null) {
-                extendNode(currentNode.getItemType(), currentLimits, "itemType", true);
+                extendNode(currentNode.getItemType(), currentLimits, "itemType", true, prefetched);
             }
             if (currentNode.getKeyType() != null) {
-                extendNode(currentNode.getKeyType(), currentLimits, "keyType", true);
+                extendNode(currentNode.getKeyType(), currentLimits, "keyType", true, prefetched);
             }
             if (currentNode.getValueType() != null) {
-                extendNode(currentNode.getValueType(), currentLimits, "valueType", true);
+                extendNode(currentNode.getValueType(), currentLimits, "valueType", true, prefetched);
             }
 
             Map<String, Node> properties = currentNode.getProperties();
             if (properties != null) {
                 properties.forEach((key, value) -> {
-                    extendNode(value, currentLimits, key, false);
+                    extendNode(value, currentLimits, key, false, prefetched);
                 });
             }
 
-            List<Node> items = currentNode.getItems();
-            if (items != null && !items.isEmpty()) {
-                if (currentLimits.shouldReconstructList(currentNode, items)) {
-                    reconstructList(items);
-                }
+            if (items != null) {
                 for (int i = 0; i < items.size(); i++) {
-                    extendNode(items.get(i), currentLimits, String.valueOf(i), false);
+                    extendNode(items.get(i), currentLimits, String.valueOf(i), false, prefetched);
                 }
             }
         } finally {
@@ -100,6 +101,55 @@ public class NodeExtender {
         }
     }
 
+    /**
+     * Fetches the references among the direct children of {@code node} in one provider call, so a
+     * tree costs one round trip per level rather than one per reference. A reference used by
+     * several children is fetched once and handed to each of them.
+     */
+    private void prefetchChildren(Node node, Limits limits, Map<String, Prefetched> prefetched) {
+        Map<String, Integer> uses = new LinkedHashMap<>();
+        collectReference(uses, node.getType(), prefetched);
+        collectReference(uses, node.getItemType(), prefetched);
+        collectReference(uses, node.getKeyType(), prefetched);
+        collectReference(uses, node.getValueType(), prefetched);
+        if (node.getProperties() != null) {
+            node.getProperties().forEach((key, value) -> {
+                if (limits.shouldExtendPathSegment(key, value)) {
+                    collectReference(uses, value, prefetched);
+                }
+            });
+        }
+        if (node.getItems() != null) {
+            List<Node> items = node.getItems();
+            for (int i = 0; i < items.size(); i++) {
+                if (limits.shouldExtendPathSegment(String.valueOf(i), items.get(i))) {
+                    collectReference(uses, items.get(i), prefetched);
+                }
+            }
+        }
+        if (uses.values().stream().mapToInt(Integer::intValue).sum() < 2) {
+            return;
+        }
+        nodeProvider.fetchByBlueIds(uses.keySet()).forEach((blueId, nodes) -> {
+            if (nodes != null && !nodes.isEmpty()) {
+                prefetched.put(blueId, new Prefetched(nodes, uses.getOrDefault(blueId, 1)));
+            }
+        });
+    }
+
+    private void collectReference(Map<String, Integer> uses, Node child, Map<String, Prefetched> prefetched) {
+        String blueId = child != null ? child.getBlueId() : null;
+        if (blueId == null || CORE_TYPE_BLUE_IDS.contains(blueId)) {
+            return;
+        }
+        Prefetched pending = prefetched.get(blueId);
+        if (pending != null) {
+            pending.remaining++;
+        } else {
+            uses.merge(blueId, 1, Integer::sum);
+        }
+    }
+
     private String appendPath(String currentPath, String segment) {
         if (currentPath.isEmpty()) {
             return segment;
@@ -126,8 +176,18 @@ public class NodeExtender {
         }
     }
 
-    private List<Node> fetchNode(Node node) {
-        List<Node> resolvedNodes = nodeProvider.fetchByBlueId(node.getBlueId());
+    private List<Node> fetchNode(Node node, Map<String, Prefetched> prefetched) {
+        List<Node> resolvedNodes = null;
+        Prefetched pending = prefetched.get(node.getBlueId());
+        if (pending != null) {
+            resolvedNodes = pending.take();
+            if (pending.remaining <= 0) {
+                prefetched.remove(node.getBlueId());
+            }
+        }
+        if (resolvedNodes == null) {
+            resolvedNodes = nodeProvider.fetchByBlueId(node.getBlueId());
+        }
         if (resolvedNodes == null || resolvedNodes.isEmpty()) {
             if (strategy == MissingElementStrategy.RETURN_EMPTY) {
                 return null;
@@ -153,4 +213,23 @@ public class NodeExtender {
         target.previousBlueId(source.getPreviousBlueId());
         target.position(source.getPosition());
     }
+
+    /**
+     * Nodes fetched ahead for one reference and the number of children still expecting them. Every
+     * child but the last gets its own copy, since extending merges the fetched nodes into the child.
+     */
+    private static final class Prefetched {
+        private final List<Node> nodes;
+        private int remaining;
+
+        private Prefetched(List<Node> nodes, int remaining) {
+            this.nodes = nodes;
+            this.remaining = remaining;
+        }
+
+        private List<Node> take() {
+            remaining--;
+            return remaining > 0 ? nodes.stream().map(Node::clone).collect(Collectors.toList()) : nodes;
+        }
+    }
 }
@@ -2,17 +2,45 @@ package blue.language.utils;
 
 import blue.language.NodeProvider;
 import blue.language.provider.BootstrapProvider;
-import blue.language.provider.SequentialNodeProvider;
+import blue.language.provider.RoutingNodeProvider;
+import blue.language.utils.cache.CacheSettings;
 
 import java.util.Arrays;
+import java.util.List;
 
 public class NodeProviderWrapper {
     public static NodeProvider wrap(NodeProvider originalProvider) {
-        return new SequentialNodeProvider(
+        if (isWrapped(originalProvider)) {
+            return originalProvider;
+        }
+        return new RoutingNodeProvider(
                 Arrays.asList(
                         BootstrapProvider.INSTANCE,
                         originalProvider
                 )
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Like {@link #wrap(NodeProvider)}, but also remembers BlueIds neither provider has, bounded by
+     * {@code missCacheSettings}. Use it only when {@code originalProvider} does not gain content later.
+     */
+    public static NodeProvider wrap(NodeProvider originalProvider, CacheSettings missCacheSettings) {
+        return new RoutingNodeProvider(
+                Arrays.asList(
+                        BootstrapProvider.INSTANCE,
+                        originalProvider
+                ),
+                CacheSettings.maximumWeight(RoutingNodeProvider.DEFAULT_MAXIMUM_ROUTES),
+                missCacheSettings
+        );
+    }
+
+    private static boolean isWrapped(NodeProvider provider) {
+        if (!(provider instanceof RoutingNodeProvider)) {
+            return false;
+        }
+        List<NodeProvider> nodeProviders = ((RoutingNodeProvider) provider).getNodeProviders();
+        return !nodeProviders.isEmpty() && nodeProviders.get(0) == BootstrapProvider.INSTANCE;
+    }
+}
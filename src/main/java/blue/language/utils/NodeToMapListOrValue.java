@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static blue.language.utils.NodeToMapListOrValue.Strategy.*;
@@ -27,6 +28,19 @@ public class NodeToMapListOrValue {
     }
 
     public static Object get(Node node, Strategy strategy) {
+        return get(node, strategy, NodeToMapListOrValue::get, child -> get(child, strategy), item -> get(item, strategy));
+    }
+
+    /**
+     * Builds the official representation of a single node level, delegating nested nodes to the given mappers.
+     * List items go through {@code itemMapper}, all other nested nodes through {@code childMapper}.
+     */
+    static Object get(Node node, Function<Node, Object> childMapper, Function<Node, Object> itemMapper) {
+        return get(node, OFFICIAL, childMapper, childMapper, itemMapper);
+    }
+
+    private static Object get(Node node, Strategy strategy, Function<Node, Object> typeMapper,
+                              Function<Node, Object> childMapper, Function<Node, Object> itemMapper) {
         validatePayloadKind(node);
 
         if (node.isReferenceOnly()) {
@@ -50,7 +64,7 @@ public class NodeToMapListOrValue {
 
         List<Object> items = node.getItems() == null ? null :
                 node.getItems().stream()
-                        .map(item -> get(item, strategy))
+                        .map(itemMapper)
                         .collect(Collectors.toList());
         if (items != null && strategy == SIMPLE)
             return items;
@@ -72,15 +86,15 @@ public class NodeToMapListOrValue {
             }
         } else if (node.getType() != null) {
             valueTypeBlueId = node.getType().getBlueId();
-            result.put(OBJECT_TYPE, get(node.getType()));
+            result.put(OBJECT_TYPE, typeMapper.apply(node.getType()));
         }
 
         if (node.getItemType() != null)
-            result.put(OBJECT_ITEM_TYPE, get(node.getItemType()));
+            result.put(OBJECT_ITEM_TYPE, typeMapper.apply(node.getItemType()));
         if (node.getKeyType() != null)
-            result.put(OBJECT_KEY_TYPE, get(node.getKeyType()));
+            result.put(OBJECT_KEY_TYPE, typeMapper.apply(node.getKeyType()));
         if (node.getValueType() != null)
-            result.put(OBJECT_VALUE_TYPE, get(node.getValueType()));
+            result.put(OBJECT_VALUE_TYPE, typeMapper.apply(node.getValueType()));
         if (node.getMergePolicy() != null)
             result.put(OBJECT_MERGE_POLICY, node.getMergePolicy());
         if (node.getPosition() != null)
@@ -94,7 +108,7 @@ public class NodeToMapListOrValue {
         if (node.getBlue() != null)
             result.put(OBJECT_BLUE, node.getBlue());
         if (node.getProperties() != null)
-            node.getProperties().forEach((key, propertyValue) -> result.put(key, get(propertyValue, strategy)));
+            node.getProperties().forEach((key, propertyValue) -> result.put(key, childMapper.apply(propertyValue)));
         return result;
     }
 
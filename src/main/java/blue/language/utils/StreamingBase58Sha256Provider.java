@@ -0,0 +1,53 @@
+package blue.language.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Function;
+
+/**
+ * Computes the same Base58-encoded SHA-256 of canonical JSON as {@link Base58Sha256Provider},
+ * but streams RFC 8785 bytes straight into a per-thread {@link MessageDigest} instead of
+ * serializing to a JSON string and reparsing it for canonicalization.
+ * <p>
+ * Values the canonical writer does not understand fall back to {@link Base58Sha256Provider}.
+ */
+public class StreamingBase58Sha256Provider implements Function<Object, String> {
+
+    private static final ThreadLocal<CanonicalJsonWriter> WRITER =
+            ThreadLocal.withInitial(() -> new CanonicalJsonWriter(sha256Digest()));
+
+    private final Base58Sha256Provider fallback = new Base58Sha256Provider();
+
+    @Override
+    public String apply(Object object) {
+        CanonicalJsonWriter writer = WRITER.get().reset();
+        byte[] hash;
+        try {
+            hash = writer.write(object).digest();
+        } catch (CanonicalJsonWriter.UnsupportedValueException e) {
+            return fallback.apply(object);
+        }
+        return Base58.encode(hash);
+    }
+
+    /**
+     * Same hash as {@link #apply(Object)}, kept as a {@link CompactBlueId} so that no Base58 string is built.
+     */
+    public CompactBlueId applyCompact(Object object) {
+        CanonicalJsonWriter writer = WRITER.get().reset();
+        try {
+            return CompactBlueId.fromDigest(writer.write(object).digest());
+        } catch (CanonicalJsonWriter.UnsupportedValueException e) {
+            return CompactBlueId.of(fallback.apply(object));
+        }
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("Error calculating SHA-256 hash", e);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package blue.language.utils;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes {@value #INDEX_RESOURCE} listing every {@code @TypeBlueId} class in the
+ * compilation, so {@link TypeClassResolver} can register them without scanning the classpath.
+ *
+ * <p>Each line holds a binary class name followed by the tab-separated BlueIds declared in the
+ * annotation. Classes whose BlueId comes from a repository file are listed without BlueIds and
+ * resolved through {@link BlueIdResolver} when the index is loaded.</p>
+ *
+ * <p>This class only depends on the annotation processing API and refers to the annotation by
+ * name, so it can be compiled ahead of the rest of the library. It is registered only in the
+ * separate {@code type-index} jar, which downstream builds add to their annotation processor path
+ * to opt in.</p>
+ */
+@SupportedAnnotationTypes(TypeBlueIdIndexProcessor.TYPE_BLUE_ID)
+public class TypeBlueIdIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_RESOURCE = "META-INF/blue-language/type-blue-ids.index";
+
+    static final String TYPE_BLUE_ID = "blue.language.model.TypeBlueId";
+
+    private final Map<String, List<String>> entries = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(TYPE_BLUE_ID);
+        if (annotation != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement) {
+                    TypeElement type = (TypeElement) element;
+                    String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+                    entries.put(className, declaredBlueIds(type));
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private List<String> declaredBlueIds(TypeElement type) {
+        List<String> blueIds = new ArrayList<>();
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!TYPE_BLUE_ID.equals(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                String name = entry.getKey().getSimpleName().toString();
+                Object value = entry.getValue().getValue();
+                if ("defaultValue".equals(name)) {
+                    addBlueId(blueIds, value);
+                } else if ("value".equals(name) && value instanceof List) {
+                    for (Object item : (List<?>) value) {
+                        addBlueId(blueIds, ((AnnotationValue) item).getValue());
+                    }
+                }
+            }
+        }
+        return blueIds;
+    }
+
+    private void addBlueId(List<String> blueIds, Object value) {
+        String blueId = value != null ? value.toString() : "";
+        if (!blueId.isEmpty() && !blueIds.contains(blueId)) {
+            blueIds.add(blueId);
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, List<String>> entry : entries.entrySet()) {
+                    writer.write(entry.getKey());
+                    for (String blueId : entry.getValue()) {
+                        writer.write('\t');
+                        writer.write(blueId);
+                    }
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write " + INDEX_RESOURCE + ": " + e.getMessage());
+        }
+    }
+}
@@ -8,8 +8,17 @@ import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -26,9 +35,44 @@ public class TypeClassResolver {
         }
     }
 
+    /**
+     * Registers the {@code @TypeBlueId} classes of {@code packageName} and its subpackages. Classpath
+     * roots carrying a {@link TypeBlueIdIndexProcessor build-time index} are read from the index;
+     * only roots without one are scanned.
+     */
     public TypeClassResolver scanPackage(String packageName) {
+        ClassLoader classLoader = classLoader();
+        Set<String> indexedRoots = new HashSet<>();
+        List<String[]> entries = new ArrayList<>();
+        try {
+            Enumeration<URL> indexes = classLoader.getResources(TypeBlueIdIndexProcessor.INDEX_RESOURCE);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                readIndex(index, packageName, entries);
+                String location = index.toExternalForm();
+                indexedRoots.add(location.substring(0, location.length() - TypeBlueIdIndexProcessor.INDEX_RESOURCE.length()));
+            }
+        } catch (IOException e) {
+            indexedRoots.clear();
+            entries.clear();
+        }
+
+        for (String[] entry : entries) {
+            registerIndexEntry(entry, classLoader);
+        }
+
+        List<URL> unindexedRoots = new ArrayList<>();
+        for (URL root : ClasspathHelper.forPackage(packageName)) {
+            if (!indexedRoots.contains(root.toExternalForm())) {
+                unindexedRoots.add(root);
+            }
+        }
+        if (unindexedRoots.isEmpty()) {
+            return this;
+        }
+
         Reflections reflections = new Reflections(new ConfigurationBuilder()
-                .setUrls(ClasspathHelper.forPackage(packageName))
+                .setUrls(unindexedRoots)
                 .filterInputsBy(new FilterBuilder().includePackage(packageName))
                 .setScanners(Scanners.TypesAnnotated, Scanners.SubTypes));
 
@@ -40,6 +84,39 @@ public class TypeClassResolver {
         return this;
     }
 
+    private void registerIndexEntry(String[] entry, ClassLoader classLoader) {
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(entry[0], false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return;
+        }
+        if (entry.length == 1) {
+            registerAnnotatedClass(clazz);
+            return;
+        }
+        for (int i = 1; i < entry.length; i++) {
+            register(entry[i], clazz);
+        }
+    }
+
+    private void readIndex(URL index, String packageName, List<String[]> entries) throws IOException {
+        String prefix = packageName + ".";
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(prefix)) {
+                    entries.add(line.split("\t"));
+                }
+            }
+        }
+    }
+
+    private ClassLoader classLoader() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader != null ? contextClassLoader : TypeClassResolver.class.getClassLoader();
+    }
+
     public TypeClassResolver registerAnnotatedClass(Class<?> clazz) {
         TypeBlueId annotation = clazz.getAnnotation(TypeBlueId.class);
         if (annotation == null) {
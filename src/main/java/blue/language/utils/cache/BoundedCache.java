@@ -0,0 +1,261 @@
+package blue.language.utils.cache;
+
+import java.lang.ref.SoftReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Concurrent cache bounded by total entry weight with segmented LRU eviction.
+ *
+ * <p>New entries enter a probation segment and are promoted to a protected segment (80% of the
+ * weight budget) when read again, so one-off entries are evicted before entries that keep being
+ * hit. Reads are served lock-free from a {@link ConcurrentHashMap}; recency is updated only when
+ * the eviction lock is free, so under contention some reorderings are skipped rather than waited
+ * for.</p>
+ */
+public final class BoundedCache<K, V> {
+
+    private static final int NEW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int REMOVED = 3;
+
+    private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Entry<K, V> probation = Entry.sentinel();
+    private final Entry<K, V> protectedSegment = Entry.sentinel();
+    private final ToLongFunction<? super V> weigher;
+    private final long maximumWeight;
+    private final long maximumProtectedWeight;
+    private final boolean softValues;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile long weight;
+    private long protectedWeight;
+
+    public BoundedCache(CacheSettings settings, ToLongFunction<? super V> weigher) {
+        this.weigher = Objects.requireNonNull(weigher, "weigher");
+        this.maximumWeight = settings.getMaximumWeight();
+        this.maximumProtectedWeight = maximumWeight - maximumWeight / 5;
+        this.softValues = settings.isSoftValues();
+    }
+
+    public V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        V value = entry != null ? entry.value() : null;
+        if (value == null) {
+            if (entry != null) {
+                remove(entry);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (evictionLock.tryLock()) {
+            try {
+                onAccess(entry);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached value for {@code key} without recording a hit or miss or refreshing its recency.
+     */
+    public V peek(K key) {
+        Entry<K, V> entry = entries.get(key);
+        return entry != null ? entry.value() : null;
+    }
+
+    /**
+     * Caches {@code value} unless a live value is already present, and returns the cached value.
+     * Values heavier than the whole budget are returned without being cached.
+     */
+    public V putIfAbsent(K key, V value) {
+        Objects.requireNonNull(value, "value");
+        long entryWeight = Math.max(0, weigher.applyAsLong(value));
+        if (entryWeight > maximumWeight) {
+            Entry<K, V> existing = entries.get(key);
+            V existingValue = existing != null ? existing.value() : null;
+            return existingValue != null ? existingValue : value;
+        }
+        Entry<K, V> created = new Entry<>(key, value, entryWeight, softValues);
+        while (true) {
+            Entry<K, V> existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                break;
+            }
+            V existingValue = existing.value();
+            if (existingValue != null) {
+                return existingValue;
+            }
+            if (entries.replace(key, existing, created)) {
+                evictionLock.lock();
+                try {
+                    discard(existing);
+                } finally {
+                    evictionLock.unlock();
+                }
+                break;
+            }
+        }
+
+        evictionLock.lock();
+        try {
+            if (created.segment == NEW && entries.get(key) == created) {
+                created.linkLast(probation);
+                created.segment = PROBATION;
+                weight += entryWeight;
+                evict();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    public void clear() {
+        evictionLock.lock();
+        try {
+            entries.clear();
+            unlinkAll(probation);
+            unlinkAll(protectedSegment);
+            weight = 0;
+            protectedWeight = 0;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long weight() {
+        return weight;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weight);
+    }
+
+    private void remove(Entry<K, V> entry) {
+        evictionLock.lock();
+        try {
+            if (entries.remove(entry.key, entry)) {
+                discard(entry);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void onAccess(Entry<K, V> entry) {
+        if (entry.segment == PROBATION) {
+            entry.unlink();
+            entry.linkLast(protectedSegment);
+            entry.segment = PROTECTED;
+            protectedWeight += entry.weight;
+            while (protectedWeight > maximumProtectedWeight && protectedSegment.next != entry) {
+                Entry<K, V> demoted = protectedSegment.next;
+                demoted.unlink();
+                demoted.linkLast(probation);
+                demoted.segment = PROBATION;
+                protectedWeight -= demoted.weight;
+            }
+        } else if (entry.segment == PROTECTED) {
+            entry.unlink();
+            entry.linkLast(protectedSegment);
+        }
+    }
+
+    private void evict() {
+        while (weight > maximumWeight) {
+            Entry<K, V> victim = probation.next != probation ? probation.next : protectedSegment.next;
+            if (victim == protectedSegment) {
+                return;
+            }
+            entries.remove(victim.key, victim);
+            discard(victim);
+            evictions.increment();
+        }
+    }
+
+    private void discard(Entry<K, V> entry) {
+        if (entry.segment == PROBATION || entry.segment == PROTECTED) {
+            entry.unlink();
+            weight -= entry.weight;
+            if (entry.segment == PROTECTED) {
+                protectedWeight -= entry.weight;
+            }
+        }
+        entry.segment = REMOVED;
+    }
+
+    private void unlinkAll(Entry<K, V> sentinel) {
+        for (Entry<K, V> entry = sentinel.next; entry != sentinel; ) {
+            Entry<K, V> next = entry.next;
+            entry.segment = REMOVED;
+            entry.prev = null;
+            entry.next = null;
+            entry = next;
+        }
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final Object value;
+        private final long weight;
+        private int segment = NEW;
+        private Entry<K, V> prev;
+        private Entry<K, V> next;
+
+        private Entry(K key, V value, long weight, boolean soft) {
+            this.key = key;
+            this.value = soft ? new SoftReference<>(value) : value;
+            this.weight = weight;
+        }
+
+        private static <K, V> Entry<K, V> sentinel() {
+            Entry<K, V> sentinel = new Entry<>(null, null, 0, false);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V value() {
+            return value instanceof SoftReference ? ((SoftReference<V>) value).get() : (V) value;
+        }
+
+        private void linkLast(Entry<K, V> sentinel) {
+            prev = sentinel.prev;
+            next = sentinel;
+            sentinel.prev.next = this;
+            sentinel.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
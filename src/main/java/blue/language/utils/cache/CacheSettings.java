@@ -0,0 +1,54 @@
+package blue.language.utils.cache;
+
+/**
+ * Size bound and value strength for a {@link BoundedCache}.
+ *
+ * <p>The bound is a total weight, e.g. the number of nodes held by cached trees.</p>
+ */
+public final class CacheSettings {
+
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 1_000_000L;
+
+    private final long maximumWeight;
+    private final boolean softValues;
+
+    private CacheSettings(long maximumWeight, boolean softValues) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximumWeight must not be negative: " + maximumWeight);
+        }
+        this.maximumWeight = maximumWeight;
+        this.softValues = softValues;
+    }
+
+    public static CacheSettings defaults() {
+        return maximumWeight(DEFAULT_MAXIMUM_WEIGHT);
+    }
+
+    public static CacheSettings maximumWeight(long maximumWeight) {
+        return new CacheSettings(maximumWeight, false);
+    }
+
+    public static CacheSettings unbounded() {
+        return maximumWeight(Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns settings that additionally let the garbage collector reclaim cached values under memory pressure.
+     */
+    public CacheSettings softValues() {
+        return new CacheSettings(maximumWeight, true);
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public boolean isSoftValues() {
+        return softValues;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheSettings{maximumWeight=" + maximumWeight + ", softValues=" + softValues + '}';
+    }
+}
@@ -0,0 +1,52 @@
+package blue.language.utils.cache;
+
+/**
+ * Point-in-time counters of a {@link BoundedCache}.
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long size;
+    private final long weight;
+
+    CacheStats(long hitCount, long missCount, long evictionCount, long size, long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public long hitCount() {
+        return hitCount;
+    }
+
+    public long missCount() {
+        return missCount;
+    }
+
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long weight() {
+        return weight;
+    }
+
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount
+                + ", size=" + size + ", weight=" + weight + '}';
+    }
+}
@@ -0,0 +1,132 @@
+package blue.language.utils.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one: a caller that asks for a key which is
+ * already being loaded waits for that load instead of starting its own. Nothing is retained once
+ * a load completes, so results that should be reused must be cached by the loader.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Loads every key, waiting for keys already in flight and passing the rest to {@code loader}
+     * in one call. Keys missing from the loader's result map to {@code null}.
+     */
+    public Map<K, V> executeAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Map<K, CompletableFuture<V>> awaited = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (awaited.containsKey(key) || owned.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<V> own = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+            if (existing != null) {
+                awaited.put(key, existing);
+            } else {
+                owned.put(key, own);
+            }
+        }
+        Map<K, V> loaded = null;
+        try {
+            if (!owned.isEmpty()) {
+                loaded = loader.apply(new ArrayList<>(owned.keySet()));
+            }
+        } catch (RuntimeException | Error e) {
+            owned.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            Map<K, V> results = loaded;
+            owned.forEach((key, future) -> {
+                future.complete(results != null ? results.get(key) : null);
+                inFlight.remove(key, future);
+            });
+        }
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (owned.containsKey(key)) {
+                result.put(key, loaded != null ? loaded.get(key) : null);
+            } else {
+                result.put(key, join(awaited.get(key)));
+            }
+        }
+        return result;
+    }
+
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<V> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, own);
+            own.completeExceptionally(e);
+            return own;
+        }
+        load.whenComplete((value, error) -> {
+            inFlight.remove(key, own);
+            if (error != null) {
+                own.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error);
+            } else {
+                own.complete(value);
+            }
+        });
+        return own;
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -13,6 +13,9 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static blue.language.utils.Properties.INTEGER_TYPE_BLUE_ID;
 import static org.junit.jupiter.api.Assertions.*;
@@ -85,6 +88,33 @@ public class NodeToObjectConverterTest {
         assertEquals(X.TestEnum.SOME_ENUM_VALUE, x.enumField);
     }
 
+    @Test
+    public void bindingPlansAreComputedOnceAndShareableAcrossThreads() throws Exception {
+        Node xNode = blue.yamlToNode("type:\n" +
+                "  blueId: X-BlueId\n" +
+                "intField: 42\n" +
+                "stringField: shared");
+
+        assertSame(BindingPlan.of(X.class), BindingPlan.of(X.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<X>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> converter.convert(xNode.clone(), X.class)));
+            }
+            for (Future<X> future : futures) {
+                X x = future.get();
+                assertEquals(42, x.intField);
+                assertEquals("shared", x.stringField);
+                assertEquals(0L, x.longField);
+                assertNull(x.integerField);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testX1Conversion() throws Exception {
         String x1Yaml = "type:\n" +
@@ -10,6 +10,7 @@ import blue.language.processor.contracts.IncrementPropertyContractProcessor;
 import blue.language.processor.contracts.NormalizingTestEventChannelProcessor;
 import blue.language.processor.contracts.SetPropertyOnEventContractProcessor;
 import blue.language.processor.contracts.TestEventChannelProcessor;
+import blue.language.snapshot.FrozenNode;
 import java.math.BigInteger;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Verifies checkpoint behaviour for the {@link ChannelRunner} in isolation.
@@ -53,23 +55,37 @@ final class ChannelRunnerTest {
 
         Node event = blue.objectToNode(new TestEvent().eventId("evt-1").kind("original"));
 
-        runner.runExternalChannel("/", bundle, channelBinding, event);
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(event));
 
         Node counterNode = execution.runtime().document().getProperties().get("counter");
         assertNotNull(counterNode);
         assertEquals(BigInteger.ONE, counterNode.getValue());
         assertNotNull(bundle.marker(ProcessorContractConstants.KEY_CHECKPOINT));
 
-        runner.runExternalChannel("/", bundle, channelBinding, event);
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(event));
         BigInteger afterDuplicate = (BigInteger) execution.runtime().document().getProperties().get("counter").getValue();
         assertEquals(BigInteger.ONE, afterDuplicate);
 
         Node secondEvent = blue.objectToNode(new TestEvent().eventId("evt-2").kind("original"));
-        runner.runExternalChannel("/", bundle, channelBinding, secondEvent);
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(secondEvent));
         BigInteger afterNewEvent = (BigInteger) execution.runtime().document().getProperties().get("counter").getValue();
         assertEquals(new BigInteger("2"), afterNewEvent);
     }
 
+    @Test
+    void channelsOfOneEventShareASingleEventConversion() {
+        Blue blue = new Blue();
+        ProcessorEngine.Execution execution = new ProcessorEngine.Execution(blue.getDocumentProcessor(), new Node());
+        FrozenNode event = FrozenNode.fromResolvedNode(blue.objectToNode(new TestEvent().eventId("evt-1")));
+        FrozenNode nextEvent = FrozenNode.fromResolvedNode(blue.objectToNode(new TestEvent().eventId("evt-2")));
+
+        Object converted = execution.eventObject(event);
+
+        assertEquals("evt-1", ((TestEvent) converted).getEventId());
+        assertSame(converted, execution.eventObject(event));
+        assertEquals("evt-2", ((TestEvent) execution.eventObject(nextEvent)).getEventId());
+    }
+
     @Test
     void skipsDuplicateEventsByEventIdEvenIfPayloadChanges() {
         Blue blue = new Blue();
@@ -101,10 +117,10 @@ final class ChannelRunnerTest {
         Node sameIdDifferentPayload = blue.objectToNode(new TestEvent().eventId("evt-1").kind("mutated"));
         Node newId = blue.objectToNode(new TestEvent().eventId("evt-2").kind("mutated"));
 
-        runner.runExternalChannel("/", bundle, channelBinding, first);
-        runner.runExternalChannel("/", bundle, channelBinding, sameIdDifferentPayload);
-        runner.runExternalChannel("/", bundle, channelBinding, sameIdDifferentPayload);
-        runner.runExternalChannel("/", bundle, channelBinding, newId);
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(first));
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(sameIdDifferentPayload));
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(sameIdDifferentPayload));
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(newId));
 
         Node counterNode = execution.runtime().document().getProperties().get("counter");
         assertNotNull(counterNode);
@@ -142,9 +158,9 @@ final class ChannelRunnerTest {
         Node duplicate = blue.objectToNode(new TestEvent().kind("original"));
         Node different = blue.objectToNode(new TestEvent().kind("other"));
 
-        runner.runExternalChannel("/", bundle, channelBinding, first);
-        runner.runExternalChannel("/", bundle, channelBinding, duplicate);
-        runner.runExternalChannel("/", bundle, channelBinding, different);
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(first));
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(duplicate));
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(different));
 
         Node counterNode = execution.runtime().document().getProperties().get("counter");
         assertNotNull(counterNode);
@@ -183,7 +199,7 @@ final class ChannelRunnerTest {
         ContractBundle.ChannelBinding channelBinding = bundle.channelsOfType(ChannelContract.class).get(0);
         Node event = blue.objectToNode(new TestEvent().eventId("evt-1").kind("original"));
 
-        runner.runExternalChannel("/", bundle, channelBinding, event);
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(event));
 
         Node flagNode = execution.runtime().document().getProperties().get("flag");
         assertNotNull(flagNode);
@@ -227,8 +243,8 @@ final class ChannelRunnerTest {
         Node first = blue.objectToNode(new TestEvent().kind("first"));
         Node second = blue.objectToNode(new TestEvent().kind("second"));
 
-        runner.runExternalChannel("/", bundle, channelBinding, first);
-        runner.runExternalChannel("/", bundle, channelBinding, second);
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(first));
+        runner.runExternalChannel("/", bundle, channelBinding, FrozenNode.fromResolvedNode(second));
 
         Node counterNode = execution.runtime().document().getProperties().get("counter");
         assertNotNull(counterNode);
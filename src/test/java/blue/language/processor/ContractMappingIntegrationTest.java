@@ -133,4 +133,35 @@ class ContractMappingIntegrationTest {
         assertEquals(7, setProperty.getPropertyValue());
         assertEquals("/custom/path/", setProperty.getPath());
     }
+
+    @Test
+    void contractLoaderReusesCompiledContractsButIsolatesPerRunState() throws Exception {
+        String yaml = new String(
+                Files.readAllBytes(Paths.get("src/test/resources/processor/contracts/all-contracts.blue")),
+                StandardCharsets.UTF_8
+        );
+        FrozenNode root = FrozenNode.fromResolvedNode(new Blue().yamlToNode(yaml));
+        ContractProcessorRegistry registry = ContractProcessorRegistryBuilder.create()
+                .register(new SetPropertyContractProcessor())
+                .build();
+        TypeClassResolver resolver = new TypeClassResolver("blue.language.processor.model");
+        ContractLoader loader = new ContractLoader(registry, new NodeToObjectConverter(resolver), resolver);
+
+        ContractBundle first = loader.load(root, "/");
+        ContractBundle second = loader.load(root, "/");
+
+        assertNotSame(first, second);
+        assertSame(first.handlersFor("lifecycleChannel").get(0).contract(),
+                second.handlersFor("lifecycleChannel").get(0).contract());
+        assertSame(first.channel("lifecycleChannel"), second.channel("lifecycleChannel"));
+        ChannelEventCheckpoint firstCheckpoint = (ChannelEventCheckpoint) first.marker("checkpoint");
+        ChannelEventCheckpoint secondCheckpoint = (ChannelEventCheckpoint) second.marker("checkpoint");
+        assertNotSame(firstCheckpoint, secondCheckpoint);
+        firstCheckpoint.updateEvent("lifecycleChannel", new Node().value("seen"));
+        assertNull(secondCheckpoint.lastEvent("lifecycleChannel"));
+
+        registry.register(new SetPropertyContractProcessor());
+        ContractBundle afterRegistration = loader.load(root, "/");
+        assertNotSame(first.channel("lifecycleChannel"), afterRegistration.channel("lifecycleChannel"));
+    }
 }
@@ -0,0 +1,158 @@
+package blue.language.processor;
+
+import blue.language.Blue;
+import blue.language.model.Node;
+import blue.language.processor.contracts.SetPropertyOnEventContractProcessor;
+import blue.language.processor.contracts.TestEventChannelProcessor;
+import blue.language.snapshot.ResolvedSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DocumentProcessorBatchTest {
+
+    @Test
+    void processDocumentsReturnsResultsInInputOrderAndMatchesSequentialProcessing() {
+        Blue blue = blueWithProcessors();
+        List<DocumentEventPair> batch = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            Node initialized = blue.initializeDocument(document(i)).document().clone();
+            batch.add(DocumentEventPair.of(initialized, event(i % 3 == 0 ? "skip" : "apply")));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<DocumentProcessingResult> results;
+        try {
+            results = blue.processDocuments(batch, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(batch.size(), results.size());
+        for (int i = 0; i < batch.size(); i++) {
+            DocumentProcessingResult sequential = blue.processDocument(
+                    batch.get(i).document().clone(), batch.get(i).event());
+            assertEquals(sequential.blueId(), results.get(i).blueId());
+            if (i % 3 == 0) {
+                assertEquals(null, results.get(i).document().getProperties().get("result"));
+            } else {
+                assertEquals(i, results.get(i).document().getAsInteger("/result/value"));
+            }
+        }
+    }
+
+    @Test
+    void processDocumentsAsyncCompletesEachPairIndependently() {
+        Blue blue = blueWithProcessors();
+        List<DocumentEventPair> batch = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            batch.add(DocumentEventPair.of(blue.initializeDocument(document(i)).document().clone(), event("apply")));
+        }
+
+        List<CompletableFuture<DocumentProcessingResult>> futures = blue.processDocumentsAsync(batch, Runnable::run);
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).join().document().getAsInteger("/result/value"));
+        }
+    }
+
+    @Test
+    void processDocumentsRethrowsProcessingFailures() {
+        Blue blue = blueWithProcessors();
+        List<DocumentEventPair> batch = new ArrayList<>();
+        batch.add(DocumentEventPair.of(blue.initializeDocument(document(1)).document().clone(), event("apply")));
+        batch.add(DocumentEventPair.of(document(2), event("apply")));
+
+        assertThrows(IllegalStateException.class, () -> blue.processDocuments(batch, Runnable::run));
+    }
+
+    @Test
+    void processDocumentWithEventListMatchesChainedSingleEventCalls() {
+        Blue blue = blueWithProcessors();
+        DocumentProcessingResult initialized = blue.initializeDocument(document(7));
+        List<Node> events = Arrays.asList(event("skip"), event("apply"), event("apply"), event("skip"), event("apply"));
+
+        List<DocumentProcessingResult> replayed = blue.processDocument(initialized.snapshot(), events);
+
+        ResolvedSnapshot current = initialized.snapshot();
+        assertEquals(events.size(), replayed.size());
+        for (int i = 0; i < events.size(); i++) {
+            DocumentProcessingResult sequential = blue.processDocument(current, events.get(i));
+            assertEquals(sequential.blueId(), replayed.get(i).blueId());
+            assertEquals(sequential.totalGas(), replayed.get(i).totalGas());
+            assertEquals(sequential.triggeredEvents().size(), replayed.get(i).triggeredEvents().size());
+            current = sequential.snapshot();
+        }
+        assertEquals(7, replayed.get(4).document().getAsInteger("/result/value"));
+    }
+
+    @Test
+    void processDocumentWithEventIteratorProcessesEachEventOnDemand() {
+        Blue blue = blueWithProcessors();
+        DocumentProcessingResult initialized = blue.initializeDocument(document(3));
+        List<Node> consumed = new ArrayList<>();
+        Iterator<Node> events = Arrays.asList(event("apply"), event("skip")).iterator();
+        Iterator<Node> tracking = new Iterator<Node>() {
+            @Override
+            public boolean hasNext() {
+                return events.hasNext();
+            }
+
+            @Override
+            public Node next() {
+                Node event = events.next();
+                consumed.add(event);
+                return event;
+            }
+        };
+
+        Iterator<DocumentProcessingResult> results = blue.processDocument(initialized.snapshot(), tracking);
+
+        assertEquals(0, consumed.size());
+        assertEquals(3, results.next().document().getAsInteger("/result/value"));
+        assertEquals(1, consumed.size());
+        assertEquals(3, results.next().document().getAsInteger("/result/value"));
+        assertFalse(results.hasNext());
+        assertThrows(IllegalStateException.class,
+                () -> blue.processDocument(blue.loadSnapshot(document(4)), Arrays.asList(event("apply"))));
+    }
+
+    private Blue blueWithProcessors() {
+        Blue blue = new Blue();
+        blue.registerContractProcessor(new TestEventChannelProcessor());
+        blue.registerContractProcessor(new SetPropertyOnEventContractProcessor());
+        return blue;
+    }
+
+    private Node document(int index) {
+        return new Blue().yamlToNode("name: Batch " + index + "\n" +
+                "contracts:\n" +
+                "  testChannel:\n" +
+                "    type:\n" +
+                "      blueId: TestEventChannel\n" +
+                "  recorder:\n" +
+                "    channel: testChannel\n" +
+                "    type:\n" +
+                "      blueId: SetPropertyOnEvent\n" +
+                "    expectedKind: apply\n" +
+                "    propertyKey: /result\n" +
+                "    propertyValue: " + index + "\n");
+    }
+
+    private Node event(String kind) {
+        return new Blue().yamlToNode("type:\n" +
+                "  blueId: TestEvent\n" +
+                "eventId: evt-" + kind + "\n" +
+                "kind: " + kind + "\n");
+    }
+}
@@ -0,0 +1,292 @@
+package blue.language.processor;
+
+import blue.language.Blue;
+import blue.language.model.Node;
+import blue.language.provider.BasicNodeProvider;
+import blue.language.processor.contracts.TestEventChannelProcessor;
+import blue.language.processor.model.IncrementProperty;
+import blue.language.processor.model.JsonPatch;
+import blue.language.processor.model.SetProperty;
+import blue.language.processor.model.TestEvent;
+import blue.language.snapshot.ResolvedSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DocumentProcessorDeferredCommitTest {
+
+    private static final String DOCUMENT = "name: Counter\n" +
+            "contracts:\n" +
+            "  testChannel:\n" +
+            "    type:\n" +
+            "      blueId: TestEventChannel\n" +
+            "  aChannel:\n" +
+            "    type:\n" +
+            "      blueId: DocumentUpdateChannel\n" +
+            "    path: /a\n" +
+            "  bChannel:\n" +
+            "    type:\n" +
+            "      blueId: DocumentUpdateChannel\n" +
+            "    path: /b\n" +
+            "  writer:\n" +
+            "    channel: testChannel\n" +
+            "    type:\n" +
+            "      blueId: IncrementProperty\n" +
+            "    propertyKey: /counter\n" +
+            "  onA:\n" +
+            "    channel: aChannel\n" +
+            "    type:\n" +
+            "      blueId: SetProperty\n" +
+            "    propertyKey: /a\n" +
+            "  onB:\n" +
+            "    channel: bChannel\n" +
+            "    type:\n" +
+            "      blueId: SetProperty\n" +
+            "    propertyKey: /b\n";
+
+    @Test
+    void handlerPatchesAreResolvedOnceAndMatchImmediateCommits() {
+        List<String> immediateUpdates = new ArrayList<>();
+        Blue immediateBlue = blue(immediateUpdates);
+        CountingSnapshotManager immediateManager = new CountingSnapshotManager(immediateBlue.getDocumentProcessor().snapshotManager());
+        DocumentProcessor immediate = processor(immediateBlue, immediateManager, false);
+        List<String> deferredUpdates = new ArrayList<>();
+        Blue deferredBlue = blue(deferredUpdates);
+        CountingSnapshotManager deferredManager = new CountingSnapshotManager(deferredBlue.getDocumentProcessor().snapshotManager());
+        DocumentProcessor deferred = processor(deferredBlue, deferredManager, true);
+        ResolvedSnapshot initializedImmediately = immediate.initializeDocument(immediateBlue.yamlToNode(DOCUMENT)).snapshot();
+        ResolvedSnapshot initializedDeferred = deferred.initializeDocument(deferredBlue.yamlToNode(DOCUMENT)).snapshot();
+        immediateManager.reset();
+        deferredManager.reset();
+
+        DocumentProcessingResult expected = immediate.processDocument(initializedImmediately, event("evt-1"));
+        DocumentProcessingResult actual = deferred.processDocument(initializedDeferred, event("evt-1"));
+
+        assertEquals(expected.blueId(), actual.blueId());
+        assertEquals(expected.totalGas(), actual.totalGas());
+        assertEquals(3, actual.document().getAsInteger("/counter/value"));
+        assertEquals(Arrays.asList("/a", "/b", "/a"), deferredUpdates);
+        assertEquals(immediateUpdates, deferredUpdates);
+        assertEquals(0, immediateManager.applyPatchesCalls);
+        assertEquals(Arrays.asList(6), deferredManager.patchesPerCall);
+        assertEquals(immediateManager.applyPatchCalls - 6, deferredManager.applyPatchCalls);
+    }
+
+    @Test
+    void failedDeferredCommitDropsTheHandlersPatchesAndTerminatesItsScope() {
+        Blue blue = blue(new ArrayList<>());
+        CountingSnapshotManager manager = new CountingSnapshotManager(blue.getDocumentProcessor().snapshotManager());
+        DocumentProcessor processor = processor(blue, manager, true);
+        ResolvedSnapshot initialized = processor.initializeDocument(blue.yamlToNode(DOCUMENT)).snapshot();
+        manager.failRebuild = true;
+
+        DocumentProcessingResult result = processor.processDocument(initialized, event("evt-1"));
+
+        assertNull(result.document().getProperties().get("counter"));
+        assertNull(result.document().getProperties().get("a"));
+        assertEquals("fatal", result.document().getAsText("/contracts/terminated/cause/value"));
+    }
+
+    @Test
+    void failedDeferredCommitOnMutableDocumentDropsStagedWrites() {
+        BasicNodeProvider nodeProvider = new BasicNodeProvider();
+        nodeProvider.addSingleDocs(
+                "name: Fixed One\n" +
+                "x: 1");
+        Blue blue = new Blue(nodeProvider);
+        String yaml = "name: Instance\n" +
+                "type:\n" +
+                "  blueId: " + nodeProvider.getBlueIdByName("Fixed One") + "\n" +
+                "x: 1";
+        List<DocumentProcessingRuntime> runtimes = Arrays.asList(
+                new DocumentProcessingRuntime(blue.resolve(YAML_MAPPER.readValue(yaml, Node.class)),
+                        blue.conformanceEngine()),
+                new DocumentProcessingRuntime(blue.resolve(YAML_MAPPER.readValue(yaml, Node.class)),
+                        blue.conformanceEngine(),
+                        blue.getDocumentProcessor().snapshotManager()));
+
+        for (DocumentProcessingRuntime runtime : runtimes) {
+            runtime.beginDeferredCommit();
+            runtime.applyPatch("/", JsonPatch.add("/y", new Node().value(5)));
+            runtime.applyPatch("/", JsonPatch.replace("/x", new Node().value(2)));
+
+            assertThrows(IllegalArgumentException.class, runtime::endDeferredCommit);
+
+            assertNull(runtime.canonicalNodeAt("/y"));
+            assertEquals(BigInteger.ONE, runtime.resolvedNodeAt("/x").getValue());
+            assertNull(runtime.resolvedNodeAt("/y"));
+        }
+    }
+
+    @Test
+    void discardedNestedDeferredCommitKeepsWritesStagedBeforeIt() {
+        DocumentProcessingRuntime runtime = new DocumentProcessingRuntime(new Node().properties("x", new Node().value(1)));
+
+        runtime.beginDeferredCommit();
+        runtime.applyPatch("/", JsonPatch.add("/a", new Node().value(1)));
+        runtime.beginDeferredCommit();
+        runtime.applyPatch("/", JsonPatch.add("/b", new Node().value(2)));
+        runtime.discardDeferredCommit();
+        runtime.endDeferredCommit();
+
+        assertEquals(1, runtime.document().getAsInteger("/a"));
+        assertNull(runtime.document().getProperties().get("b"));
+    }
+
+    @Test
+    void failingCascadeHandlerDropsOnlyItsOwnStagedPatches() {
+        Blue blue = new Blue();
+        blue.registerContractProcessor(new TestEventChannelProcessor());
+        blue.registerContractProcessor(new HandlerProcessor<SetProperty>() {
+            @Override
+            public Class<SetProperty> contractType() {
+                return SetProperty.class;
+            }
+
+            @Override
+            public void execute(SetProperty contract, ProcessorExecutionContext context) {
+                String pointer = context.resolvePointer(contract.getPropertyKey());
+                context.applyPatch(JsonPatch.add(pointer, new Node().value(1)));
+                if (pointer.equals("/b")) {
+                    throw new IllegalStateException("handler failed");
+                }
+            }
+        });
+        DocumentProcessor processor = processor(blue, blue.getDocumentProcessor().snapshotManager(), true);
+        ResolvedSnapshot initialized = processor.initializeDocument(blue.yamlToNode("name: Cascade\n" +
+                "contracts:\n" +
+                "  testChannel:\n" +
+                "    type:\n" +
+                "      blueId: TestEventChannel\n" +
+                "  aChannel:\n" +
+                "    type:\n" +
+                "      blueId: DocumentUpdateChannel\n" +
+                "    path: /a\n" +
+                "  writer:\n" +
+                "    channel: testChannel\n" +
+                "    type:\n" +
+                "      blueId: SetProperty\n" +
+                "    propertyKey: /a\n" +
+                "  onA:\n" +
+                "    channel: aChannel\n" +
+                "    type:\n" +
+                "      blueId: SetProperty\n" +
+                "    propertyKey: /b\n")).snapshot();
+
+        DocumentProcessingResult result = processor.processDocument(initialized, event("evt-1"));
+
+        assertEquals(1, result.document().getAsInteger("/a/value"));
+        assertNull(result.document().getProperties().get("b"));
+        assertEquals("fatal", result.document().getAsText("/contracts/terminated/cause/value"));
+        assertEquals("handler failed", result.document().getAsText("/contracts/terminated/reason/value"));
+    }
+
+    private Blue blue(List<String> updates) {
+        Blue blue = new Blue();
+        blue.registerContractProcessor(new TestEventChannelProcessor());
+        blue.registerContractProcessor(new HandlerProcessor<IncrementProperty>() {
+            @Override
+            public Class<IncrementProperty> contractType() {
+                return IncrementProperty.class;
+            }
+
+            @Override
+            public void execute(IncrementProperty contract, ProcessorExecutionContext context) {
+                String pointer = context.resolvePointer(contract.getPropertyKey());
+                for (int i = 0; i < 3; i++) {
+                    Node existing = context.documentAt(pointer);
+                    BigInteger next = existing != null ? ((BigInteger) existing.getValue()).add(BigInteger.ONE) : BigInteger.ONE;
+                    context.applyPatch(existing != null
+                            ? JsonPatch.replace(pointer, new Node().value(next))
+                            : JsonPatch.add(pointer, new Node().value(next)));
+                }
+                context.applyPatch(JsonPatch.add(context.resolvePointer("/a"), new Node().value(1)));
+                context.applyPatch(JsonPatch.add(context.resolvePointer("/b"), new Node().value(2)));
+                context.applyPatch(JsonPatch.replace(context.resolvePointer("/a"), new Node().value(3)));
+            }
+        });
+        blue.registerContractProcessor(new HandlerProcessor<SetProperty>() {
+            @Override
+            public Class<SetProperty> contractType() {
+                return SetProperty.class;
+            }
+
+            @Override
+            public void execute(SetProperty contract, ProcessorExecutionContext context) {
+                updates.add(context.event().getAsText("/path/value"));
+            }
+        });
+        return blue;
+    }
+
+    private DocumentProcessor processor(Blue blue, ProcessingSnapshotManager snapshotManager, boolean deferred) {
+        DocumentProcessor base = blue.getDocumentProcessor();
+        return DocumentProcessor.builder()
+                .withRegistry(base.getContractRegistry())
+                .withContractTypeResolver(base.getContractTypeResolver())
+                .withConformanceEngine(base.conformanceEngine())
+                .withSnapshotManager(snapshotManager)
+                .withMatchingService(base.matchingService())
+                .withDeferredSnapshotCommit(deferred)
+                .build();
+    }
+
+    private Node event(String eventId) {
+        return new Blue().objectToNode(new TestEvent().eventId(eventId));
+    }
+
+    private static final class CountingSnapshotManager implements ProcessingSnapshotManager {
+        private final ProcessingSnapshotManager delegate;
+        private final List<Integer> patchesPerCall = new ArrayList<>();
+        private int applyPatchCalls;
+        private int applyPatchesCalls;
+        private boolean failRebuild;
+
+        private CountingSnapshotManager(ProcessingSnapshotManager delegate) {
+            this.delegate = delegate;
+        }
+
+        private void reset() {
+            applyPatchCalls = 0;
+            applyPatchesCalls = 0;
+            patchesPerCall.clear();
+        }
+
+        @Override
+        public ResolvedSnapshot fromDocument(Node document) {
+            if (failRebuild) {
+                throw new IllegalStateException("snapshot rebuild failed");
+            }
+            return delegate.fromDocument(document);
+        }
+
+        @Override
+        public ResolvedSnapshot applyPatch(ResolvedSnapshot snapshot, JsonPatch patch) {
+            applyPatchCalls++;
+            return delegate.applyPatch(snapshot, patch);
+        }
+
+        @Override
+        public ResolvedSnapshot applyPatches(ResolvedSnapshot snapshot, List<JsonPatch> patches) {
+            applyPatchesCalls++;
+            patchesPerCall.add(patches.size());
+            if (failRebuild) {
+                throw new IllegalStateException("snapshot rebuild failed");
+            }
+            return delegate.applyPatches(snapshot, patches);
+        }
+
+        @Override
+        public ResolvedSnapshot cacheSnapshot(ResolvedSnapshot snapshot) {
+            return delegate.cacheSnapshot(snapshot);
+        }
+    }
+}
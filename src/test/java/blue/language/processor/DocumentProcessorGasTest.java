@@ -8,6 +8,7 @@ import blue.language.processor.contracts.SetPropertyContractProcessor;
 import blue.language.processor.contracts.TestEventChannelProcessor;
 import blue.language.processor.model.TestEvent;
 import blue.language.provider.BasicNodeProvider;
+import blue.language.snapshot.FrozenNode;
 import blue.language.snapshot.ResolvedSnapshot;
 import blue.language.utils.BlueIdCalculator;
 import blue.language.utils.NodeToMapListOrValue;
@@ -417,6 +418,24 @@ class DocumentProcessorGasTest {
         assertEquals(null, result.resolvedDocument());
     }
 
+    @Test
+    void frozenEventGasReadsMemoizedCanonicalSize() {
+        FrozenNode leaf = FrozenNode.fromNode(new Node().value("x"));
+        long expectedBytes = leaf.canonicalSize();
+        FrozenNode event = leaf;
+        // far deeper than a recursive walk can go, so charging succeeds only if each level's memo is used
+        for (int depth = 0; depth < 50_000; depth++) {
+            event = FrozenNode.empty().withProperty("p", event);
+            expectedBytes += "{\"p\":}".length();
+            assertEquals(expectedBytes, event.canonicalSize());
+        }
+
+        GasMeter meter = new GasMeter();
+        meter.chargeEmitEvent(event);
+
+        assertEquals(20L + (expectedBytes + 99L) / 100L, meter.totalGas());
+    }
+
     private Node extractInitializedMarker(Node document) {
         Map<String, Node> contracts = document.getProperties();
         assertNotNull(contracts);
@@ -299,6 +299,24 @@ class DocumentProcessorSnapshotTransactionTest {
         assertEquals(0, manager.applyPatchCalls);
     }
 
+    @Test
+    void failedPatchRestoresPreviousSnapshotReference() {
+        CountingSnapshotManager manager = new CountingSnapshotManager();
+        Node document = YAML_MAPPER.readValue("x: 1", Node.class);
+        DocumentProcessingRuntime runtime = new DocumentProcessingRuntime(document, null, manager);
+        runtime.applyPatch("/", JsonPatch.replace("/x", new Node().value(2)));
+        ResolvedSnapshot committed = runtime.snapshot();
+        manager.failApplyPatch = true;
+        manager.failFromDocumentOnCall = manager.fromDocumentCalls + 1;
+
+        assertThrows(IllegalStateException.class,
+                () -> runtime.applyPatch("/", JsonPatch.replace("/x", new Node().value(3))));
+
+        assertSame(committed, runtime.snapshot());
+        assertSame(document, runtime.document());
+        assertEquals(2, document.getAsInteger("/x"));
+    }
+
     @Test
     void invalidImmutablePatchPlanDoesNotCallSnapshotPatchManager() {
         CountingSnapshotManager manager = new CountingSnapshotManager();
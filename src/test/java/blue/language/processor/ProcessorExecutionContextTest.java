@@ -6,6 +6,7 @@ import blue.language.processor.contracts.TestEventChannelProcessor;
 import blue.language.processor.model.JsonPatch;
 import blue.language.processor.model.SetProperty;
 import blue.language.processor.model.TestEvent;
+import blue.language.snapshot.FrozenNode;
 import blue.language.snapshot.ResolvedSnapshot;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -54,6 +56,30 @@ final class ProcessorExecutionContextTest {
         assertEquals("x", reread.getValue());
     }
 
+    @Test
+    void handlersShareFrozenEventAndMaterializeTheirOwnNode() {
+        DocumentProcessor owner = new DocumentProcessor();
+        ProcessorEngine.Execution execution = new ProcessorEngine.Execution(owner, new Node());
+        execution.loadBundles("/");
+        FrozenNode event = FrozenNode.fromResolvedNode(new Node().properties("x", new Node().value("original")));
+
+        ProcessorExecutionContext first = execution.createContext("/", execution.bundleForScope("/"), event,
+                null, null, false, false);
+        ProcessorExecutionContext second = execution.createContext("/", execution.bundleForScope("/"), event,
+                null, null, false, false);
+
+        assertSame(event, first.frozenEvent());
+        assertSame(event, second.frozenEvent());
+
+        Node mutable = first.event();
+        assertSame(mutable, first.event());
+        mutable.properties("x", new Node().value("mutated"));
+
+        assertEquals("mutated", first.event().getProperties().get("x").getValue());
+        assertEquals("original", second.event().getProperties().get("x").getValue());
+        assertEquals("original", event.property("x").getValue());
+    }
+
     @Test
     void emitEventQueuesAndChargesGas() {
         DocumentProcessor owner = new DocumentProcessor();
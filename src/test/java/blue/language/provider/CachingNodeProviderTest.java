@@ -3,11 +3,16 @@ package blue.language.provider;
 import blue.language.model.Node;
 import blue.language.NodeProvider;
 import blue.language.utils.BlueIdCalculator;
+import blue.language.utils.CanonicalSize;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -122,6 +127,17 @@ class CachingNodeProviderTest {
         assertTrue(cachingBasicProvider.getCacheSize() > 0);
     }
 
+    @Test
+    void cachedEntriesAreWeighedByCanonicalJsonBytes() {
+        Node first = new Node().name("First").value("first content");
+        Node second = new Node().name("Second").properties("nested", new Node().value(42));
+        CachingNodeProvider provider = new CachingNodeProvider(blueId -> Arrays.asList(first, second), 10_000);
+
+        provider.fetchByBlueId(BlueIdCalculator.calculateBlueId(first));
+
+        assertEquals(CanonicalSize.of(first) + CanonicalSize.of(second), provider.getCurrentSize());
+    }
+
     @Test
     void testCacheSize() {
         Node smallNode1 = new Node().name("Small1").value("Small content 1");
@@ -145,6 +161,41 @@ class CachingNodeProviderTest {
         assertTrue(cachingProvider.getCacheSize() <= 3);
     }
 
+    @Test
+    void testConcurrentFetchesStayWithinBudget() throws Exception {
+        List<String> blueIds = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            Node node = new Node().name("Concurrent" + i).value("content " + i);
+            String blueId = BlueIdCalculator.calculateBlueId(node);
+            blueIds.add(blueId);
+            when(mockDelegate.fetchByBlueId(blueId)).thenReturn(Arrays.asList(node));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        int index = (i * 7 + offset) % blueIds.size();
+                        List<Node> result = cachingProvider.fetchByBlueId(blueIds.get(index));
+                        assertEquals("Concurrent" + index, result.get(0).getName());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cachingProvider.getCurrentSize() <= MAX_SIZE_BYTES);
+        assertTrue(cachingProvider.getCacheSize() > 0);
+        assertTrue(cachingProvider.getCacheStats().evictionCount() > 0);
+    }
+
     private String createRepeatedString(char c, int count) {
         StringBuilder sb = new StringBuilder(count);
         for (int i = 0; i < count; i++) {
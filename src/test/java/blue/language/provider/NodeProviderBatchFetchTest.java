@@ -0,0 +1,185 @@
+package blue.language.provider;
+
+import blue.language.Blue;
+import blue.language.NodeProvider;
+import blue.language.merge.Merger;
+import blue.language.model.Node;
+import blue.language.utils.limits.Limits;
+import blue.language.utils.limits.PathLimits;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeProviderBatchFetchTest {
+
+    @Test
+    void concurrentFetchesOfTheSameBlueIdShareOneDelegateCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        NodeProvider slow = blueId -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.singletonList(new Node().name(blueId));
+        };
+        CachingNodeProvider provider = new CachingNodeProvider(slow, 10_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Node>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> provider.fetchByBlueId("shared")));
+            }
+            while (calls.get() == 0) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<List<Node>> future : futures) {
+                assertEquals("shared", future.get(5, TimeUnit.SECONDS).get(0).getName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals("shared", provider.fetchAsync("shared").get().get(0).getName());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void batchFetchAsksTheDelegateOnceForCacheMisses() {
+        CountingProvider delegate = new CountingProvider(new BasicNodeProvider());
+        CachingNodeProvider provider = new CachingNodeProvider(delegate, 10_000);
+        BasicNodeProvider basic = (BasicNodeProvider) delegate.delegate;
+        basic.addSingleDocs("name: A");
+        basic.addSingleDocs("name: B");
+        basic.addSingleDocs("name: C");
+        String a = basic.getBlueIdByName("A");
+        String b = basic.getBlueIdByName("B");
+        String c = basic.getBlueIdByName("C");
+
+        provider.fetchByBlueId(a);
+        Map<String, List<Node>> fetched = provider.fetchByBlueIds(Arrays.asList(a, b, c, "missing"));
+
+        assertEquals(Arrays.asList(a, b, c, "missing"), new ArrayList<>(fetched.keySet()));
+        assertEquals("B", fetched.get(b).get(0).getName());
+        assertNull(fetched.get("missing"));
+        assertEquals(1, delegate.batches.size());
+        assertEquals(Arrays.asList(b, c, "missing"), delegate.batches.get(0));
+        assertEquals(1, delegate.singles.get());
+    }
+
+    @Test
+    void resolverPrefetchesSiblingTypeReferencesTogether() {
+        BasicNodeProvider basic = new BasicNodeProvider();
+        basic.addSingleDocs("name: Street\nline:\n  type: Text");
+        basic.addSingleDocs("name: City\ncode:\n  type: Text");
+        basic.addSingleDocs("name: Country\niso:\n  type: Text");
+        CountingProvider provider = new CountingProvider(basic);
+
+        Node address = new Node()
+                .properties("street", new Node().type(new Node().blueId(basic.getBlueIdByName("Street"))))
+                .properties("city", new Node().type(new Node().blueId(basic.getBlueIdByName("City"))))
+                .properties("country", new Node().type(new Node().blueId(basic.getBlueIdByName("Country"))));
+
+        Node resolved = new Blue(provider).resolve(address);
+
+        assertEquals("City", resolved.getProperties().get("city").getType().getName());
+        assertEquals(1, provider.batches.size());
+        assertEquals(3, provider.batches.get(0).size());
+        assertEquals(0, provider.singles.get());
+    }
+
+    @Test
+    void mergerWithoutReferenceCacheFetchesTypesRepeatedOnSiblingsOnce() {
+        BasicNodeProvider basic = new BasicNodeProvider();
+        basic.addSingleDocs("name: Street\nline:\n  type: Text");
+        basic.addSingleDocs("name: City\ncode:\n  type: Text");
+        String street = basic.getBlueIdByName("Street");
+        String city = basic.getBlueIdByName("City");
+        CountingProvider provider = new CountingProvider(basic);
+        Merger merger = new Merger(new Blue(provider).getMergingProcessor(), provider);
+
+        Node address = new Node()
+                .properties("home", new Node().type(new Node().blueId(street)))
+                .properties("work", new Node().type(new Node().blueId(street)))
+                .properties("city", new Node().type(new Node().blueId(city)));
+
+        Node resolved = merger.resolve(address, Limits.NO_LIMITS);
+
+        Node home = resolved.getProperties().get("home");
+        Node work = resolved.getProperties().get("work");
+        assertEquals("Street", home.getType().getName());
+        assertEquals("Street", work.getType().getName());
+        assertNotSame(home.getProperties().get("line"), work.getProperties().get("line"));
+        assertEquals(1, provider.batches.size());
+        assertEquals(new HashSet<>(Arrays.asList(street, city)), new HashSet<>(provider.batches.get(0)));
+        assertEquals(0, provider.singles.get());
+    }
+
+    @Test
+    void extenderFetchesReferencesRepeatedAtOneLevelOnce() {
+        BasicNodeProvider basic = new BasicNodeProvider();
+        basic.addSingleDocs("name: Street\nline: Main");
+        basic.addSingleDocs("name: City\ncode: X");
+        String street = basic.getBlueIdByName("Street");
+        String city = basic.getBlueIdByName("City");
+        CountingProvider provider = new CountingProvider(basic);
+
+        Node address = new Node()
+                .properties("home", new Node().blueId(street))
+                .properties("work", new Node().blueId(street))
+                .properties("city", new Node().blueId(city));
+
+        new Blue(provider).extend(address, PathLimits.withSinglePath("/*"));
+
+        Node home = address.getProperties().get("home");
+        Node work = address.getProperties().get("work");
+        assertEquals("Street", home.getName());
+        assertEquals("Street", work.getName());
+        assertNotSame(home.getProperties().get("line"), work.getProperties().get("line"));
+        assertEquals(1, provider.batches.size());
+        assertEquals(new HashSet<>(Arrays.asList(street, city)), new HashSet<>(provider.batches.get(0)));
+        assertEquals(2, provider.batches.get(0).size());
+        assertEquals(0, provider.singles.get());
+    }
+
+    private static final class CountingProvider implements NodeProvider {
+        private final NodeProvider delegate;
+        private final AtomicInteger singles = new AtomicInteger();
+        private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        private CountingProvider(NodeProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<Node> fetchByBlueId(String blueId) {
+            singles.incrementAndGet();
+            return delegate.fetchByBlueId(blueId);
+        }
+
+        @Override
+        public Map<String, List<Node>> fetchByBlueIds(Collection<String> blueIds) {
+            batches.add(new ArrayList<>(blueIds));
+            return delegate.fetchByBlueIds(blueIds);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package blue.language.provider;
+
+import blue.language.NodeProvider;
+import blue.language.model.Node;
+import blue.language.utils.NodeProviderWrapper;
+import blue.language.utils.cache.CacheSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingNodeProviderTest {
+
+    @Test
+    void routesRepeatedLookupsToTheOwningProvider() throws Exception {
+        BasicNodeProvider first = new BasicNodeProvider();
+        BasicNodeProvider second = new BasicNodeProvider();
+        first.addSingleDocs("name: A");
+        second.addSingleDocs("name: B");
+        String a = first.getBlueIdByName("A");
+        String b = second.getBlueIdByName("B");
+        CountingProvider countingFirst = new CountingProvider(first);
+        CountingProvider countingSecond = new CountingProvider(second);
+        RoutingNodeProvider provider = new RoutingNodeProvider(countingFirst, countingSecond);
+
+        assertEquals("B", provider.fetchFirstByBlueId(b).getName());
+        assertEquals(1, countingFirst.lookups.get());
+        assertEquals("B", provider.fetchFirstByBlueId(b).getName());
+        assertEquals("B", provider.fetchAsync(b).get().get(0).getName());
+        assertEquals(1, countingFirst.lookups.get());
+        assertEquals(3, countingSecond.lookups.get());
+
+        Map<String, List<Node>> fetched = provider.fetchByBlueIds(Arrays.asList(a, b));
+        assertEquals("A", fetched.get(a).get(0).getName());
+        assertEquals("B", fetched.get(b).get(0).getName());
+        assertEquals(2, countingFirst.lookups.get());
+        assertEquals(4, countingSecond.lookups.get());
+
+        assertNull(provider.fetchByBlueId("missing"));
+        assertNull(provider.fetchByBlueId("missing"));
+        assertEquals(4, countingFirst.lookups.get());
+        assertNull(provider.getMissStats());
+    }
+
+    @Test
+    void remembersMissesUntilInvalidated() {
+        BasicNodeProvider basic = new BasicNodeProvider();
+        CountingProvider counting = new CountingProvider(basic);
+        RoutingNodeProvider provider = new RoutingNodeProvider(Arrays.asList(counting),
+                CacheSettings.maximumWeight(16), CacheSettings.maximumWeight(16));
+        BasicNodeProvider reference = new BasicNodeProvider();
+        reference.addSingleDocs("name: Late");
+        String blueId = reference.getBlueIdByName("Late");
+
+        assertNull(provider.fetchByBlueId(blueId));
+        basic.addSingleDocs("name: Late");
+        assertNull(provider.fetchByBlueId(blueId));
+        assertNull(provider.fetchByBlueIds(Arrays.asList(blueId)).get(blueId));
+        assertEquals(1, counting.lookups.get());
+
+        provider.invalidate(blueId);
+        assertEquals("Late", provider.fetchFirstByBlueId(blueId).getName());
+        assertEquals(2, counting.lookups.get());
+    }
+
+    @Test
+    void wrappingTwiceKeepsOneBootstrapProvider() {
+        NodeProvider wrapped = NodeProviderWrapper.wrap(new BasicNodeProvider());
+
+        assertSame(wrapped, NodeProviderWrapper.wrap(wrapped));
+        assertEquals(2, ((RoutingNodeProvider) wrapped).getNodeProviders().size());
+    }
+
+    private static final class CountingProvider implements NodeProvider {
+        private final NodeProvider delegate;
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        private CountingProvider(NodeProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<Node> fetchByBlueId(String blueId) {
+            lookups.incrementAndGet();
+            return delegate.fetchByBlueId(blueId);
+        }
+    }
+}
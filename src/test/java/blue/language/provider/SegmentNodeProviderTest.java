@@ -0,0 +1,93 @@
+package blue.language.provider;
+
+import blue.language.model.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentNodeProviderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fetchesWhatBasicNodeProviderFetchesBeforeAndAfterReopening() throws Exception {
+        String person = "name: Person\n" +
+                "age:\n" +
+                "  type: Integer";
+        String list = "- name: A\n" +
+                "  next:\n" +
+                "    blueId: this#1\n" +
+                "- name: B\n" +
+                "  next:\n" +
+                "    blueId: this#0";
+        BasicNodeProvider basic = new BasicNodeProvider();
+        basic.addSingleDocs(person);
+        String personBlueId = basic.getBlueIdByName("Person");
+
+        String listBlueId;
+        try (SegmentNodeProvider provider = new SegmentNodeProvider(directory)) {
+            assertEquals(personBlueId, provider.add(YAML_MAPPER.readValue(person, Node.class)));
+            listBlueId = provider.addDocument(list);
+            assertEquals("Person", provider.fetchFirstByBlueId(personBlueId).getName());
+            assertEquals(2, provider.size());
+        }
+
+        try (SegmentNodeProvider reopened = new SegmentNodeProvider(directory)) {
+            assertEquals(2, reopened.size());
+            assertTrue(reopened.contains(personBlueId));
+            assertEquals(basic.fetchByBlueId(personBlueId).get(0).get("/age/type/blueId"),
+                    reopened.fetchByBlueId(personBlueId).get(0).get("/age/type/blueId"));
+
+            List<Node> nodes = reopened.fetchByBlueId(listBlueId);
+            assertEquals(2, nodes.size());
+            Node second = reopened.fetchFirstByBlueId(listBlueId + "#1");
+            assertEquals(listBlueId + "#1", second.getBlueId());
+            assertTrue(second.getProperties().get("next").getBlueId().startsWith(listBlueId + "#"));
+
+            assertNull(reopened.fetchByBlueId(NodeContentHandler.ZERO_BLUE_ID.replace('0', '1')));
+            assertNull(reopened.fetchByBlueId("Text"));
+        }
+    }
+
+    @Test
+    void rollsSegmentsAndMergesIndexAcrossFlushes() throws Exception {
+        List<String> blueIds;
+        try (SegmentNodeProvider provider = new SegmentNodeProvider(node -> node, directory, 256)) {
+            blueIds = Stream.of("one", "two", "three", "four", "five", "six")
+                    .map(name -> addNamed(provider, name))
+                    .collect(Collectors.toList());
+            provider.flush();
+            assertEquals(blueIds.get(0), addNamed(provider, "one"));
+            blueIds.add(addNamed(provider, "seven"));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.filter(path -> path.toString().endsWith(".seg")).count() > 1);
+        }
+
+        try (SegmentNodeProvider reopened = new SegmentNodeProvider(node -> node, directory, 256)) {
+            assertEquals(7, reopened.size());
+            List<String> names = blueIds.stream()
+                    .map(blueId -> reopened.fetchFirstByBlueId(blueId).getName())
+                    .collect(Collectors.toList());
+            assertEquals(Arrays.asList("one", "two", "three", "four", "five", "six", "seven"), names);
+        }
+    }
+
+    private static String addNamed(SegmentNodeProvider provider, String name) {
+        try {
+            return provider.add(new Node().name(name).properties("payload", new Node().value(name + " payload")));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
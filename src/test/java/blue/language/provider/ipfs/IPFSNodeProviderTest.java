@@ -0,0 +1,99 @@
+package blue.language.provider.ipfs;
+
+import blue.language.model.Node;
+import blue.language.utils.Base58;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IPFSNodeProviderTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private final Map<String, byte[]> served = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer gateway;
+    private IPFSContentFetcher fetcher;
+
+    @BeforeEach
+    void startGateway() throws Exception {
+        gateway = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        gateway.createContext("/ipfs/", exchange -> {
+            requests.incrementAndGet();
+            String cid = exchange.getRequestURI().getPath().substring("/ipfs/".length());
+            byte[] body = served.get(cid);
+            exchange.sendResponseHeaders(body != null ? 200 : 404, body != null ? body.length : -1);
+            if (body != null) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        gateway.start();
+        fetcher = new IPFSContentFetcher("http://127.0.0.1:" + gateway.getAddress().getPort() + "/ipfs", 2000, 4);
+    }
+
+    @AfterEach
+    void stopGateway() throws Exception {
+        gateway.stop(0);
+        fetcher.close();
+    }
+
+    @Test
+    void acceptsOnlyContentMatchingItsBlueIdAndCachesItOnDisk() throws Exception {
+        String person = serve("{\"name\":\"Person\"}");
+        String account = serve("{\"name\":\"Account\"}");
+        String tampered = blueIdOf("{\"name\":\"Original\"}");
+        served.put(BlueIdToCid.convert(tampered), "{\"name\":\"Tampered\"}".getBytes(StandardCharsets.UTF_8));
+
+        IPFSNodeProvider provider = new IPFSNodeProvider(fetcher, cacheDirectory);
+        Map<String, List<Node>> fetched = provider.fetchByBlueIds(Arrays.asList(person, account, tampered));
+
+        assertEquals("Person", fetched.get(person).get(0).getName());
+        assertEquals("Account", fetched.get(account).get(0).getName());
+        assertNull(fetched.get(tampered));
+        assertEquals(3, requests.get());
+
+        IPFSNodeProvider reopened = new IPFSNodeProvider(fetcher, cacheDirectory);
+        assertEquals("Person", reopened.fetchFirstByBlueId(person).getName());
+        assertEquals("Account", reopened.fetchAsync(account).get().get(0).getName());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void fetchesAsynchronouslyThroughConfiguredGateway() throws Exception {
+        String person = serve("{\"name\":\"Person\"}");
+        IPFSNodeProvider provider = new IPFSNodeProvider(fetcher);
+
+        assertEquals("Person", provider.fetchAsync(person).get().get(0).getName());
+        assertNull(provider.fetchAsync(blueIdOf("{\"name\":\"Missing\"}")).get());
+        assertNull(provider.fetchByBlueId(blueIdOf("{\"name\":\"Missing\"}")));
+    }
+
+    private String serve(String json) throws Exception {
+        String blueId = blueIdOf(json);
+        served.put(BlueIdToCid.convert(blueId), json.getBytes(StandardCharsets.UTF_8));
+        return blueId;
+    }
+
+    private static String blueIdOf(String json) throws Exception {
+        return Base58.encode(MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
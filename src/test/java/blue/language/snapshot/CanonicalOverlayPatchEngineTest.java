@@ -105,6 +105,32 @@ class CanonicalOverlayPatchEngineTest {
         assertEquals(BlueIdCalculator.calculateBlueId(removed.toNode()), removed.blueId());
     }
 
+    @Test
+    void incrementalListHashingMatchesFullRecomputationOnLongLists() {
+        FrozenNode root = FrozenNode.fromNode(YAML_MAPPER.readValue(
+                "log:\n" +
+                "  items:\n" +
+                "    - $previous:\n" +
+                "        blueId: PrevListHash", Node.class));
+
+        for (int i = 0; i < 70; i++) {
+            root = new CanonicalOverlayPatchEngine(root)
+                    .apply(JsonPatch.add("/log/-", new Node().value("event" + i)))
+                    .root();
+        }
+        assertEquals(BlueIdCalculator.calculateBlueId(root.toNode()), root.blueId());
+
+        root = new CanonicalOverlayPatchEngine(root).apply(JsonPatch.replace("/log/40", new Node().value("x"))).root();
+        assertEquals(BlueIdCalculator.calculateBlueId(root.toNode()), root.blueId());
+        root = new CanonicalOverlayPatchEngine(root).apply(JsonPatch.add("/log/10", new Node().value("y"))).root();
+        assertEquals(BlueIdCalculator.calculateBlueId(root.toNode()), root.blueId());
+        root = new CanonicalOverlayPatchEngine(root).apply(JsonPatch.remove("/log/71")).root();
+        assertEquals(BlueIdCalculator.calculateBlueId(root.toNode()), root.blueId());
+        root = new CanonicalOverlayPatchEngine(root).apply(JsonPatch.remove("/log/5")).root();
+        assertEquals(FrozenNode.fromNode(root.toNode()).blueId(), root.blueId());
+        assertEquals(70, root.property("log").getItems().size());
+    }
+
     @Test
     void replaceUpsertsMissingObjectPropertyAndAddOverwritesExistingProperty() {
         FrozenNode root = FrozenNode.fromNode(YAML_MAPPER.readValue(
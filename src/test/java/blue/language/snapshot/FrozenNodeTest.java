@@ -4,8 +4,10 @@ import blue.language.model.Node;
 import blue.language.utils.BlueIdCalculator;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
 import static blue.language.utils.Properties.DOUBLE_TYPE_BLUE_ID;
@@ -105,6 +107,43 @@ class FrozenNodeTest {
         assertEquals(BlueIdCalculator.calculateBlueId(second), frozen.blueId());
     }
 
+    @Test
+    void structuralEditsMatchFreshlyFrozenNodes() {
+        Node node = new Node();
+        Node list = new Node().items(new ArrayList<>());
+        for (int i = 0; i < 40; i++) {
+            node.properties("p" + i, new Node().value(i));
+            list.getItems().add(new Node().value("item" + i));
+        }
+        node.properties("list", list);
+        FrozenNode frozen = FrozenNode.fromNode(node);
+
+        FrozenNode editedList = frozen.property("list")
+                .withItem(35, FrozenNode.fromNode(new Node().value("replaced")))
+                .withItemInserted(40, FrozenNode.fromNode(new Node().value("appended")))
+                .withoutItem(0);
+        FrozenNode edited = frozen
+                .withProperty("p3", FrozenNode.fromNode(new Node().value("changed")))
+                .withProperty("p7", null)
+                .withProperty("extra", FrozenNode.fromNode(new Node().value(true)))
+                .withProperty("list", editedList);
+
+        List<String> expectedKeys = new ArrayList<>(frozen.getProperties().keySet());
+        expectedKeys.remove("p7");
+        expectedKeys.add("extra");
+        node.getProperties().put("p3", new Node().value("changed"));
+        node.getProperties().remove("p7");
+        node.properties("extra", new Node().value(true));
+        list.getItems().set(35, new Node().value("replaced"));
+        list.getItems().add(new Node().value("appended"));
+        list.getItems().remove(0);
+
+        assertEquals(expectedKeys, new ArrayList<>(edited.getProperties().keySet()));
+        assertEquals(BlueIdCalculator.calculateBlueId(node), edited.blueId());
+        assertEquals(BlueIdCalculator.calculateBlueId(list), editedList.blueId());
+        assertEquals("item0", frozen.property("list").item(0).getValue());
+    }
+
     @Test
     void pathIndexAndAtResolveObjectAndListPointersWithoutMaterializingWholeTree() {
         FrozenNode frozen = FrozenNode.fromNode(YAML_MAPPER.readValue(
@@ -0,0 +1,84 @@
+package blue.language.snapshot;
+
+import blue.language.model.Node;
+import blue.language.utils.BlueIdCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static blue.language.utils.UncheckedObjectMapper.JSON_MAPPER;
+import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrozenNodeViewTest {
+
+    private static final String DOCUMENT = "name: Doc\n" +
+            "left:\n" +
+            "  keep: 1\n" +
+            "right:\n" +
+            "  child: old\n" +
+            "rows:\n" +
+            "  - a\n" +
+            "  - b";
+
+    @Test
+    void matchesEagerMaterializationAndCopiesOnlyTouchedPaths() {
+        FrozenNode frozen = FrozenNode.fromNode(YAML_MAPPER.readValue(DOCUMENT, Node.class));
+        Node view = FrozenNodeView.of(frozen);
+
+        assertEquals("old", view.getAsText("/right/child"));
+        FrozenNodeView left = (FrozenNodeView) view.getProperties().get("left");
+        FrozenNodeView rows = (FrozenNodeView) view.getProperties().get("rows");
+        assertTrue(left.isPristine());
+        assertTrue(rows.isPristine());
+        assertFalse(((FrozenNodeView) view.getProperties().get("right")).isPristine());
+
+        assertEquals(JSON_MAPPER.writeValueAsString(frozen.toNode()), JSON_MAPPER.writeValueAsString(view));
+        assertEquals(frozen.blueId(), BlueIdCalculator.calculateBlueId(view));
+    }
+
+    @Test
+    void writesAndClonesDoNotLeakIntoTheSnapshotOrOtherViews() {
+        FrozenNode frozen = FrozenNode.fromNode(YAML_MAPPER.readValue(DOCUMENT, Node.class));
+        Node view = FrozenNodeView.of(frozen);
+        Node copy = view.clone();
+
+        view.getProperties().get("right").properties("child", new Node().value("new"));
+        Node target = new Node().value("replaced");
+        FrozenNodeView.materializeInto(frozen.property("left"), target);
+
+        assertEquals("new", view.getAsText("/right/child"));
+        assertEquals("old", copy.getAsText("/right/child"));
+        assertEquals("old", frozen.property("right").property("child").getValue());
+        assertEquals(1, target.getAsInteger("/keep"));
+        assertNull(target.getValue());
+    }
+
+    @Test
+    void concurrentFirstReadsAllSeeTheMaterializedContent() throws Exception {
+        FrozenNode frozen = FrozenNode.fromNode(YAML_MAPPER.readValue(DOCUMENT, Node.class));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 200; round++) {
+                Node view = FrozenNodeView.of(frozen);
+                List<Callable<String>> readers = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    readers.add(() -> view.getName() + ":" + view.getAsText("/right/child") + ":" + view.getItems());
+                }
+                for (Future<String> read : executor.invokeAll(readers)) {
+                    assertEquals("Doc:old:null", read.get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
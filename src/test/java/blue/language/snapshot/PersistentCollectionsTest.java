@@ -0,0 +1,90 @@
+package blue.language.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PersistentCollectionsTest {
+
+    @Test
+    void vectorMatchesArrayListAcrossTrieLevels() {
+        Random random = new Random(7);
+        List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 1100; i++) {
+            expected.add(i);
+            vector = vector.append(i);
+        }
+        assertEquals(expected, vector.asList());
+        assertEquals(expected, PersistentVector.of(expected).asList());
+
+        PersistentVector<Integer> before = vector;
+        for (int i = 0; i < 300; i++) {
+            int index = random.nextInt(expected.size());
+            expected.set(index, -i);
+            vector = vector.set(index, -i);
+        }
+        expected.add(17, 1000);
+        vector = vector.insert(17, 1000);
+        expected.remove(500);
+        vector = vector.remove(500);
+
+        assertEquals(expected, vector.asList());
+        assertEquals(1100, before.size());
+        assertEquals(Integer.valueOf(1099), before.get(1099));
+        assertThrows(IndexOutOfBoundsException.class, () -> before.get(1100));
+    }
+
+    @Test
+    void orderedMapMatchesLinkedHashMapIncludingRemovalsAndReinsertion() {
+        Random random = new Random(11);
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        PersistentOrderedMap<Integer> map = PersistentOrderedMap.empty();
+        for (int i = 0; i < 2000; i++) {
+            String key = "k" + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(map.asMap().entrySet()));
+        for (int i = 0; i < 300; i++) {
+            assertEquals(expected.get("k" + i), map.get("k" + i));
+        }
+    }
+
+    @Test
+    void orderedMapHandlesHashCollisions() {
+        // "Aa" and "BB" share a String hash code
+        PersistentOrderedMap<Integer> map = PersistentOrderedMap.empty();
+        for (int i = 0; i < 10; i++) {
+            map = map.put("filler" + i, i);
+        }
+        map = map.put("Aa", 1).put("BB", 2).remove("Aa");
+
+        assertEquals(null, map.get("Aa"));
+        assertEquals(Integer.valueOf(2), map.get("BB"));
+        assertEquals(11, map.size());
+    }
+
+    @Test
+    void viewsShareStructureWhenRebuilt() {
+        PersistentVector<Integer> vector = PersistentVector.<Integer>empty().append(1);
+        PersistentOrderedMap<Integer> map = PersistentOrderedMap.<Integer>empty().put("a", 1);
+
+        assertSame(vector, PersistentVector.of(vector.asList()));
+        assertSame(map, PersistentOrderedMap.of(map.asMap()));
+    }
+}
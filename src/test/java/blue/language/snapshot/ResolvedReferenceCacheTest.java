@@ -0,0 +1,29 @@
+package blue.language.snapshot;
+
+import blue.language.model.Node;
+import blue.language.utils.BlueIdCalculator;
+import blue.language.utils.cache.CacheSettings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResolvedReferenceCacheTest {
+
+    @Test
+    void referencesEvictedSinceTheLastIndexingAreIndexedAgain() {
+        String typeBlueId = BlueIdCalculator.calculateBlueId(new Node().value("type"));
+        String otherBlueId = BlueIdCalculator.calculateBlueId(new Node().value("other"));
+        FrozenNode root = FrozenNode.fromResolvedNode(new Node()
+                .properties("typed", new Node().blueId(typeBlueId).value("resolved")), null);
+        FrozenNode typed = root.property("typed");
+        ResolvedReferenceCache cache = new ResolvedReferenceCache(CacheSettings.maximumWeight(1));
+
+        cache.indexResolved(root);
+        cache.putIfAbsent(otherBlueId, FrozenNode.fromResolvedNode(new Node().blueId(otherBlueId).value("other"), null));
+        assertFalse(cache.get(typeBlueId).isPresent());
+
+        cache.indexResolved(root);
+        assertSame(typed, cache.get(typeBlueId).orElse(null));
+    }
+}
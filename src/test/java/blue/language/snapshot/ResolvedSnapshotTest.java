@@ -2,10 +2,13 @@ package blue.language.snapshot;
 
 import blue.language.Blue;
 import blue.language.NodeProvider;
+import blue.language.merge.MergingProcessor;
+import blue.language.merge.NodeResolver;
 import blue.language.model.Node;
 import blue.language.processor.model.JsonPatch;
 import blue.language.provider.BasicNodeProvider;
 import blue.language.utils.BlueIdCalculator;
+import blue.language.utils.cache.CacheSettings;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
@@ -117,6 +120,30 @@ class ResolvedSnapshotTest {
         assertTrue(snapshot.resolvedIndex().containsKey("/"));
     }
 
+    @Test
+    void lazyPathLookupsAgreeWithFullPathIndex() {
+        Node canonical = YAML_MAPPER.readValue(
+                "name: Instance\n" +
+                "a/b: slash\n" +
+                "a~b: tilde\n" +
+                "rows:\n" +
+                "  - id: first\n" +
+                "  - id: second", Node.class);
+        ResolvedSnapshot snapshot = new Blue().resolveToSnapshot(canonical);
+
+        Map<String, FrozenNode> index = snapshot.frozenCanonicalRoot().pathIndex();
+        for (Map.Entry<String, FrozenNode> entry : index.entrySet()) {
+            assertSame(entry.getValue(), snapshot.canonicalAt(entry.getKey()));
+        }
+        assertSame(snapshot.canonicalAt("/rows/1/id"), snapshot.canonicalAt("rows/1/id"));
+        assertSame(snapshot.frozenCanonicalRoot(), snapshot.canonicalAt(""));
+        assertNull(snapshot.canonicalAt("/rows/01"));
+        assertNull(snapshot.canonicalAt("/rows/2"));
+        assertNull(snapshot.canonicalAt("/missing/child"));
+        assertEquals(index.keySet(), snapshot.canonicalIndex().keySet());
+        assertSame(snapshot.resolvedIndex().get("/a~1b"), snapshot.resolvedAt("/a~1b"));
+    }
+
     @Test
     void blueCanApplyCanonicalPatchAndReturnNextResolvedSnapshot() {
         BasicNodeProvider nodeProvider = new BasicNodeProvider();
@@ -139,6 +166,86 @@ class ResolvedSnapshotTest {
         assertEquals(next.frozenCanonicalRoot().blueId(), next.blueId());
     }
 
+    @Test
+    void canonicalPatchRestatingInheritedValueIsMinimizedWithoutSecondResolution() {
+        BasicNodeProvider nodeProvider = new BasicNodeProvider();
+        nodeProvider.addSingleDocs(
+                "name: Money\n" +
+                "cents: 0\n" +
+                "currency:\n" +
+                "  code: USD");
+        Blue blue = new Blue(nodeProvider);
+        Node canonical = YAML_MAPPER.readValue(
+                "name: Wallet\n" +
+                "balance:\n" +
+                "  type:\n" +
+                "    blueId: " + nodeProvider.getBlueIdByName("Money") + "\n" +
+                "  cents: 0", Node.class);
+        ResolvedSnapshot snapshot = blue.loadSnapshot(canonical);
+
+        ResolvedSnapshot minimized = blue.applyCanonicalPatch(snapshot,
+                JsonPatch.replace("/balance/cents", new Node().value(0)));
+        ResolvedSnapshot nested = blue.applyCanonicalPatch(minimized,
+                JsonPatch.add("/balance/currency/code", new Node().value("USD")));
+        ResolvedSnapshot annotated = blue.applyCanonicalPatch(minimized,
+                JsonPatch.add("/balance/note", new Node().value("gift")));
+
+        assertNull(minimized.canonicalAt("/balance/cents"));
+        assertSame(snapshot.frozenResolvedRoot(), minimized.frozenResolvedRoot());
+        assertEquals(FrozenNode.fromResolvedNode(blue.resolve(minimized.canonicalRoot())).blueId(),
+                minimized.frozenResolvedRoot().blueId());
+        assertSame(minimized, nested);
+        assertEquals("gift", annotated.canonicalRoot().getAsText("/balance/note/value"));
+
+        RootResolutionCounter counter = new RootResolutionCounter(blue.getMergingProcessor(), "Wallet");
+        Blue countingBlue = new Blue(nodeProvider, counter);
+        ResolvedSnapshot loaded = countingBlue.loadSnapshot(canonical);
+        // with nothing cached, resolving the minimized tree again would show up as a second root merge
+        countingBlue.clearResolvedSnapshotCache();
+        int resolutionsBeforePatch = counter.resolutions;
+
+        ResolvedSnapshot restated = countingBlue.applyCanonicalPatch(loaded,
+                JsonPatch.replace("/balance/cents", new Node().value(0)));
+
+        assertNull(restated.canonicalAt("/balance/cents"));
+        assertEquals(1, counter.resolutions - resolutionsBeforePatch);
+    }
+
+    @Test
+    void canonicalPatchReusesResolvedSiblingSubtreesAndMatchesFullResolution() {
+        BasicNodeProvider nodeProvider = new BasicNodeProvider();
+        nodeProvider.addSingleDocs(
+                "name: Product\n" +
+                "label: inherited");
+        Blue blue = new Blue(nodeProvider);
+        Node canonical = YAML_MAPPER.readValue(
+                "name: Document\n" +
+                "product:\n" +
+                "  type:\n" +
+                "    blueId: " + nodeProvider.getBlueIdByName("Product") + "\n" +
+                "  local: old\n" +
+                "log:\n" +
+                "  items:\n" +
+                "    - first\n" +
+                "state:\n" +
+                "  counter: 1", Node.class);
+        ResolvedSnapshot snapshot = blue.loadSnapshot(canonical);
+
+        ResolvedSnapshot appended = blue.applyCanonicalPatch(snapshot,
+                JsonPatch.add("/log/-", new Node().value("second")));
+        ResolvedSnapshot replaced = blue.applyCanonicalPatch(appended,
+                JsonPatch.replace("/state/counter", new Node().value(2)));
+
+        FrozenNode before = snapshot.frozenResolvedRoot();
+        FrozenNode after = replaced.frozenResolvedRoot();
+        assertSame(before.property("product"), after.property("product"));
+        assertSame(appended.frozenResolvedRoot().property("log"), after.property("log"));
+        assertSame(before.property("log").item(0), after.property("log").item(0));
+        assertEquals(2, after.property("log").getItems().size());
+        assertEquals(2, replaced.resolvedRoot().getAsInteger("/state/counter/value"));
+        assertEquals(FrozenNode.fromResolvedNode(blue.resolve(replaced.canonicalRoot())).blueId(), after.blueId());
+    }
+
     @Test
     void canonicalPatchRemovesRedundantOverrideWhenValueMatchesInheritedResolvedState() {
         BasicNodeProvider nodeProvider = new BasicNodeProvider();
@@ -242,6 +349,40 @@ class ResolvedSnapshotTest {
         assertSame(first, blue.cachedResolvedSnapshot(first.blueId()).orElseThrow(IllegalStateException::new));
     }
 
+    @Test
+    void boundedSnapshotCacheEvictsLeastRecentlyUsedSnapshotsAndReportsStats() {
+        BasicNodeProvider delegate = productProvider();
+        Blue blue = new Blue(delegate).resolvedSnapshotCache(CacheSettings.maximumWeight(12));
+
+        ResolvedSnapshot first = blue.loadSnapshot(productInstance(delegate, "first"));
+        ResolvedSnapshot second = blue.loadSnapshot(productInstance(delegate, "second"));
+
+        assertFalse(blue.cachedResolvedSnapshot(first.blueId()).isPresent());
+        assertSame(second, blue.cachedResolvedSnapshot(second.blueId()).orElseThrow(IllegalStateException::new));
+        assertEquals(1, blue.resolvedSnapshotCacheSize());
+        assertEquals(1, blue.resolvedSnapshotCacheStats().evictionCount());
+        assertTrue(blue.resolvedSnapshotCacheStats().weight() <= 12);
+    }
+
+    @Test
+    void explicitlyCachedSnapshotsArePinnedAcrossBoundedCacheEvictions() {
+        BasicNodeProvider delegate = productProvider();
+        ResolvedSnapshot pinned = new Blue(delegate).loadSnapshot(productInstance(delegate, "pinned"));
+        Blue blue = new Blue(delegate)
+                .resolvedSnapshotCache(CacheSettings.maximumWeight(12))
+                .cacheResolvedSnapshot(pinned);
+
+        blue.loadSnapshot(productInstance(delegate, "first"));
+        blue.loadSnapshot(productInstance(delegate, "second"));
+
+        assertEquals(1, blue.resolvedSnapshotCacheStats().evictionCount());
+        assertSame(pinned, blue.cachedResolvedSnapshot(pinned.blueId()).orElseThrow(IllegalStateException::new));
+        assertSame(pinned, blue.loadSnapshot(pinned.blueId()));
+
+        blue.clearResolvedSnapshotCache();
+        assertFalse(blue.cachedResolvedSnapshot(pinned.blueId()).isPresent());
+    }
+
     @Test
     void preloadedResolvedSnapshotCanBeLoadedByBlueIdAtStartupWithoutProviderFetchOrFrozenClone() {
         BasicNodeProvider delegate = productProvider();
@@ -564,6 +705,30 @@ class ResolvedSnapshotTest {
                 "        line1: Dock 2", Node.class);
     }
 
+    private static final class RootResolutionCounter implements MergingProcessor {
+        private final MergingProcessor delegate;
+        private final String rootName;
+        private int resolutions;
+
+        private RootResolutionCounter(MergingProcessor delegate, String rootName) {
+            this.delegate = delegate;
+            this.rootName = rootName;
+        }
+
+        @Override
+        public void process(Node target, Node source, NodeProvider nodeProvider, NodeResolver nodeResolver) {
+            if (rootName.equals(source.getName())) {
+                resolutions++;
+            }
+            delegate.process(target, source, nodeProvider, nodeResolver);
+        }
+
+        @Override
+        public void postProcess(Node target, Node source, NodeProvider nodeProvider, NodeResolver nodeResolver) {
+            delegate.postProcess(target, source, nodeProvider, nodeResolver);
+        }
+    }
+
     private static final class CountingNodeProvider implements NodeProvider {
         private final NodeProvider delegate;
         private int fetchCount;
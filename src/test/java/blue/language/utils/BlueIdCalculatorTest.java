@@ -13,6 +13,7 @@ import static blue.language.utils.UncheckedObjectMapper.JSON_MAPPER;
 import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class BlueIdCalculatorTest {
@@ -489,6 +490,93 @@ public class BlueIdCalculatorTest {
                 assertNotEquals(result1, result4);
         }
 
+        @Test
+        public void testMemoizedBlueIdsFollowSetterEdits() {
+                Node left = new Node().properties("leaf", new Node().value("a"));
+                Node right = new Node().items(new Node().value(1), new Node().value(2));
+                Node root = new Node().name("Root").properties("left", left, "right", right);
+
+                assertEquals(uncachedBlueId(root), BlueIdCalculator.calculateBlueId(root));
+                BlueIdCalculator.Memo rightMemo = BlueIdCalculator.memoOf(right);
+
+                left.getProperties().get("leaf").value("b");
+
+                assertEquals(uncachedBlueId(root), BlueIdCalculator.calculateBlueId(root));
+                assertSame(rightMemo, BlueIdCalculator.memoOf(right));
+
+                right.getItems().get(1).type(new Node().blueId(TEXT_TYPE_BLUE_ID));
+                assertEquals(uncachedBlueId(root), BlueIdCalculator.calculateBlueId(root));
+        }
+
+        @Test
+        public void testMemoizedBlueIdsFollowDirectCollectionEdits() {
+                Node root = new Node().properties("a", new Node().value("x"), "b", new Node().value("y"));
+                BlueIdCalculator.calculateBlueId(root);
+
+                root.getProperties().put("c", new Node().value("z"));
+                assertEquals(uncachedBlueId(root), BlueIdCalculator.calculateBlueId(root));
+
+                Node moved = root.getProperties().remove("a");
+                root.getProperties().put("d", moved);
+                assertEquals(uncachedBlueId(root), BlueIdCalculator.calculateBlueId(root));
+
+                Node list = new Node().items(new Node().value(1), new Node().value(2));
+                BlueIdCalculator.calculateBlueId(list);
+                list.getItems().set(0, new Node().value(3));
+                assertEquals(uncachedBlueId(list), BlueIdCalculator.calculateBlueId(list));
+        }
+
+        @Test
+        public void testRecalculationSkipsUneditedSubtrees() {
+                ReadCountingNode untouchedLeaf = new ReadCountingNode();
+                untouchedLeaf.value("kept");
+                ReadCountingNode untouched = new ReadCountingNode();
+                untouched.properties("leaf", untouchedLeaf);
+                Node edited = new Node().value("before");
+                Node root = new Node().properties("untouched", untouched, "path", new Node().properties("edited", edited));
+
+                BlueIdCalculator.calculateBlueId(root);
+                edited.value("after");
+                String expected = uncachedBlueId(root);
+                untouched.reads = 0;
+                untouchedLeaf.reads = 0;
+
+                assertEquals(expected, BlueIdCalculator.calculateBlueId(root));
+                assertEquals(0, untouched.reads);
+                assertEquals(0, untouchedLeaf.reads);
+
+                untouchedLeaf.value("changed");
+                assertEquals(uncachedBlueId(root), BlueIdCalculator.calculateBlueId(root));
+        }
+
+        @Test
+        public void testMemoizedBlueIdsMatchUncachedForListControlsAndEmptyChildren() {
+                Node list = new Node().items(
+                                new Node().previousBlueId(BlueIdCalculator.calculateBlueId(new Node().value("seed"))),
+                                new Node().value("appended"),
+                                new Node().position(0).value("replaced"),
+                                new Node());
+                Node root = new Node().properties("list", list, "empty", new Node());
+
+                assertEquals(uncachedBlueId(root), BlueIdCalculator.calculateBlueId(root));
+                assertEquals(BlueIdCalculator.INSTANCE.calculate(((Map<?, ?>) NodeToMapListOrValue.get(list)).get(OBJECT_ITEMS)),
+                                BlueIdCalculator.calculateBlueId(list.getItems()));
+                assertEquals(uncachedBlueId(new Node()), BlueIdCalculator.calculateBlueId(new Node()));
+        }
+
+        private static final class ReadCountingNode extends Node {
+                private int reads;
+
+                @Override
+                protected void materialize() {
+                        reads++;
+                }
+        }
+
+        private static String uncachedBlueId(Node node) {
+                return BlueIdCalculator.INSTANCE.calculate(NodeToMapListOrValue.get(node));
+        }
+
         private static Function<Object, String> fakeHashValueProvider() {
                 return obj -> "hash(" + obj + ")";
         }
@@ -0,0 +1,81 @@
+package blue.language.utils;
+
+import blue.language.Blue;
+import blue.language.model.Node;
+import blue.language.snapshot.FrozenNode;
+import org.erdtman.jcs.JsonCanonicalizer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CanonicalSizeTest {
+
+    private static final String DOCUMENT = "name: Größe \"quoted\"\n" +
+            "description: line\\nbreak ✓ 𝄞\n" +
+            "type:\n" +
+            "  blueId: 8xYi5SPAi5vASb1bq2arGbNoBhqTBwZhsZDWhSYKkuqE\n" +
+            "counter:\n" +
+            "  type: Integer\n" +
+            "  value: 12345678901234567890\n" +
+            "ratio: 0.1\n" +
+            "flag: true\n" +
+            "entries:\n" +
+            "  - a\n" +
+            "  - 2\n" +
+            "  - name: Nested\n" +
+            "    amount: 1e21\n" +
+            "limited:\n" +
+            "  type: Integer\n" +
+            "  schema:\n" +
+            "    minimum: 1\n" +
+            "    maximum: 10\n" +
+            "emptyList: []\n";
+
+    @Test
+    void nodeSizesMatchCanonicalizedJson() {
+        Node document = document();
+
+        assertEquals(jcsSize(document), CanonicalSize.of(document));
+        for (Node child : document.getProperties().values()) {
+            assertEquals(jcsSize(child), CanonicalSize.of(child));
+        }
+        Node scalars = new Node().items(
+                new Node().value(new BigDecimal("1.5E+300")),
+                new Node().value(BigInteger.valueOf(-9007199254740991L)),
+                new Node().value("\u0001\t\u007f"),
+                new Node().blueId("8xYi5SPAi5vASb1bq2arGbNoBhqTBwZhsZDWhSYKkuqE"));
+        assertEquals(jcsSize(scalars), CanonicalSize.of(scalars));
+    }
+
+    @Test
+    void frozenSizesMatchAndFollowPatches() {
+        Node document = document();
+        FrozenNode frozen = FrozenNode.fromNode(document);
+
+        assertEquals(jcsSize(frozen.toNode()), frozen.canonicalSize());
+
+        FrozenNode patched = frozen.withProperty("flag", FrozenNode.fromNode(new Node().value("patched ✓")))
+                .withProperty("extra", FrozenNode.fromNode(new Node().items(new Node().value(1), new Node().value(2))));
+        patched = patched.withProperty("entries", patched.property("entries").withItem(0, FrozenNode.fromNode(new Node().value("x"))));
+
+        assertEquals(jcsSize(patched.toNode()), patched.canonicalSize());
+    }
+
+    private static Node document() {
+        return new Blue().yamlToNode(DOCUMENT)
+                .blue(new Node().items(new Node().blueId("8xYi5SPAi5vASb1bq2arGbNoBhqTBwZhsZDWhSYKkuqE")));
+    }
+
+    private static long jcsSize(Node node) {
+        try {
+            String json = UncheckedObjectMapper.JSON_MAPPER.writeValueAsString(NodeToMapListOrValue.get(node));
+            return new JsonCanonicalizer(json).getEncodedString().getBytes(StandardCharsets.UTF_8).length;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
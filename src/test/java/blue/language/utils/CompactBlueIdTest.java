@@ -0,0 +1,94 @@
+package blue.language.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactBlueIdTest {
+
+    private static final String ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+
+    @Test
+    void base58MatchesBigIntegerConversionAndRoundTrips() {
+        Random random = new Random(7);
+        for (int n = 0; n < 2000; n++) {
+            byte[] bytes = new byte[1 + random.nextInt(48)];
+            random.nextBytes(bytes);
+            Arrays.fill(bytes, 0, Math.min(bytes.length - 1, random.nextInt(3)), (byte) 0);
+
+            String encoded = Base58.encode(bytes);
+
+            assertEquals(bigIntegerBase58(bytes), encoded);
+            assertArrayEquals(bytes, Base58.decode(encoded));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Base58.decode("0OIl"));
+    }
+
+    @Test
+    void digestBlueIdsConvertToAndFromStringsUnchanged() {
+        StreamingBase58Sha256Provider hash = new StreamingBase58Sha256Provider();
+        Object content = Collections.singletonMap("name", "Compact");
+        String blueId = hash.apply(content);
+
+        CompactBlueId compact = CompactBlueId.of(blueId);
+
+        assertTrue(compact.isDigest());
+        assertEquals(blueId, compact.toString());
+        assertSame(compact.toString(), compact.toString());
+        assertEquals(compact, hash.applyCompact(content));
+        assertEquals(compact.hashCode(), hash.applyCompact(content).hashCode());
+        assertArrayEquals(Base58.decode(blueId), compact.digest());
+    }
+
+    @Test
+    void symbolicAndIndexedBlueIdsAreKeptAsText() {
+        String blueId = new StreamingBase58Sha256Provider().apply("x");
+        for (String text : new String[]{"Text", "TestEvent", blueId + "#3", "1"}) {
+            CompactBlueId compact = CompactBlueId.of(text);
+
+            assertFalse(compact.isDigest());
+            assertEquals(text, compact.toString());
+            assertEquals(compact, CompactBlueId.of(text));
+        }
+        assertNotEquals(CompactBlueId.of(blueId), CompactBlueId.of(blueId + "#3"));
+        assertThrows(IllegalStateException.class, () -> CompactBlueId.of("Text").digest());
+    }
+
+    @Test
+    void internPoolSharesOneInstancePerBlueId() {
+        CompactBlueId.InternPool pool = new CompactBlueId.InternPool();
+        String blueId = new StreamingBase58Sha256Provider().apply("pooled");
+
+        CompactBlueId first = pool.intern(blueId);
+
+        assertSame(first, pool.intern(CompactBlueId.of(blueId)));
+        assertSame(first, pool.intern(blueId));
+        assertEquals(1, pool.size());
+    }
+
+    private static String bigIntegerBase58(byte[] bytes) {
+        StringBuilder result = new StringBuilder();
+        BigInteger value = new BigInteger(1, bytes);
+        BigInteger base = BigInteger.valueOf(58);
+        while (value.signum() > 0) {
+            BigInteger[] divmod = value.divideAndRemainder(base);
+            result.insert(0, ALPHABET.charAt(divmod[1].intValue()));
+            value = divmod[0];
+        }
+        for (int i = 0; i < bytes.length && bytes[i] == 0; i++) {
+            result.insert(0, '1');
+        }
+        return result.toString();
+    }
+}
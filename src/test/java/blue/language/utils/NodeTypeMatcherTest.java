@@ -11,8 +11,12 @@ import blue.language.snapshot.ResolvedSnapshot;
 import blue.language.utils.limits.PathLimits;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static blue.language.utils.Properties.DICTIONARY_TYPE_BLUE_ID;
 import static blue.language.utils.UncheckedObjectMapper.YAML_MAPPER;
@@ -914,6 +918,35 @@ public class NodeTypeMatcherTest {
                 "repeated frozen matches should reuse the already-resolved observed path");
     }
 
+    @Test
+    void sharedFrozenMatcherGivesConsistentAnswersAcrossThreads() throws Exception {
+        int depth = 7;
+        int ignoredSiblings = 20;
+        BasicNodeProvider matching = generatedNestedReferenceProvider(false, depth, ignoredSiblings);
+        BasicNodeProvider mismatching = generatedNestedReferenceProvider(true, depth, ignoredSiblings);
+        Blue matchingBlue = new Blue(matching);
+        Blue mismatchingBlue = new Blue(mismatching);
+        FrozenTypeMatcher matcher = new FrozenTypeMatcher(matchingBlue);
+        FrozenNode candidate = FrozenNode.fromResolvedNode(generatedNestedCandidate(matchingBlue, matching));
+        FrozenNode pattern = FrozenNode.fromResolvedNode(generatedNestedPattern(matchingBlue, matching, depth));
+        FrozenNode otherCandidate = FrozenNode.fromResolvedNode(generatedNestedCandidate(mismatchingBlue, mismatching));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                boolean expectMatch = i % 2 == 0;
+                futures.add(executor.submit(() -> expectMatch
+                        == matcher.matchesType(expectMatch ? candidate : otherCandidate, pattern)));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void complexItemTypeConformanceResolvesOnlyItemsAndTypeDefinitionsThatMatter() {
         BasicNodeProvider delegate = new BasicNodeProvider();
@@ -0,0 +1,132 @@
+package blue.language.utils;
+
+import blue.language.model.Node;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StreamingBase58Sha256ProviderTest {
+
+    private final Base58Sha256Provider legacy = new Base58Sha256Provider();
+    private final StreamingBase58Sha256Provider streaming = new StreamingBase58Sha256Provider();
+
+    @Test
+    public void matchesLegacyProviderForScalars() {
+        List<Object> scalars = Arrays.asList(
+                "plain",
+                "",
+                "quote \" backslash \\ slash /",
+                "controls \n\r\t\b\f \u0001 \u001f \u007f",
+                "unicode żółć €   😀",
+                "lone \uD800 surrogate",
+                true,
+                false,
+                BigInteger.ZERO,
+                BigInteger.valueOf(-42),
+                BigInteger.valueOf(9007199254740991L),
+                BigInteger.valueOf(9007199254740992L),
+                new BigInteger("-123456789012345678901234567890"),
+                new BigDecimal("0.1"),
+                new BigDecimal("-1.5E+3"),
+                new BigDecimal("123456789.123456789"),
+                new BigDecimal("1E-7"),
+                new BigDecimal("1E+21"),
+                1,
+                Long.MAX_VALUE,
+                0.000001d,
+                1e21d,
+                -0.0d,
+                3.0f);
+        for (Object scalar : scalars) {
+            assertEquals(legacy.apply(scalar), streaming.apply(scalar), "Mismatch for " + scalar);
+        }
+    }
+
+    @Test
+    public void matchesLegacyProviderForStructures() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("zeta", "last");
+        map.put("alpha", Collections.singletonMap("blueId", "7UEBwTmRMfQ92rGt4vHkzPa8Ypd5KJsLNcA9FV8xBqGj"));
+        map.put("€uro", BigInteger.TEN);
+        map.put("😀", "astral key sorts by UTF-16 code units");
+        map.put("ﬁ", "BMP key above surrogates");
+        map.put("items", Arrays.asList(BigInteger.ONE, "two", Collections.emptyMap(), Collections.emptyList()));
+        map.put("nested", new TreeMap<>(Collections.singletonMap("value", new BigDecimal("2.50"))));
+
+        assertEquals(legacy.apply(map), streaming.apply(map));
+        assertEquals(legacy.apply(Collections.emptyMap()), streaming.apply(Collections.emptyMap()));
+        assertEquals(legacy.apply(Collections.singletonMap("$list", "empty")), streaming.apply(Collections.singletonMap("$list", "empty")));
+    }
+
+    @Test
+    public void dropsNullMapValuesLikeLegacyProvider() {
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("kept", "value");
+        nested.put("dropped", null);
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("only", Collections.singletonMap("dropped", null));
+        map.put("nested", nested);
+        map.put("sorted", new TreeMap<>(nested));
+        map.put("empty", null);
+
+        assertEquals(legacy.apply(map), streaming.apply(map));
+        assertEquals(legacy.apply(Collections.singletonMap("dropped", null)),
+                streaming.apply(Collections.singletonMap("dropped", null)));
+        assertEquals(legacy.apply(Collections.emptyMap()), streaming.apply(Collections.singletonMap("dropped", null)));
+    }
+
+    @Test
+    public void matchesLegacyProviderForNodeBlueIds() {
+        Node node = new Node()
+                .name("Order")
+                .description("Multi-line\ndescription")
+                .properties("amount", new Node().value(new BigDecimal("12.75")))
+                .properties("count", new Node().value(BigInteger.valueOf(3)))
+                .properties("tags", new Node().items(new Node().value("a"), new Node().value("b")));
+
+        Object canonical = NodeToMapListOrValue.get(node);
+        assertEquals(new BlueIdCalculator(legacy).calculate(canonical), new BlueIdCalculator(streaming).calculate(canonical));
+        assertEquals(new BlueIdCalculator(legacy).calculate(canonical), BlueIdCalculator.calculateBlueId(node));
+    }
+
+    @Test
+    public void fallsBackToLegacyProviderForUnsupportedValues() {
+        Map<String, Object> map = Collections.singletonMap("value", new Node().value("x"));
+        assertEquals(legacy.apply(map), streaming.apply(map));
+    }
+
+    @Test
+    public void rejectsNonFiniteDecimalsLikeLegacyProvider() {
+        assertThrows(IllegalArgumentException.class, () -> streaming.apply(new BigDecimal("1E+400")));
+    }
+
+    @Test
+    public void formatsNumbersLikeEcmaScript() {
+        assertEquals("0", CanonicalJsonWriter.formatNumber(-0.0d));
+        assertEquals("5e-324", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x0000000000000001L)));
+        assertEquals("1.7976931348623157e+308", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x7fefffffffffffffL)));
+        assertEquals("2.2250738585072014e-308", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x0010000000000000L)));
+        assertEquals("2.225073858507201e-308", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x000fffffffffffffL)));
+        assertEquals("9007199254740992", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x4340000000000000L)));
+        assertEquals("100000000000000000000", CanonicalJsonWriter.formatNumber(1e20));
+        assertEquals("1e+21", CanonicalJsonWriter.formatNumber(1e21));
+        assertEquals("0.000001", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x3eb0c6f7a0b5ed8dL)));
+        assertEquals("9.999999999999997e-7", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x3eb0c6f7a0b5ed8cL)));
+        assertEquals("333333333.3333332", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x41b3de4355555553L)));
+        assertEquals("333333333.33333325", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x41b3de4355555554L)));
+        assertEquals("333333333.3333333", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x41b3de4355555555L)));
+        assertEquals("-0.0000033333333333333333", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0xbecbf647612f3696L)));
+        assertEquals("1424953923781206.2", CanonicalJsonWriter.formatNumber(Double.longBitsToDouble(0x43143ff3c1cb0959L)));
+    }
+}
@@ -0,0 +1,40 @@
+package blue.language.utils;
+
+import blue.language.processor.model.AssertDocumentUpdate;
+import blue.language.processor.model.JsonPatch;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeClassResolverIndexTest {
+
+    @Test
+    void annotatedTestClassesAreListedInTheBuildTimeIndex() throws Exception {
+        Enumeration<URL> indexes = getClass().getClassLoader().getResources(TypeBlueIdIndexProcessor.INDEX_RESOURCE);
+        String lines = "";
+        for (URL index : Collections.list(indexes)) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                lines += reader.lines().collect(Collectors.joining("\n")) + "\n";
+            }
+        }
+
+        assertTrue(lines.contains(AssertDocumentUpdate.class.getName() + "\tAssertDocumentUpdate\n"), lines);
+    }
+
+    @Test
+    void indexedAndScannedRootsOfTheSamePackageAreBothRegistered() {
+        TypeClassResolver resolver = new TypeClassResolver("blue.language.processor.model");
+
+        assertEquals(AssertDocumentUpdate.class, resolver.resolveClass("AssertDocumentUpdate"));
+        assertEquals(JsonPatch.class, resolver.resolveClass("JsonPatch"));
+    }
+}
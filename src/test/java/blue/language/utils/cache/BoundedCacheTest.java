@@ -0,0 +1,74 @@
+package blue.language.utils.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void evictsByWeightAndCountsHitsMissesAndEvictions() {
+        BoundedCache<String, String> cache = new BoundedCache<>(CacheSettings.maximumWeight(10), String::length);
+
+        cache.putIfAbsent("a", "aaaa");
+        cache.putIfAbsent("b", "bbbb");
+        cache.putIfAbsent("c", "cccc");
+
+        assertNull(cache.get("a"));
+        assertEquals("bbbb", cache.get("b"));
+        assertEquals("cccc", cache.get("c"));
+        assertEquals(8, cache.weight());
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.evictionCount());
+        assertEquals(2, stats.size());
+    }
+
+    @Test
+    public void entriesReadAgainSurviveOneOffInsertions() {
+        BoundedCache<String, String> cache = new BoundedCache<>(CacheSettings.maximumWeight(5), value -> 1);
+        cache.putIfAbsent("hot", "hot");
+        cache.get("hot");
+
+        for (int i = 0; i < 20; i++) {
+            cache.putIfAbsent("cold" + i, "cold" + i);
+        }
+
+        assertEquals("hot", cache.get("hot"));
+        assertEquals(5, cache.size());
+        assertEquals("cold19", cache.get("cold19"));
+        assertNull(cache.get("cold0"));
+    }
+
+    @Test
+    public void putIfAbsentKeepsExistingValueAndSkipsValuesHeavierThanBudget() {
+        BoundedCache<String, String> cache = new BoundedCache<>(CacheSettings.maximumWeight(4), String::length);
+        String first = "one";
+
+        assertSame(first, cache.putIfAbsent("k", first));
+        assertSame(first, cache.putIfAbsent("k", "two"));
+        assertEquals("too heavy", cache.putIfAbsent("big", "too heavy"));
+        assertNull(cache.get("big"));
+        assertEquals(3, cache.weight());
+    }
+
+    @Test
+    public void invalidateAndClearReleaseWeight() {
+        BoundedCache<String, String> cache = new BoundedCache<>(CacheSettings.unbounded().softValues(), String::length);
+        cache.putIfAbsent("a", "aa");
+        cache.putIfAbsent("b", "bbb");
+
+        cache.invalidate("a");
+        assertEquals(3, cache.weight());
+        assertEquals("bbb", cache.get("b"));
+
+        cache.clear();
+        assertEquals(0, cache.weight());
+        assertEquals(0, cache.size());
+        assertNull(cache.get("b"));
+    }
+}